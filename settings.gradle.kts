@@ -16,6 +16,7 @@
 rootProject.name = "smithy-typescript"
 include(":smithy-typescript-codegen")
 include(":smithy-typescript-codegen-test")
+include(":smithy-typescript-codegen-benchmarks")
 
 pluginManagement {
     repositories {
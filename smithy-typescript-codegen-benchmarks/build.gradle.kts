@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+description = "JMH benchmarks for the Smithy TypeScript code generator"
+extra["displayName"] = "Smithy :: Typescript :: Codegen :: Benchmarks"
+extra["moduleName"] = "software.amazon.smithy.typescript.codegen.benchmarks"
+
+plugins {
+    id("me.champeau.jmh").version("0.6.8")
+}
+
+dependencies {
+    jmh(project(":smithy-typescript-codegen"))
+}
+
+// Run a subset of the benchmarks with `./gradlew jmh -Pjmh.includes=SymbolVisitorBenchmark`.
+val jmhIncludes: String? = project.findProperty("jmh.includes") as String?
+
+jmh {
+    jmhVersion.set("1.36")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    if (jmhIncludes != null) {
+        includes.add(jmhIncludes)
+    }
+}
+
+// Benchmarks are only run locally and are never published.
+tasks.withType<PublishToMavenRepository>().configureEach {
+    enabled = false
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.List;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator;
+import software.amazon.smithy.typescript.codegen.integration.TypeScriptIntegration;
+import software.amazon.smithy.utils.ListUtils;
+
+/**
+ * Registers the {@link BenchmarkProtocolGenerator} so that full plugin runs
+ * generate protocol serde for synthetic models.
+ */
+public final class BenchmarkIntegration implements TypeScriptIntegration {
+
+    @Override
+    public List<ProtocolGenerator> getProtocolGenerators() {
+        return ListUtils.of(new BenchmarkProtocolGenerator());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import software.amazon.smithy.model.knowledge.HttpBinding;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
+import software.amazon.smithy.typescript.codegen.integration.HttpBindingProtocolGenerator;
+
+/**
+ * A minimal JSON protocol used to exercise {@link HttpBindingProtocolGenerator}.
+ *
+ * <p>Document bodies are written as plain {@code JSON.stringify} and
+ * {@code JSON.parse} calls, so benchmarks measure the HTTP binding logic
+ * shared by every protocol rather than protocol-specific document serde.
+ */
+final class BenchmarkProtocolGenerator extends HttpBindingProtocolGenerator {
+
+    BenchmarkProtocolGenerator() {
+        super(false);
+    }
+
+    @Override
+    public ShapeId getProtocol() {
+        return SyntheticModel.PROTOCOL;
+    }
+
+    @Override
+    public void generateProtocolTests(GenerationContext context) {
+        // Synthetic models have no protocol tests.
+    }
+
+    @Override
+    protected Format getDocumentTimestampFormat() {
+        return Format.EPOCH_SECONDS;
+    }
+
+    @Override
+    protected String getDocumentContentType() {
+        return "application/json";
+    }
+
+    @Override
+    protected void generateDocumentBodyShapeSerializers(GenerationContext context, Set<Shape> shapes) {
+        // Document bodies are serialized inline.
+    }
+
+    @Override
+    protected void generateDocumentBodyShapeDeserializers(GenerationContext context, Set<Shape> shapes) {
+        // Document bodies are deserialized inline.
+    }
+
+    @Override
+    protected void serializeInputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void serializeInputEventDocumentPayload(GenerationContext context) {
+        context.getWriter().write("body = context.utf8Decoder(JSON.stringify(body));");
+    }
+
+    @Override
+    protected void serializeOutputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void serializeErrorDocumentBody(
+            GenerationContext context,
+            StructureShape error,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void writeErrorCodeParser(GenerationContext context) {
+        context.getWriter().write("const errorCode = output.headers[\"x-error-type\"];");
+    }
+
+    @Override
+    protected void deserializeInputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter()
+                .write("Object.assign(contents, JSON.parse(await collectBodyString(output.body, context)));");
+    }
+
+    @Override
+    protected void deserializeOutputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter()
+                .write("Object.assign(contents, JSON.parse(await collectBodyString(output.body, context)));");
+    }
+
+    @Override
+    protected void deserializeErrorDocumentBody(
+            GenerationContext context,
+            StructureShape error,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("Object.assign(contents, JSON.parse(parsedOutput.body));");
+    }
+
+    @Override
+    protected boolean requiresNumericEpochSecondsInPayload() {
+        return true;
+    }
+}
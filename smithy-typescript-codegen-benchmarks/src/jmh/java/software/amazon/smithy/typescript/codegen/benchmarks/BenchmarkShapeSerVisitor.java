@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.Optional;
+import software.amazon.smithy.model.shapes.CollectionShape;
+import software.amazon.smithy.model.shapes.DocumentShape;
+import software.amazon.smithy.model.shapes.MapShape;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.shapes.UnionShape;
+import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.DocumentMemberSerVisitor;
+import software.amazon.smithy.typescript.codegen.integration.DocumentShapeSerVisitor;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+/**
+ * Writes JSON document serializers the way JSON protocols do, with one conditional
+ * object spread per structure member, and supports specialized structure serializers.
+ */
+final class BenchmarkShapeSerVisitor extends DocumentShapeSerVisitor {
+
+    BenchmarkShapeSerVisitor(GenerationContext context) {
+        super(context);
+    }
+
+    @Override
+    protected Optional<DocumentMemberSerVisitor> getSpecializedMemberVisitor(MemberShape member, String dataSource) {
+        return Optional.of(getMemberVisitor(dataSource));
+    }
+
+    @Override
+    protected void serializeCollection(GenerationContext context, CollectionShape shape) {
+        Shape target = context.getModel().expectShape(shape.getMember().getTarget());
+        context.getWriter().write("return input.filter((e: any) => e != null).map((entry) => $L);",
+                target.accept(getMemberVisitor("entry")));
+    }
+
+    @Override
+    protected void serializeDocument(GenerationContext context, DocumentShape shape) {
+        context.getWriter().write("return input;");
+    }
+
+    @Override
+    protected void serializeMap(GenerationContext context, MapShape shape) {
+        TypeScriptWriter writer = context.getWriter();
+        Shape target = context.getModel().expectShape(shape.getValue().getTarget());
+        writer.openBlock("return Object.entries(input).reduce((acc: any, [key, value]: [string, any]) => {", "}, {});",
+                () -> {
+            writer.write("acc[key] = $L;", target.accept(getMemberVisitor("value")));
+            writer.write("return acc;");
+        });
+    }
+
+    @Override
+    protected void serializeStructure(GenerationContext context, StructureShape shape) {
+        TypeScriptWriter writer = context.getWriter();
+        writer.openBlock("return {", "};", () -> {
+            for (MemberShape member : shape.members()) {
+                String dataSource = "input." + member.getMemberName();
+                Shape target = context.getModel().expectShape(member.getTarget());
+                writer.write("...($L != null && { $S: $L }),", dataSource, member.getMemberName(),
+                        target.accept(getMemberVisitor(dataSource)));
+            }
+        });
+    }
+
+    @Override
+    protected void serializeUnion(GenerationContext context, UnionShape shape) {
+        TypeScriptWriter writer = context.getWriter();
+        writer.openBlock("return $L.visit(input, {", "});", shape.getId().getName(), () -> {
+            for (MemberShape member : shape.members()) {
+                Shape target = context.getModel().expectShape(member.getTarget());
+                writer.write("$L: (value) => ({ $S: $L }),", member.getMemberName(), member.getMemberName(),
+                        target.accept(getMemberVisitor("value")));
+            }
+            writer.write("_: (name, value) => ({ [name]: value }),");
+        });
+    }
+
+    private DocumentMemberSerVisitor getMemberVisitor(String dataSource) {
+        return new DocumentMemberSerVisitor(getContext(), dataSource, Format.EPOCH_SECONDS);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+/**
+ * Measures generating the document serializers of a synthetic service, with and
+ * without specialized structure serializers.
+ *
+ * <p>The runtime cost of the generated serializers is compared by
+ * {@code src/node/document-serializers.js}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DocumentSerializerBenchmark {
+
+    @Param({"10", "200"})
+    public int operations;
+
+    @Param({"false", "true"})
+    public boolean specializedSerializers;
+
+    private Model model;
+    private TypeScriptSettings settings;
+    private SymbolProvider symbolProvider;
+    private List<Shape> shapes;
+
+    @Setup
+    public void setup() {
+        model = SyntheticModel.create(operations, 3, 8, false);
+        settings = TypeScriptSettings.from(model, SyntheticModel.settings().toBuilder()
+                .withMember("specializedSerializers", Node.from(specializedSerializers))
+                .build(), ArtifactType.CLIENT);
+        symbolProvider = settings.getArtifactType().createSymbolProvider(model, settings);
+        shapes = new Walker(model).walkShapes(model.expectShape(SyntheticModel.SERVICE)).stream()
+                .filter(shape -> !shape.isServiceShape() && !shape.isOperationShape() && !shape.isMemberShape())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public TypeScriptWriter generateDocumentSerializers() {
+        TypeScriptWriter writer = new TypeScriptWriter("./src/protocols/benchJson");
+        GenerationContext context = new GenerationContext();
+        context.setProtocolName("benchJson");
+        context.setModel(model);
+        context.setSettings(settings);
+        context.setSymbolProvider(symbolProvider);
+        context.setWriter(writer);
+        BenchmarkShapeSerVisitor visitor = new BenchmarkShapeSerVisitor(context);
+        for (Shape shape : shapes) {
+            shape.accept(visitor);
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+/**
+ * Measures generating the HTTP binding request serializers of a synthetic service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HttpBindingSerializerBenchmark {
+
+    @Param({"10", "200"})
+    public int operations;
+
+    @Param({"false", "true"})
+    public boolean eventStreams;
+
+    private Model model;
+    private ServiceShape service;
+    private TypeScriptSettings settings;
+    private SymbolProvider symbolProvider;
+
+    @Setup
+    public void setup() {
+        model = SyntheticModel.create(operations, 3, 8, eventStreams);
+        service = model.expectShape(SyntheticModel.SERVICE, ServiceShape.class);
+        settings = TypeScriptSettings.from(model, SyntheticModel.settings(), ArtifactType.CLIENT);
+        symbolProvider = settings.getArtifactType().createSymbolProvider(model, settings);
+    }
+
+    @Benchmark
+    public TypeScriptWriter generateRequestSerializers() {
+        TypeScriptWriter writer = new TypeScriptWriter("./src/protocols/benchJson");
+        BenchmarkProtocolGenerator protocolGenerator = new BenchmarkProtocolGenerator();
+        GenerationContext context = new GenerationContext();
+        context.setProtocolName(protocolGenerator.getName());
+        context.setModel(model);
+        context.setService(service);
+        context.setSettings(settings);
+        context.setSymbolProvider(symbolProvider);
+        context.setWriter(writer);
+        protocolGenerator.generateRequestSerializers(context);
+        return writer;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.codegen.core.ImportContainer;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+
+/**
+ * Measures rendering the import statements of a generated file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImportDeclarationsBenchmark {
+
+    private static final String[] MODULES = {
+        "@aws-sdk/smithy-client",
+        "@aws-sdk/types",
+        "@aws-sdk/protocol-http",
+        "./models_0",
+        "./models_1",
+        "../protocols/Aws_restJson1",
+    };
+
+    @Param({"10", "500"})
+    public int imports;
+
+    private ImportContainer importContainer;
+
+    @Setup
+    public void setup() {
+        TypeScriptWriter writer = new TypeScriptWriter("./src/commands/GetFooCommand");
+        for (int i = 0; i < imports; i++) {
+            String name = "Shape" + i;
+            writer.addImport(name, i % 3 == 0 ? "__" + name : name, MODULES[i % MODULES.length]);
+        }
+        importContainer = writer.getImportContainer();
+    }
+
+    @Benchmark
+    public String render() {
+        return importContainer.toString();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+
+/**
+ * Measures symbol resolution for every shape in the closure of a synthetic service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SymbolVisitorBenchmark {
+
+    @Param({"10", "200"})
+    public int operations;
+
+    private Model model;
+    private TypeScriptSettings settings;
+    private List<Shape> shapes;
+
+    @Setup
+    public void setup() {
+        model = SyntheticModel.create(operations, 3, 8, false);
+        settings = TypeScriptSettings.from(model, SyntheticModel.settings(), ArtifactType.CLIENT);
+        shapes = new Walker(model).walkShapes(model.expectShape(SyntheticModel.SERVICE)).stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void toSymbol(Blackhole blackhole) {
+        SymbolProvider symbolProvider = settings.getArtifactType().createSymbolProvider(model, settings);
+        for (Shape shape : shapes) {
+            blackhole.consume(symbolProvider.toSymbol(shape));
+        }
+    }
+}
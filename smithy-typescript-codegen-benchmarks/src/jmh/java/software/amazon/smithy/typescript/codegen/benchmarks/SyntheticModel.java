@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.benchmarks;
+
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Builds synthetic models of a configurable size to benchmark the code generator with.
+ *
+ * <p>Every operation is bound to HTTP with a label, a header, a query string, and
+ * a document body. The body is a chain of nested structures {@code depth} levels
+ * deep, each containing a union with {@code unionFanOut} variants. Operations can
+ * optionally return an event stream instead of a document body.
+ */
+final class SyntheticModel {
+
+    static final ShapeId SERVICE = ShapeId.from("smithy.benchmark#Synthetic");
+    static final ShapeId PROTOCOL = ShapeId.from("smithy.benchmark#benchJson");
+
+    private SyntheticModel() {}
+
+    /**
+     * Creates a synthetic model.
+     *
+     * @param operations Number of operations bound to the service.
+     * @param depth Number of nested structures in each operation body.
+     * @param unionFanOut Number of variants of each union.
+     * @param eventStreams Whether operations return event streams.
+     * @return Returns the assembled model.
+     */
+    static Model create(int operations, int depth, int unionFanOut, boolean eventStreams) {
+        if (depth < 1 || unionFanOut < 1) {
+            throw new IllegalArgumentException("depth and unionFanOut must be at least 1");
+        }
+
+        StringBuilder idl = new StringBuilder()
+                .append("$version: \"2.0\"\n")
+                .append("namespace smithy.benchmark\n\n")
+                .append("@trait(selector: \"service\")\n")
+                .append("@protocolDefinition\n")
+                .append("structure benchJson {}\n\n")
+                .append("map StringMap {\n    key: String\n    value: String\n}\n\n")
+                .append("@benchJson\n")
+                .append("service Synthetic {\n")
+                .append("    version: \"2022-01-01\"\n")
+                .append("    operations: [");
+        for (int i = 0; i < operations; i++) {
+            idl.append(i == 0 ? "" : ", ").append("Op").append(i);
+        }
+        idl.append("]\n}\n\n");
+
+        for (int i = 0; i < operations; i++) {
+            appendOperation(idl, "Op" + i, depth, unionFanOut, eventStreams);
+        }
+
+        return Model.assembler()
+                .addUnparsedModel("synthetic.smithy", idl.toString())
+                .assemble()
+                .unwrap();
+    }
+
+    /**
+     * Creates the plugin settings used to generate a synthetic model.
+     *
+     * @return Returns the settings.
+     */
+    static ObjectNode settings() {
+        return Node.objectNodeBuilder()
+                .withMember("service", Node.from(SERVICE.toString()))
+                .withMember("package", Node.from("synthetic"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build();
+    }
+
+    private static void appendOperation(
+            StringBuilder idl,
+            String name,
+            int depth,
+            int unionFanOut,
+            boolean eventStreams
+    ) {
+        idl.append("@http(method: \"POST\", uri: \"/").append(name).append("/{id}\")\n")
+                .append("operation ").append(name).append(" {\n")
+                .append("    input: ").append(name).append("Input\n")
+                .append("    output: ").append(name).append("Output\n")
+                .append("    errors: [").append(name).append("Error]\n")
+                .append("}\n\n");
+
+        idl.append("@input\nstructure ").append(name).append("Input {\n")
+                .append("    @required\n    @httpLabel\n    id: String\n")
+                .append("    @httpHeader(\"x-token\")\n    token: String\n")
+                .append("    @httpQuery(\"limit\")\n    limit: Integer\n")
+                .append("    body: ").append(name).append("Nested0\n")
+                .append("}\n\n");
+
+        idl.append("@output\nstructure ").append(name).append("Output {\n")
+                .append("    @httpHeader(\"x-request-id\")\n    requestId: String\n");
+        if (eventStreams) {
+            idl.append("    @httpPayload\n    events: ").append(name).append("Events\n");
+        } else {
+            idl.append("    body: ").append(name).append("Nested0\n");
+        }
+        idl.append("}\n\n");
+
+        idl.append("@error(\"client\")\n@httpError(404)\nstructure ").append(name).append("Error {\n")
+                .append("    message: String\n")
+                .append("}\n\n");
+
+        if (eventStreams) {
+            idl.append("@streaming\nunion ").append(name).append("Events {\n")
+                    .append("    event: ").append(name).append("Event\n")
+                    .append("}\n\n")
+                    .append("structure ").append(name).append("Event {\n")
+                    .append("    @eventHeader\n    sequence: Integer\n")
+                    .append("    @eventPayload\n    payload: ").append(name).append("Nested0\n")
+                    .append("}\n\n");
+        }
+
+        for (int level = 0; level < depth; level++) {
+            idl.append("structure ").append(name).append("Nested").append(level).append(" {\n")
+                    .append("    name: String\n")
+                    .append("    count: Integer\n")
+                    .append("    created: Timestamp\n")
+                    .append("    tags: StringMap\n")
+                    .append("    choice: ").append(name).append("Choice\n");
+            if (level + 1 < depth) {
+                idl.append("    child: ").append(name).append("Nested").append(level + 1).append("\n");
+            }
+            idl.append("}\n\n");
+        }
+
+        idl.append("union ").append(name).append("Choice {\n");
+        String[] targets = {"String", "Integer", "Boolean", "Timestamp", "Blob", "StringMap"};
+        for (int variant = 0; variant < unionFanOut; variant++) {
+            idl.append("    variant").append(variant).append(": ").append(targets[variant % targets.length])
+                    .append("\n");
+        }
+        idl.append("}\n\n");
+    }
+}
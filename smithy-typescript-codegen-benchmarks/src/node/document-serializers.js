@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+// Compares the runtime cost of document serializers written with one conditional
+// object spread per member against specialized serializers, serializing a list of
+// nested structures with string, number, timestamp, and blob members to JSON.
+//
+// Run with `node src/node/document-serializers.js`.
+
+const context = {
+  base64Encoder: (input) => Buffer.from(input).toString("base64"),
+};
+
+// Serializers as written by BenchmarkShapeSerVisitor#serializeStructure.
+const spreadNested1 = (input, context) => ({
+  ...(input.name != null && { name: input.name }),
+  ...(input.count != null && { count: input.count }),
+  ...(input.created != null && { created: Math.round(input.created.getTime() / 1000) }),
+  ...(input.data != null && { data: context.base64Encoder(input.data) }),
+});
+const spreadNested0 = (input, context) => ({
+  ...(input.name != null && { name: input.name }),
+  ...(input.count != null && { count: input.count }),
+  ...(input.created != null && { created: Math.round(input.created.getTime() / 1000) }),
+  ...(input.data != null && { data: context.base64Encoder(input.data) }),
+  ...(input.child != null && { child: spreadNested1(input.child, context) }),
+});
+const spreadList = (input, context) => input.filter((e) => e != null).map((entry) => spreadNested0(entry, context));
+
+// Serializers as written with the specializedSerializers setting.
+const specializedNested1 = (input, context) => ({
+  name: input.name ?? undefined,
+  count: input.count ?? undefined,
+  created: input.created != null ? Math.round(input.created.getTime() / 1000) : undefined,
+  data: input.data != null ? context.base64Encoder(input.data) : undefined,
+});
+const specializedNested0 = (input, context) => ({
+  name: input.name ?? undefined,
+  count: input.count ?? undefined,
+  created: input.created != null ? Math.round(input.created.getTime() / 1000) : undefined,
+  data: input.data != null ? context.base64Encoder(input.data) : undefined,
+  child: input.child != null ? specializedNested1(input.child, context) : undefined,
+});
+const specializedList = (input, context) =>
+  input.filter((e) => e != null).map((entry) => specializedNested0(entry, context));
+
+const input = Array.from({ length: 200 }, (_, i) => ({
+  name: `name-${i}`,
+  count: i % 3 === 0 ? undefined : i,
+  created: new Date(1600000000000 + i),
+  data: i % 5 === 0 ? new Uint8Array([1, 2, 3]) : undefined,
+  child: i % 2 === 0 ? undefined : { name: "child", count: i, created: new Date(1700000000000) },
+}));
+
+if (JSON.stringify(spreadList(input, context)) !== JSON.stringify(specializedList(input, context))) {
+  throw new Error("Serializers produced different documents");
+}
+
+const measure = (name, serialize) => {
+  const iterations = 20000;
+  for (let i = 0; i < iterations / 10; i++) {
+    JSON.stringify(serialize(input, context));
+  }
+  const start = process.hrtime.bigint();
+  for (let i = 0; i < iterations; i++) {
+    JSON.stringify(serialize(input, context));
+  }
+  const micros = Number(process.hrtime.bigint() - start) / iterations / 1000;
+  console.log(`${name}: ${micros.toFixed(1)} us/op`);
+};
+
+measure("spread", spreadList);
+measure("specialized", specializedList);
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Collects the modules exported by barrel "index.ts" files as code is generated
+ * and writes each index file exactly once.
+ *
+ * <p>Exports within an index are sorted, so the generated index does not depend
+ * on the order in which modules were registered.
+ */
+@SmithyInternalApi
+final class BarrelIndexCollector {
+
+    private static final String INDEX_FILE = "index.ts";
+
+    private final Map<String, Set<String>> indexes = new TreeMap<>();
+
+    /**
+     * Exports a generated file from the index of the directory that contains it.
+     *
+     * @param file Path of the generated TypeScript file, e.g. "./src/commands/GetFooCommand.ts".
+     */
+    void addFileExport(String file) {
+        Path path = Paths.get(file).normalize();
+        Path directory = path.getParent();
+        if (directory == null) {
+            throw new CodegenException("Cannot export a file from the root of the package: " + file);
+        }
+        addExport(directory.toString(), "./" + path.getFileName().toString().replaceFirst("\\.ts$", ""));
+    }
+
+    /**
+     * Registers the index of a directory, so it is written even if nothing is exported from it.
+     *
+     * @param directory Directory containing the index, e.g. "src/models".
+     */
+    void addIndex(String directory) {
+        String indexFile = Paths.get(directory, INDEX_FILE).normalize().toString();
+        indexes.computeIfAbsent(indexFile, f -> new TreeSet<>());
+    }
+
+    /**
+     * Exports a module from the index of a directory.
+     *
+     * @param directory Directory containing the index, e.g. "src/server".
+     * @param module Module to export, relative to the directory, e.g. "./operations".
+     */
+    void addExport(String directory, String module) {
+        String indexFile = Paths.get(directory, INDEX_FILE).normalize().toString();
+        indexes.computeIfAbsent(indexFile, f -> new TreeSet<>()).add(module);
+    }
+
+    /**
+     * Writes every collected index file to the manifest.
+     *
+     * @param fileManifest Manifest to write the index files to.
+     */
+    void writeIndexes(FileManifest fileManifest) {
+        indexes.forEach((indexFile, modules) -> {
+            TypeScriptWriter writer = new TypeScriptWriter("");
+            for (String module : modules) {
+                writer.write("export * from $S;", module);
+            }
+            fileManifest.writeFile(indexFile, writer.toString());
+        });
+        indexes.clear();
+    }
+}
@@ -25,14 +25,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolDependency;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.knowledge.OperationIndex;
-import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
@@ -43,6 +41,7 @@ import software.amazon.smithy.typescript.codegen.endpointsV2.EndpointsParamNameM
 import software.amazon.smithy.typescript.codegen.endpointsV2.RuleSetParameterFinder;
 import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator;
 import software.amazon.smithy.typescript.codegen.integration.RuntimeClientPlugin;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.OptionalUtils;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -56,6 +55,10 @@ final class CommandGenerator implements Runnable {
     static final String COMMAND_PROPERTIES_SECTION = "command_properties";
     static final String COMMAND_BODY_EXTRA_SECTION = "command_body_extra";
     static final String COMMAND_CONSTRUCTOR_SECTION = "command_constructor";
+    static final String MIDDLEWARE_CACHE_FILE =
+            Paths.get(CodegenUtils.SOURCE_FOLDER, COMMANDS_FOLDER, "middlewareCache.ts").toString();
+    static final String MIDDLEWARE_CACHE_SPEC_FILE =
+            Paths.get(CodegenUtils.SOURCE_FOLDER, COMMANDS_FOLDER, "middlewareCache.spec.ts").toString();
 
     private final TypeScriptSettings settings;
     private final Model model;
@@ -105,6 +108,36 @@ final class CommandGenerator implements Runnable {
         generateClientCommand();
     }
 
+    /**
+     * Writes the middleware cache that commands use to resolve their middleware
+     * when {@link TypeScriptSettings#cacheResolvedMiddleware()} is enabled.
+     *
+     * @param writer The writer for {@link #MIDDLEWARE_CACHE_FILE}.
+     */
+    static void writeMiddlewareCache(TypeScriptWriter writer) {
+        writer.addDependency(TypeScriptDependency.MIDDLEWARE_STACK);
+        writer.addDependency(TypeScriptDependency.AWS_SDK_TYPES);
+        writer.addImport("constructStack", "constructStack", TypeScriptDependency.MIDDLEWARE_STACK.packageName);
+        writer.addImport("HandlerExecutionContext", "HandlerExecutionContext",
+                TypeScriptDependency.AWS_SDK_TYPES.packageName);
+        writer.addImport("MiddlewareStack", "MiddlewareStack", TypeScriptDependency.AWS_SDK_TYPES.packageName);
+        writer.write(IoUtils.readUtf8Resource(CommandGenerator.class, "middleware-cache.ts"));
+    }
+
+    /**
+     * Writes the tests of the middleware cache.
+     *
+     * @param writer The writer for {@link #MIDDLEWARE_CACHE_SPEC_FILE}.
+     */
+    static void writeMiddlewareCacheSpec(TypeScriptWriter writer) {
+        writer.addDependency(SymbolDependency.builder()
+                .dependencyType("devDependencies")
+                .packageName("@types/jest")
+                .version("latest")
+                .build());
+        writer.write("$L", IoUtils.readUtf8Resource(CommandGenerator.class, "middleware-cache.spec.ts"));
+    }
+
     private void generateClientCommand() {
         Symbol serviceSymbol = symbolProvider.toSymbol(service);
         String configType = ServiceBareBonesClientGenerator.getResolvedConfigTypeName(serviceSymbol);
@@ -235,7 +268,6 @@ final class CommandGenerator implements Runnable {
     }
 
     private void generateCommandMiddlewareResolver(String configType) {
-        Symbol serde = TypeScriptDependency.MIDDLEWARE_SERDE.createSymbol("getSerdePlugin");
         writer.writeDocs("@internal");
         writer.write("resolveMiddleware(")
                 .indent()
@@ -244,65 +276,46 @@ final class CommandGenerator implements Runnable {
                 .write("options?: $T", applicationProtocol.getOptionsType())
                 .dedent();
         writer.openBlock("): Handler<$T, $T> {", "}", inputType, outputType, () -> {
-            // Add serialization and deserialization plugin.
-            writer.write("this.middlewareStack.use($T(configuration, this.serialize, this.deserialize));", serde);
-
-            // EndpointsV2
-            if (service.hasTrait(EndpointRuleSetTrait.class)) {
-                writer.addImport(
-                    "getEndpointPlugin",
-                    "getEndpointPlugin",
-                    "@aws-sdk/middleware-endpoint"
-                );
-                writer.openBlock(
-                    "this.middlewareStack.use(getEndpointPlugin(configuration, ",
-                    "));",
-                    () -> {
-                        writer.write("$L.getEndpointParameterInstructions()", symbol.getName());
-                    }
-                );
+            if (settings.cacheResolvedMiddleware()) {
+                // Only the plugins added below have a fixed order, so commands whose stack was
+                // changed by the caller combine the stacks as usual.
+                writer.write("const cacheable = this.middlewareStack.identify().length === 0;");
             }
+            addPlugins("this.middlewareStack");
 
-            // Add customizations.
-            addCommandSpecificPlugins();
-
-            // Resolve the middleware stack.
-            writer.write("\nconst stack = clientStack.concat(this.middlewareStack);\n");
+            if (settings.cacheResolvedMiddleware()) {
+                // Reuse the middleware order of the command class while the client stack is unchanged.
+                writer.addImport("resolveCachedMiddleware", "resolveCachedMiddleware",
+                        Paths.get(".", MIDDLEWARE_CACHE_FILE.replace(".ts", "")).toString());
+                writer.write("");
+                writer.write("const stack = cacheable");
+                writer.indent();
+                writer.write("? resolveCachedMiddleware($L, clientStack, configuration, this.middlewareStack)",
+                        symbol.getName());
+                writer.write(": clientStack.concat(this.middlewareStack);");
+                writer.dedent();
+                writer.write("");
+            } else {
+                // Resolve the middleware stack.
+                writer.write("\nconst stack = clientStack.concat(this.middlewareStack);\n");
+            }
             writer.write("const { logger } = configuration;");
+            Optional<StructureShape> input = operationIndex.getInput(operation);
+            Optional<StructureShape> output = operationIndex.getOutput(operation);
+            if (isFilteredWhenLogged(input) || isFilteredWhenLogged(output)) {
+                // Loggers that drop info messages do not need filtered copies of inputs and outputs.
+                writer.addImport("NoOpLogger", "__NoOpLogger", TypeScriptDependency.AWS_SMITHY_CLIENT.packageName);
+                writer.write("const logsInfo = typeof logger?.info === \"function\" "
+                        + "&& !(logger instanceof __NoOpLogger);");
+            }
             writer.write("const clientName = $S;", symbolProvider.toSymbol(service).getName());
             writer.write("const commandName = $S;", symbolProvider.toSymbol(operation).getName());
             writer.openBlock("const handlerExecutionContext: HandlerExecutionContext = {", "}", () -> {
                 writer.write("logger,");
                 writer.write("clientName,");
                 writer.write("commandName,");
-                writer.openBlock("inputFilterSensitiveLog: ", ",", () -> {
-                    OptionalUtils.ifPresentOrElse(operationIndex.getInput(operation),
-                        input -> {
-                            Symbol inputSymbol = symbolProvider.toSymbol(input);
-                            String filterFunctionName = inputSymbol.getName() + "FilterSensitiveLog";
-                            writer.addImport(
-                                filterFunctionName,
-                                filterFunctionName,
-                                inputSymbol.getNamespace()
-                            );
-                            writer.writeInline(filterFunctionName);
-                        },
-                        () -> writer.writeInline("(input: any) => input"));
-                });
-                writer.openBlock("outputFilterSensitiveLog: ", ",", () -> {
-                    OptionalUtils.ifPresentOrElse(operationIndex.getOutput(operation),
-                        output -> {
-                            Symbol outputSymbol = symbolProvider.toSymbol(output);
-                            String filterFunctionName = outputSymbol.getName() + "FilterSensitiveLog";
-                            writer.addImport(
-                                filterFunctionName,
-                                filterFunctionName,
-                                outputSymbol.getNamespace()
-                            );
-                            writer.writeInline(filterFunctionName);
-                        },
-                        () -> writer.writeInline("(output: any) => output"));
-                });
+                writer.openBlock("inputFilterSensitiveLog: ", ",", () -> writeFilterSensitiveLog(input, "input"));
+                writer.openBlock("outputFilterSensitiveLog: ", ",", () -> writeFilterSensitiveLog(output, "output"));
             });
             writer.write("const { requestHandler } = configuration;");
             writer.openBlock("return stack.resolve(", ");", () -> {
@@ -314,6 +327,30 @@ final class CommandGenerator implements Runnable {
         });
     }
 
+    private boolean isFilteredWhenLogged(Optional<StructureShape> shape) {
+        return settings.lazyFilterSensitiveLog() && shape.isPresent() && new StructuredMemberWriter(
+                model, symbolProvider, shape.get().getAllMembers().values()).isFilterSensitiveLogRequired();
+    }
+
+    private void writeFilterSensitiveLog(Optional<StructureShape> shape, String param) {
+        OptionalUtils.ifPresentOrElse(shape,
+            structure -> {
+                Symbol structureSymbol = symbolProvider.toSymbol(structure);
+                String filterFunctionName = structureSymbol.getName() + "FilterSensitiveLog";
+                writer.addImport(
+                    filterFunctionName,
+                    filterFunctionName,
+                    structureSymbol.getNamespace()
+                );
+                if (isFilteredWhenLogged(shape)) {
+                    writer.writeInline("logsInfo ? $L : ($L: any) => $L", filterFunctionName, param, param);
+                } else {
+                    writer.writeInline(filterFunctionName);
+                }
+            },
+            () -> writer.writeInline("($L: any) => $L", param, param));
+    }
+
     private void addInputAndOutputTypes() {
         writeInputType(inputType.getName(), operationIndex.getInput(operation));
         writeOutputType(outputType.getName(), operationIndex.getOutput(operation));
@@ -355,7 +392,33 @@ final class CommandGenerator implements Runnable {
         }
     }
 
-    private void addCommandSpecificPlugins() {
+    private void addPlugins(String stack) {
+        // Add serialization and deserialization plugin.
+        Symbol serde = TypeScriptDependency.MIDDLEWARE_SERDE.createSymbol("getSerdePlugin");
+        writer.write("$L.use($T(configuration, this.serialize, this.deserialize));", stack, serde);
+
+        // EndpointsV2
+        if (service.hasTrait(EndpointRuleSetTrait.class)) {
+            writer.addImport(
+                "getEndpointPlugin",
+                "getEndpointPlugin",
+                "@aws-sdk/middleware-endpoint"
+            );
+            writer.openBlock(
+                "$L.use(getEndpointPlugin(configuration, ",
+                "));",
+                stack,
+                () -> {
+                    writer.write("$L.getEndpointParameterInstructions()", symbol.getName());
+                }
+            );
+        }
+
+        // Add customizations.
+        addCommandSpecificPlugins(stack);
+    }
+
+    private void addCommandSpecificPlugins(String stack) {
         // Some plugins might only apply to specific commands. They are added to the
         // command's middleware stack here. Plugins that apply to all commands are
         // applied automatically when the Command's middleware stack is copied from
@@ -369,8 +432,8 @@ final class CommandGenerator implements Runnable {
                 String additionalParamsString = additionalParameters.isEmpty()
                     ? ""
                     : ", { " + String.join(", ", additionalParameters) + "}";
-                writer.write("this.middlewareStack.use($T(configuration$L));",
-                        symbol, additionalParamsString);
+                writer.write("$L.use($T(configuration$L));",
+                        stack, symbol, additionalParamsString);
             });
         }
     }
@@ -414,23 +477,4 @@ final class CommandGenerator implements Runnable {
             writer.write("return $L($L, context);", serdeFunctionName, isInput ? "input" : "output");
         }
     }
-
-    static void writeIndex(
-            Model model,
-            ServiceShape service,
-            SymbolProvider symbolProvider,
-            FileManifest fileManifest
-    ) {
-        TypeScriptWriter writer = new TypeScriptWriter("");
-
-        TopDownIndex topDownIndex = TopDownIndex.of(model);
-        Set<OperationShape> containedOperations = new TreeSet<>(topDownIndex.getContainedOperations(service));
-        for (OperationShape operation : containedOperations) {
-            writer.write("export * from \"./$L\";", symbolProvider.toSymbol(operation).getName());
-        }
-
-        fileManifest.writeFile(
-            Paths.get(CodegenUtils.SOURCE_FOLDER, CommandGenerator.COMMANDS_FOLDER, "index.ts").toString(),
-            writer.toString());
-    }
 }
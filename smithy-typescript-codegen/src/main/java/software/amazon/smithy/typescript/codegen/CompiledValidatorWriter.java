@@ -0,0 +1,335 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import static software.amazon.smithy.typescript.codegen.StructuredMemberWriter.getConstraintTraits;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.CollectionShape;
+import software.amazon.smithy.model.shapes.MapShape;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.SimpleShape;
+import software.amazon.smithy.model.shapes.StringShape;
+import software.amazon.smithy.model.traits.EnumTrait;
+import software.amazon.smithy.model.traits.LengthTrait;
+import software.amazon.smithy.model.traits.MediaTypeTrait;
+import software.amazon.smithy.model.traits.PatternTrait;
+import software.amazon.smithy.model.traits.RangeTrait;
+import software.amazon.smithy.model.traits.RequiredTrait;
+import software.amazon.smithy.model.traits.SensitiveTrait;
+import software.amazon.smithy.model.traits.Trait;
+import software.amazon.smithy.model.traits.UniqueItemsTrait;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Writes the validation of a structure or union as flat functions with inlined
+ * constraint checks.
+ *
+ * <p>The generated {@code validateInto} function checks each member directly and
+ * pushes failures into a single array that is passed down to the validation of
+ * nested structures and unions, so no validator objects are created and no failure
+ * arrays are spread. Failures are reported in the same order and with the same
+ * contents as the validators written by {@link StructuredMemberWriter}.
+ */
+@SmithyInternalApi
+final class CompiledValidatorWriter {
+
+    private final Model model;
+    private final SymbolProvider symbolProvider;
+    private final Collection<MemberShape> members;
+    private final Map<String, String> constants = new LinkedHashMap<>();
+
+    CompiledValidatorWriter(Model model, SymbolProvider symbolProvider, Collection<MemberShape> members) {
+        this.model = model;
+        this.symbolProvider = symbolProvider;
+        this.members = members;
+    }
+
+    /**
+     * Writes the validate and validateInto functions, positioned in the namespace of the shape.
+     *
+     * @param writer the writer
+     * @param writeObjectType writes the type of the validated object inline
+     */
+    void writeValidateFunctions(TypeScriptWriter writer, Runnable writeObjectType) {
+        writer.addImport("ValidationFailure", "__ValidationFailure", "@aws-smithy/server-common");
+
+        writer.writeDocs("@internal");
+        writer.writeInline("export const validate = (obj: ");
+        writeObjectType.run();
+        writer.openBlock(", path: string = \"\"): __ValidationFailure[] => {", "};", () -> {
+            writer.write("const failures: __ValidationFailure[] = [];");
+            writer.write("validateInto(obj, path, failures);");
+            writer.write("return failures;");
+        });
+        writer.write("");
+
+        writer.writeDocs("@internal");
+        writer.writeInline("export const validateInto = (obj: ");
+        writeObjectType.run();
+        writer.openBlock(", path: string, failures: __ValidationFailure[]): void => {", "};", () -> {
+            for (MemberShape member : members) {
+                writeMemberChecks(writer, member);
+            }
+        });
+
+        // Constants are only read once validation runs, after the namespace has been initialized.
+        for (Map.Entry<String, String> constant : constants.entrySet()) {
+            writer.write("const $L = $L;", constant.getValue(), constant.getKey());
+        }
+    }
+
+    private void writeMemberChecks(TypeScriptWriter writer, MemberShape member) {
+        Shape target = model.expectShape(member.getTarget());
+        Collection<Trait> constraints = getConstraintTraits(model, member);
+        if (!hasChecks(target, constraints)) {
+            return;
+        }
+
+        String memberName = TypeScriptUtils.sanitizePropertyName(symbolProvider.toMemberName(member));
+        String suffix = "";
+        if (member.getMemberTrait(model, MediaTypeTrait.class).isPresent() && target instanceof StringShape) {
+            // lazy JSON wrapper validation should be done based on the serialized form of the object
+            suffix = "?.toString()";
+        }
+        String value = "value";
+        String path = "${path}/" + member.getMemberName();
+        boolean sensitive = member.getMemberTrait(model, SensitiveTrait.class).isPresent();
+
+        writer.openBlock("{", "}", () -> {
+            writer.write("const $L = obj.$L$L;", value, memberName, suffix);
+            if (sensitive) {
+                writer.write("const sensitiveStart = failures.length;");
+            }
+            writeShapeChecks(writer, target, constraints, value, path, 0);
+            if (sensitive) {
+                writer.openBlock("for (let i = sensitiveStart; i < failures.length; i++) {", "}", () -> {
+                    writer.write("failures[i] = { ...failures[i], failureValue: null };");
+                });
+            }
+        });
+    }
+
+    /**
+     * Writes the checks of a value against a shape and the constraints applied to it.
+     *
+     * @param writer the writer
+     * @param shape the shape being validated
+     * @param constraints the constraints relevant to this shape (includes member traits for member targets)
+     * @param value the expression of the value being validated, evaluated without side effects
+     * @param path the contents of a template literal for the path of the value
+     * @param depth the nesting depth of collections and maps, used to name loop variables
+     */
+    private void writeShapeChecks(
+            TypeScriptWriter writer,
+            Shape shape,
+            Collection<Trait> constraints,
+            String value,
+            String path,
+            int depth
+    ) {
+        List<Trait> valueConstraints = constraints.stream()
+                .filter(trait -> !(trait instanceof RequiredTrait))
+                .collect(Collectors.toList());
+        boolean required = valueConstraints.size() < constraints.size();
+
+        Runnable writeValueChecks = () -> {
+            if (shape.isIntEnumShape()) {
+                writeEnumCheck(writer, shape, value, path);
+            }
+            for (Trait trait : valueConstraints) {
+                writeConstraintCheck(writer, shape, trait, value, path);
+            }
+            writeNestedChecks(writer, shape, value, path, depth);
+        };
+
+        if (required) {
+            writer.addImport("RequiredValidationFailure", "__RequiredValidationFailure", "@aws-smithy/server-common");
+            writer.write("if ($1L === undefined || $1L === null) {", value).indent();
+            writer.write("failures.push(new __RequiredValidationFailure(`$L`));", path);
+            if (hasValueChecks(shape, valueConstraints)) {
+                writer.dedent().write("} else {").indent();
+                writeValueChecks.run();
+            }
+            writer.dedent().write("}");
+        } else {
+            writer.openBlock("if ($1L !== undefined && $1L !== null) {", "}", value, writeValueChecks);
+        }
+    }
+
+    private void writeConstraintCheck(TypeScriptWriter writer, Shape shape, Trait trait, String value, String path) {
+        if (trait instanceof EnumTrait) {
+            writeEnumCheck(writer, shape, value, path);
+        } else if (trait instanceof LengthTrait) {
+            LengthTrait lengthTrait = (LengthTrait) trait;
+            String length;
+            if (shape instanceof CollectionShape) {
+                length = value + ".length";
+            } else if (shape.isMapShape()) {
+                length = "Object.keys(" + value + ").length";
+            } else {
+                writer.addImport("lengthOf", "__lengthOf", "@aws-smithy/server-common");
+                length = "__lengthOf(" + value + ")";
+            }
+            writer.openBlock("{", "}", () -> {
+                writer.write("const length = $L;", length);
+                writer.openBlock("if ($L) {", "}", boundsCheck("length", lengthTrait.getMin().map(Object::toString),
+                        lengthTrait.getMax().map(Object::toString)), () -> {
+                    writer.write("failures.push({ constraintType: \"length\", constraintValues: [$L, $L], "
+                            + "path: `$L`, failureValue: length });",
+                            lengthTrait.getMin().map(Object::toString).orElse("undefined"),
+                            lengthTrait.getMax().map(Object::toString).orElse("undefined"),
+                            path);
+                });
+            });
+        } else if (trait instanceof PatternTrait) {
+            String pattern = ((PatternTrait) trait).getValue();
+            writer.addImport("PatternValidator", "__PatternValidator", "@aws-smithy/server-common");
+            String constant = getConstant("pattern", writer.format("new __PatternValidator($S)", pattern));
+            writer.openBlock("if (!$L.test($L)) {", "}", constant, value, () -> {
+                writer.write("failures.push({ constraintType: \"pattern\", constraintValues: $S, "
+                        + "path: `$L`, failureValue: $L });", pattern, path, value);
+            });
+        } else if (trait instanceof RangeTrait) {
+            RangeTrait rangeTrait = (RangeTrait) trait;
+            writer.openBlock("if ($L) {", "}", boundsCheck(value, rangeTrait.getMin().map(Object::toString),
+                    rangeTrait.getMax().map(Object::toString)), () -> {
+                writer.write("failures.push({ constraintType: \"range\", constraintValues: [$L, $L], "
+                        + "path: `$L`, failureValue: $L });",
+                        rangeTrait.getMin().map(Object::toString).orElse("undefined"),
+                        rangeTrait.getMax().map(Object::toString).orElse("undefined"),
+                        path, value);
+            });
+        } else if (trait instanceof UniqueItemsTrait) {
+            String duplicateFinder = StructuredMemberWriter.getDuplicateFinder(model, shape);
+            writer.addImport(duplicateFinder, "__" + duplicateFinder, "@aws-smithy/server-common");
+            writer.openBlock("{", "}", () -> {
+                writer.write("const repeats = __$L($L as any[]);", duplicateFinder, value);
+                writer.openBlock("if (repeats.length > 0) {", "}", () -> {
+                    writer.write("failures.push({ constraintType: \"uniqueItems\", path: `$L`, "
+                            + "failureValue: [...repeats].sort() });", path);
+                });
+            });
+        }
+    }
+
+    // Enums are checked by the validator that is shared by all the members targeting them.
+    private void writeEnumCheck(TypeScriptWriter writer, Shape shape, String value, String path) {
+        writer.openBlock("{", "}", () -> {
+            writer.write("const failure = $T.validate($L, `$L`);",
+                    EnumGenerator.getValidatorSymbol(symbolProvider.toSymbol(shape)), value, path);
+            writer.openBlock("if (failure !== null) {", "}", () -> writer.write("failures.push(failure);"));
+        });
+    }
+
+    private static String boundsCheck(String value, Optional<String> min, Optional<String> max) {
+        List<String> checks = new ArrayList<>();
+        min.ifPresent(bound -> checks.add(value + " < " + bound));
+        max.ifPresent(bound -> checks.add(value + " > " + bound));
+        return String.join(" || ", checks);
+    }
+
+    private void writeNestedChecks(TypeScriptWriter writer, Shape shape, String value, String path, int depth) {
+        if (shape.isStructureShape() || shape.isUnionShape()) {
+            writer.write("$T.validateInto($L, `$L`, failures);", symbolProvider.toSymbol(shape), value, path);
+        } else if (shape instanceof CollectionShape) {
+            MemberShape member = ((CollectionShape) shape).getMember();
+            Shape memberTarget = model.expectShape(member.getTarget());
+            Collection<Trait> memberConstraints = getConstraintTraits(model, member);
+            if (!hasChecks(memberTarget, memberConstraints)) {
+                return;
+            }
+            String index = "i" + depth;
+            String item = "item" + depth;
+            writer.write("let $L = 0;", index);
+            writer.openBlock("for (const $L of $L) {", "}", item, value, () -> {
+                writeShapeChecks(writer, memberTarget, memberConstraints, item,
+                        path + "/${" + index + "}", depth + 1);
+                writer.write("$L++;", index);
+            });
+        } else if (shape.isMapShape()) {
+            MapShape mapShape = (MapShape) shape;
+            Shape keyTarget = model.expectShape(mapShape.getKey().getTarget());
+            Collection<Trait> keyConstraints = getConstraintTraits(model, mapShape.getKey());
+            Shape valueTarget = model.expectShape(mapShape.getValue().getTarget());
+            Collection<Trait> valueConstraints = getConstraintTraits(model, mapShape.getValue());
+            boolean checkKeys = hasChecks(keyTarget, keyConstraints);
+            boolean checkValues = hasChecks(valueTarget, valueConstraints);
+            if (!checkKeys && !checkValues) {
+                return;
+            }
+            String key = "key" + depth;
+            String entry = "entry" + depth;
+            writer.openBlock("for (const $L of Object.keys($L)) {", "}", key, value, () -> {
+                if (checkKeys) {
+                    writeShapeChecks(writer, keyTarget, keyConstraints, key, path, depth + 1);
+                }
+                if (checkValues) {
+                    writer.write("const $L = $L[$L];", entry, value, key);
+                    writeShapeChecks(writer, valueTarget, valueConstraints, entry,
+                            path + "/${" + key + "}", depth + 1);
+                }
+            });
+        } else if (!(shape instanceof SimpleShape)) {
+            throw new IllegalArgumentException(
+                    String.format("Unsupported shape found when generating validator: %s", shape));
+        }
+    }
+
+    /**
+     * Returns whether any failure can be reported for a value of the shape with the constraints.
+     */
+    private boolean hasChecks(Shape shape, Collection<Trait> constraints) {
+        return !constraints.isEmpty() || hasValueChecks(shape, constraints);
+    }
+
+    /**
+     * Returns whether any failure can be reported for a present value of the shape with the constraints.
+     */
+    private boolean hasValueChecks(Shape shape, Collection<Trait> constraints) {
+        if (constraints.stream().anyMatch(trait -> !(trait instanceof RequiredTrait))) {
+            return true;
+        } else if (shape.isStructureShape() || shape.isUnionShape() || shape.isIntEnumShape()) {
+            return true;
+        } else if (shape instanceof CollectionShape) {
+            MemberShape member = ((CollectionShape) shape).getMember();
+            return hasChecks(model.expectShape(member.getTarget()), getConstraintTraits(model, member));
+        } else if (shape.isMapShape()) {
+            MapShape mapShape = (MapShape) shape;
+            return hasChecks(model.expectShape(mapShape.getKey().getTarget()),
+                            getConstraintTraits(model, mapShape.getKey()))
+                    || hasChecks(model.expectShape(mapShape.getValue().getTarget()),
+                            getConstraintTraits(model, mapShape.getValue()));
+        }
+        return !(shape instanceof SimpleShape);
+    }
+
+    /**
+     * Returns the name of a namespace constant with the given initializer, declaring it if needed.
+     */
+    private String getConstant(String prefix, String initializer) {
+        return constants.computeIfAbsent(initializer, i -> prefix + constants.size());
+    }
+}
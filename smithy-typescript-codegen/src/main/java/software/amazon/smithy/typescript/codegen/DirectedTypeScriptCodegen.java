@@ -15,6 +15,7 @@
 
 package software.amazon.smithy.typescript.codegen;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -26,7 +27,6 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolDependency;
@@ -46,6 +46,7 @@ import software.amazon.smithy.model.knowledge.OperationIndex;
 import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.PaginatedTrait;
 import software.amazon.smithy.model.validation.ValidationEvent;
@@ -55,6 +56,8 @@ import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator;
 import software.amazon.smithy.typescript.codegen.integration.RuntimeClientPlugin;
 import software.amazon.smithy.typescript.codegen.integration.TypeScriptIntegration;
 import software.amazon.smithy.typescript.codegen.validation.LongValidator;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
 import software.amazon.smithy.utils.MapUtils;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 import software.amazon.smithy.waiters.WaitableTrait;
@@ -79,9 +82,16 @@ final class DirectedTypeScriptCodegen
     private static final ShapeId VALIDATION_EXCEPTION_SHAPE =
             ShapeId.fromParts("smithy.framework", "ValidationException");
 
+    private final BarrelIndexCollector barrelIndexes = new BarrelIndexCollector();
+    private ParallelShapeGenerator parallelShapeGenerator;
+    private IncrementalCodegenCache incrementalCodegenCache;
+    private SymbolProvider baseSymbolProvider;
+
     @Override
     public SymbolProvider createSymbolProvider(CreateSymbolProviderDirective<TypeScriptSettings> directive) {
-        return directive.settings().getArtifactType().createSymbolProvider(directive.model(), directive.settings());
+        baseSymbolProvider = directive.settings().getArtifactType()
+                .createSymbolProvider(directive.model(), directive.settings());
+        return baseSymbolProvider;
     }
 
     @Override
@@ -106,7 +116,7 @@ final class DirectedTypeScriptCodegen
                 ? ApplicationProtocol.createDefaultHttpApplicationProtocol()
                 : protocolGenerator.getApplicationProtocol();
 
-        return TypeScriptCodegenContext.builder()
+        TypeScriptCodegenContext context = TypeScriptCodegenContext.builder()
                 .model(directive.model())
                 .settings(directive.settings())
                 .symbolProvider(directive.symbolProvider())
@@ -117,6 +127,62 @@ final class DirectedTypeScriptCodegen
                 .applicationProtocol(applicationProtocol)
                 .writerDelegator(new TypeScriptDelegator(directive.fileManifest(), directive.symbolProvider()))
                 .build();
+
+        int parallelism = directive.settings().getCodegenParallelism();
+        IncrementalCodegenCache cache = directive.settings().getIncrementalCodegenCache()
+                .map(path -> loadIncrementalCodegenCache(directive, path))
+                .orElse(null);
+        if (parallelism > 1 || cache != null) {
+            LOGGER.info(() -> "Generating shapes with parallelism " + parallelism);
+            List<CodeInterceptor<? extends CodeSection, TypeScriptWriter>> interceptors = new ArrayList<>();
+            for (TypeScriptIntegration integration : directive.integrations()) {
+                interceptors.addAll(integration.interceptors(context));
+            }
+            parallelShapeGenerator = new ParallelShapeGenerator(
+                    context.writerDelegator(), context.symbolProvider(), interceptors, parallelism, cache);
+        }
+        incrementalCodegenCache = cache;
+
+        return context;
+    }
+
+    private IncrementalCodegenCache loadIncrementalCodegenCache(
+            CreateContextDirective<TypeScriptSettings, TypeScriptIntegration> directive,
+            String path
+    ) {
+        Path cacheFile = directive.fileManifest().getBaseDir().resolve(path);
+        LOGGER.info(() -> "Using incremental codegen cache " + cacheFile);
+        List<Class<?>> generatorClasses = new ArrayList<>();
+        generatorClasses.add(getClass());
+        for (TypeScriptIntegration integration : directive.integrations()) {
+            generatorClasses.add(integration.getClass());
+        }
+        return IncrementalCodegenCache.load(cacheFile, directive.model(), directive.service(),
+                directive.symbolProvider(),
+                IncrementalCodegenCache.fingerprint(directive.settings(), generatorClasses));
+    }
+
+    /**
+     * Writes a shape with the delegator, or queues it for parallel or
+     * incremental generation when either is enabled.
+     */
+    private void useShapeWriter(
+            TypeScriptCodegenContext context,
+            String kind,
+            Shape shape,
+            Consumer<TypeScriptWriter> consumer
+    ) {
+        if (parallelShapeGenerator != null) {
+            parallelShapeGenerator.submit(kind, shape, consumer);
+        } else {
+            context.writerDelegator().useShapeWriter(shape, consumer);
+        }
+    }
+
+    private void flushParallelShapes() {
+        if (parallelShapeGenerator != null) {
+            parallelShapeGenerator.flush();
+        }
     }
 
     private ProtocolGenerator resolveProtocolGenerator(
@@ -151,6 +217,9 @@ final class DirectedTypeScriptCodegen
         ServiceShape service = directive.shape();
         TypeScriptDelegator delegator = directive.context().writerDelegator();
 
+        // Shapes are generated before the service, so write them out before anything depends on them.
+        flushParallelShapes();
+
         if (settings.generateServerSdk())  {
             checkValidationSettings(settings, model, service);
 
@@ -178,7 +247,7 @@ final class DirectedTypeScriptCodegen
             LOGGER.info("Generating serde for protocol " + protocolGenerator.getName() + " on " + service.getId());
             String fileName = Paths.get(CodegenUtils.SOURCE_FOLDER, ProtocolGenerator.PROTOCOLS_FOLDER,
                     ProtocolGenerator.getSanitizedName(protocolGenerator.getName()) + ".ts").toString();
-            delegator.useFileWriter(fileName, writer -> {
+            Consumer<TypeScriptWriter> generator = writer -> {
                 ProtocolGenerator.GenerationContext context = new ProtocolGenerator.GenerationContext();
                 context.setProtocolName(protocolGenerator.getName());
                 context.setModel(model);
@@ -204,13 +273,21 @@ final class DirectedTypeScriptCodegen
                     }
                 }
                 protocolGenerator.generateSharedComponents(context);
-            });
+            };
+            if (parallelShapeGenerator != null && !settings.generateServerSdk()) {
+                // Client serde is derived from the closure of the service and only writes to this file,
+                // so it can be cached as a unit. Server serde also writes handlers to other files.
+                parallelShapeGenerator.useFileWriter(fileName, "protocol", service, generator);
+            } else {
+                delegator.useFileWriter(fileName, generator);
+            }
         }
 
         if (settings.generateServerSdk()) {
             for (OperationShape operation : directive.operations()) {
                 delegator.useShapeWriter(operation, w -> {
-                    ServerGenerator.generateOperationHandler(symbolProvider, service, operation, w);
+                    ServerGenerator.generateOperationHandler(symbolProvider, service, operation, w,
+                            settings.serverInstrumentation());
                 });
             }
         }
@@ -222,7 +299,6 @@ final class DirectedTypeScriptCodegen
         ServiceShape service = directive.shape();
         Model model = directive.model();
         SymbolProvider symbolProvider = directive.symbolProvider();
-        FileManifest fileManifest = directive.fileManifest();
         List<TypeScriptIntegration> integrations = directive.context().integrations();
         List<RuntimeClientPlugin> runtimePlugins = directive.context().runtimePlugins();
         ApplicationProtocol applicationProtocol = directive.context().applicationProtocol();
@@ -240,66 +316,88 @@ final class DirectedTypeScriptCodegen
 
         // Generate each operation for the service.
         Set<OperationShape> containedOperations = directive.operations();
+        WaiterMatcherGenerator waiterMatchers = settings.compiledWaiterMatchers()
+                ? new WaiterMatcherGenerator()
+                : null;
         for (OperationShape operation : containedOperations) {
             if (operation.hasTrait(PaginatedTrait.ID)) {
                 String outputFilename = PaginationGenerator.getOutputFilelocation(operation);
+                barrelIndexes.addFileExport(outputFilename);
                 delegator.useFileWriter(outputFilename, paginationWriter ->
                         new PaginationGenerator(model, service, operation, symbolProvider, paginationWriter,
-                                aggregatedClientName).run());
+                                aggregatedClientName, settings.prefetchingPaginators()).run());
             }
             if (operation.hasTrait(WaitableTrait.ID)) {
                 WaitableTrait waitableTrait = operation.expectTrait(WaitableTrait.class);
                 waitableTrait.getWaiters().forEach((String waiterName, Waiter waiter) -> {
                     String outputFilename = WaiterGenerator.getOutputFileLocation(waiterName);
+                    barrelIndexes.addFileExport(outputFilename);
                     delegator.useFileWriter(outputFilename, waiterWriter ->
                             new WaiterGenerator(waiterName, waiter, service, operation, waiterWriter,
-                                    symbolProvider).run());
+                                    symbolProvider, waiterMatchers, settings.adaptiveWaiters()).run());
                 });
             }
         }
 
+        if (settings.adaptiveWaiters()
+                && containedOperations.stream().anyMatch(operation -> operation.hasTrait(WaitableTrait.ID))) {
+            barrelIndexes.addFileExport(WaiterGenerator.ADAPTIVE_WAITER_FILE);
+            delegator.useFileWriter(WaiterGenerator.ADAPTIVE_WAITER_FILE, WaiterGenerator::generateAdaptiveWaiter);
+        }
+
+        if (waiterMatchers != null && waiterMatchers.hasMatchers()) {
+            delegator.useFileWriter(WaiterMatcherGenerator.MATCHERS_FILE, waiterMatchers::generateMatchers);
+        }
+
         if (containedOperations.stream().anyMatch(operation -> operation.hasTrait(PaginatedTrait.ID))) {
-            PaginationGenerator.writeIndex(model, service, fileManifest);
+            barrelIndexes.addFileExport(PaginationGenerator.PAGINATION_INTERFACE_FILE);
             delegator.useFileWriter(PaginationGenerator.PAGINATION_INTERFACE_FILE, paginationWriter ->
                     PaginationGenerator.generateServicePaginationInterfaces(
                             aggregatedClientName,
                             serviceSymbol,
-                            paginationWriter));
-        }
-
-        if (containedOperations.stream().anyMatch(operation -> operation.hasTrait(WaitableTrait.ID))) {
-            WaiterGenerator.writeIndex(model, service, fileManifest);
+                            paginationWriter,
+                            settings.prefetchingPaginators()));
+            if (settings.prefetchingPaginators()) {
+                delegator.useFileWriter(PaginationGenerator.PREFETCH_PAGES_FILE,
+                        PaginationGenerator::generatePrefetchPages);
+            }
         }
     }
 
     private void generateCommands(GenerateServiceDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        TypeScriptDelegator delegator = directive.context().writerDelegator();
         TypeScriptSettings settings = directive.settings();
-        ServiceShape service = directive.shape();
         Model model = directive.model();
         SymbolProvider symbolProvider = directive.symbolProvider();
-        FileManifest fileManifest = directive.fileManifest();
         List<RuntimeClientPlugin> runtimePlugins = directive.context().runtimePlugins();
         ProtocolGenerator protocolGenerator = directive.context().protocolGenerator();
         ApplicationProtocol applicationProtocol = directive.context().applicationProtocol();
 
         // Generate each operation for the service.
         for (OperationShape operation : directive.operations()) {
+            barrelIndexes.addFileExport(symbolProvider.toSymbol(operation).getDefinitionFile());
+
             // Right now this only generates stubs
             if (settings.generateClient()) {
-                CommandGenerator.writeIndex(model, service, symbolProvider, fileManifest);
-                delegator.useShapeWriter(operation, commandWriter -> new CommandGenerator(
+                useShapeWriter(directive.context(), "command", operation, commandWriter -> new CommandGenerator(
                         settings, model, operation, symbolProvider, commandWriter,
                         runtimePlugins, protocolGenerator, applicationProtocol).run());
             }
 
             if (settings.generateServerSdk()) {
-                ServerCommandGenerator.writeIndex(model, service, symbolProvider, fileManifest);
-                delegator.useShapeWriter(operation, commandWriter -> new ServerCommandGenerator(
+                useShapeWriter(directive.context(), "command", operation, commandWriter -> new ServerCommandGenerator(
                         settings, model, operation, symbolProvider, commandWriter,
                         protocolGenerator, applicationProtocol).run());
             }
         }
+
+        if (settings.generateClient() && settings.cacheResolvedMiddleware()) {
+            directive.context().writerDelegator().useFileWriter(CommandGenerator.MIDDLEWARE_CACHE_FILE,
+                    CommandGenerator::writeMiddlewareCache);
+            directive.context().writerDelegator().useFileWriter(CommandGenerator.MIDDLEWARE_CACHE_SPEC_FILE,
+                    CommandGenerator::writeMiddlewareCacheSpec);
+        }
+
+        flushParallelShapes();
     }
 
     private void generateEndpointV2(GenerateServiceDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
@@ -319,19 +417,24 @@ final class DirectedTypeScriptCodegen
         directive.context().writerDelegator().useShapeWriter(service, writer -> {
             ServerGenerator.generateOperationsType(symbolProvider, service, operations, writer);
             ServerGenerator.generateServerInterfaces(symbolProvider, service, operations, writer);
-            ServerGenerator.generateServiceHandler(symbolProvider, service, operations, writer);
+            ServerGenerator.generateServiceHandler(symbolProvider, service, operations, writer,
+                    directive.settings().serverInstrumentation());
         });
+        if (directive.settings().serverInstrumentation()) {
+            directive.context().writerDelegator().useFileWriter(ServerGenerator.INSTRUMENTATION_FILE,
+                    ServerGenerator::generateInstrumentation);
+        }
     }
 
     @Override
     public void generateStructure(GenerateStructureDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        directive.context().writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        useShapeWriter(directive.context(), "structure", directive.shape(), writer -> {
             StructureGenerator generator = new StructureGenerator(
                     directive.model(),
                     directive.symbolProvider(),
                     writer,
                     directive.shape(),
-                    directive.settings().generateServerSdk()
+                    directive.settings()
             );
             generator.run();
         });
@@ -339,13 +442,13 @@ final class DirectedTypeScriptCodegen
 
     @Override
     public void generateError(GenerateErrorDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        directive.context().writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        useShapeWriter(directive.context(), "error", directive.shape(), writer -> {
             StructureGenerator generator = new StructureGenerator(
                     directive.model(),
                     directive.symbolProvider(),
                     writer,
                     directive.shape(),
-                    directive.settings().generateServerSdk()
+                    directive.settings()
             );
             generator.run();
         });
@@ -353,13 +456,13 @@ final class DirectedTypeScriptCodegen
 
     @Override
     public void generateUnion(GenerateUnionDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        directive.context().writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        useShapeWriter(directive.context(), "union", directive.shape(), writer -> {
             UnionGenerator generator = new UnionGenerator(
                     directive.model(),
                     directive.symbolProvider(),
                     writer,
                     directive.shape(),
-                    directive.settings().generateServerSdk()
+                    directive.settings()
             );
             generator.run();
         });
@@ -367,11 +470,12 @@ final class DirectedTypeScriptCodegen
 
     @Override
     public void generateEnumShape(GenerateEnumDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        directive.context().writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        useShapeWriter(directive.context(), "enum", directive.shape(), writer -> {
             EnumGenerator generator = new EnumGenerator(
                     directive.shape().asStringShape().get(),
                     directive.symbolProvider().toSymbol(directive.shape()),
-                    writer
+                    writer,
+                    directive.settings().generateServerSdk()
             );
             generator.run();
         });
@@ -379,11 +483,12 @@ final class DirectedTypeScriptCodegen
 
     @Override
     public void generateIntEnumShape(GenerateIntEnumDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
-        directive.context().writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        useShapeWriter(directive.context(), "intEnum", directive.shape(), writer -> {
             IntEnumGenerator generator = new IntEnumGenerator(
                     directive.shape().asIntEnumShape().get(),
                     directive.symbolProvider().toSymbol(directive.shape()),
-                    writer
+                    writer,
+                    directive.settings().generateServerSdk()
             );
             generator.run();
         });
@@ -392,14 +497,16 @@ final class DirectedTypeScriptCodegen
     @Override
     public void customizeBeforeIntegrations(
             CustomizeDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
+        flushParallelShapes();
+
         // Write shared / static content.
         STATIC_FILE_COPIES.forEach((from, to) -> {
             LOGGER.fine(() -> "Writing contents of `" + from + "` to `" + to + "`");
             directive.fileManifest().writeFile(from, getClass(), to);
         });
 
-        SymbolVisitor.writeModelIndex(directive.connectedShapes().values(), directive.symbolProvider(),
-                directive.fileManifest());
+        SymbolVisitor.addModelExports(directive.connectedShapes().values(), directive.symbolProvider(),
+                barrelIndexes);
 
         // Generate the client Node and Browser configuration files. These
         // files are switched between in package.json based on the targeted
@@ -435,11 +542,11 @@ final class DirectedTypeScriptCodegen
 
         if (directive.settings().generateServerSdk()) {
             // Generate index for server
-            IndexGenerator.writeServerIndex(
+            IndexGenerator.addServerExports(
                     directive.settings(),
                     directive.model(),
                     directive.symbolProvider(),
-                    directive.fileManifest());
+                    barrelIndexes);
         }
 
         // Generate protocol tests IFF found in the model.
@@ -486,10 +593,23 @@ final class DirectedTypeScriptCodegen
 
     @Override
     public void customizeAfterIntegrations(CustomizeDirective<TypeScriptCodegenContext, TypeScriptSettings> directive) {
+        if (incrementalCodegenCache != null) {
+            incrementalCodegenCache.write();
+        }
+
+        LOGGER.fine("Generating barrel index files");
+        barrelIndexes.writeIndexes(directive.fileManifest());
+
         LOGGER.fine("Generating package.json files");
         PackageJsonGenerator.writePackageJson(
                 directive.settings(),
                 directive.fileManifest(),
                 SymbolDependency.gatherDependencies(directive.context().writerDelegator().getDependencies().stream()));
+
+        if (baseSymbolProvider instanceof MemoizingSymbolProvider) {
+            MemoizingSymbolProvider symbols = (MemoizingSymbolProvider) baseSymbolProvider;
+            LOGGER.fine(() -> String.format("Symbol cache answered %d lookups and delegated %d",
+                    symbols.getHits(), symbols.getMisses()));
+        }
     }
 }
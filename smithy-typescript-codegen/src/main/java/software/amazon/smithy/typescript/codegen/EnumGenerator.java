@@ -59,13 +59,19 @@ final class EnumGenerator implements Runnable {
     private final StringShape shape;
     private final TypeScriptWriter writer;
     private final EnumTrait enumTrait;
+    private final boolean includeValidation;
 
     EnumGenerator(StringShape shape, Symbol symbol, TypeScriptWriter writer) {
+        this(shape, symbol, writer, false);
+    }
+
+    EnumGenerator(StringShape shape, Symbol symbol, TypeScriptWriter writer, boolean includeValidation) {
         assert shape.getTrait(EnumTrait.class).isPresent();
 
         this.shape = shape;
         this.symbol = symbol;
         this.writer = writer;
+        this.includeValidation = includeValidation;
         enumTrait = shape.getTrait(EnumTrait.class).get();
     }
 
@@ -76,6 +82,32 @@ final class EnumGenerator implements Runnable {
         } else {
             generateNamedEnum();
         }
+        if (includeValidation) {
+            generateValidator();
+        }
+    }
+
+    /**
+     * Gets the symbol of the validator that is shared by all the members that target an enum.
+     *
+     * @param symbol the symbol of the enum
+     * @return the symbol of its validator
+     */
+    static Symbol getValidatorSymbol(Symbol symbol) {
+        return symbol.toBuilder().name(symbol.getName() + "Validator").build();
+    }
+
+    // Members that target the enum share one validator, so its allowed values are only
+    // stored once per module.
+    private void generateValidator() {
+        writer.addImport("EnumValidator", "__EnumValidator", "@aws-smithy/server-common");
+        writer.writeDocs("@internal");
+        writer.openBlock("export const $L = new __EnumValidator([", "]);",
+                getValidatorSymbol(symbol).getName(), () -> {
+            for (String value : enumTrait.getEnumDefinitionValues()) {
+                writer.write("$S,", value);
+            }
+        });
     }
 
     // Unnamed enums generate a union of string literals.
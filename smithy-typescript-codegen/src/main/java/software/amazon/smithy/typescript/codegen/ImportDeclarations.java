@@ -24,6 +24,8 @@ import java.util.TreeMap;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.ImportContainer;
 import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
 import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -86,6 +88,74 @@ final class ImportDeclarations implements ImportContainer {
         return this;
     }
 
+    /**
+     * Adds every import from another set of declarations generated for the same module.
+     *
+     * <p>Imports are merged in the order this method is called, so callers that need
+     * stable output must merge declarations in a deterministic order.
+     *
+     * @param other Declarations to merge into this set.
+     * @return Returns the updated declarations.
+     */
+    ImportDeclarations addImports(ImportDeclarations other) {
+        defaultImports.putAll(other.defaultImports);
+        other.namedImports.forEach((module, imports) -> {
+            namedImports.computeIfAbsent(module, m -> new TreeMap<>()).putAll(imports);
+        });
+        return this;
+    }
+
+    /**
+     * Converts the declarations to a node that can be restored with {@link #addImports(ObjectNode)}.
+     *
+     * @return Returns the created node.
+     */
+    ObjectNode toNode() {
+        ObjectNode.Builder defaults = Node.objectNodeBuilder();
+        defaultImports.forEach((module, entry) -> {
+            ObjectNode.Builder builder = Node.objectNodeBuilder().withMember("name", Node.from(entry.getLeft()));
+            if (entry.getRight().ignore) {
+                builder.withMember("ignoreReason", Node.from(entry.getRight().reason));
+            }
+            defaults.withMember(module, builder.build());
+        });
+
+        ObjectNode.Builder named = Node.objectNodeBuilder();
+        namedImports.forEach((module, imports) -> {
+            ObjectNode.Builder builder = Node.objectNodeBuilder();
+            imports.forEach((alias, name) -> builder.withMember(alias, Node.from(name)));
+            named.withMember(module, builder.build());
+        });
+
+        return Node.objectNodeBuilder()
+                .withMember("default", defaults.build())
+                .withMember("named", named.build())
+                .build();
+    }
+
+    /**
+     * Adds imports previously converted to a node with {@link #toNode()} for the same module.
+     *
+     * @param node Node to load imports from.
+     * @return Returns the updated declarations.
+     */
+    ImportDeclarations addImports(ObjectNode node) {
+        node.expectObjectMember("default").getStringMap().forEach((module, value) -> {
+            ObjectNode entry = value.expectObjectNode();
+            Ignore ignore = entry.getStringMember("ignoreReason")
+                    .map(reason -> Ignore.ignored(reason.getValue()))
+                    .orElseGet(Ignore::notIgnored);
+            defaultImports.put(module, new Pair<>(entry.expectStringMember("name").getValue(), ignore));
+        });
+        node.expectObjectMember("named").getStringMap().forEach((module, value) -> {
+            Map<String, String> imports = namedImports.computeIfAbsent(module, m -> new TreeMap<>());
+            value.expectObjectNode().getStringMap().forEach((alias, name) -> {
+                imports.put(alias, name.expectStringNode().getValue());
+            });
+        });
+        return this;
+    }
+
     @Override
     public void importSymbol(Symbol symbol, String alias) {
         if (!symbol.getNamespace().isEmpty() && !symbol.getNamespace().equals(moduleNameString)) {
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolDependency;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.Trait;
+import software.amazon.smithy.utils.IoUtils;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Caches the code generated for each shape between runs of the code generator.
+ *
+ * <p>Every cached entry is keyed on a SHA-256 hash of the closure of the shape
+ * it was generated from: the shape, its traits and members, every shape it
+ * references, the symbols of those shapes, the traits and symbol of the
+ * service, and a fingerprint of the settings and generator code. Entries whose hash is unchanged are reused instead of
+ * being generated again.
+ */
+@SmithyInternalApi
+final class IncrementalCodegenCache {
+
+    private static final Logger LOGGER = Logger.getLogger(IncrementalCodegenCache.class.getName());
+    private static final String VERSION = "1.0";
+
+    private final Path cacheFile;
+    private final SymbolProvider symbolProvider;
+    private final String fingerprint;
+    private final Walker walker;
+    private final ServiceShape service;
+    private final Map<String, ObjectNode> previousEntries;
+    private final Map<String, ObjectNode> entries = new TreeMap<>();
+    private final Map<ShapeId, String> localHashes = new HashMap<>();
+    private int reused;
+
+    private IncrementalCodegenCache(
+            Path cacheFile,
+            Model model,
+            ServiceShape service,
+            SymbolProvider symbolProvider,
+            String fingerprint,
+            Map<String, ObjectNode> previousEntries
+    ) {
+        this.cacheFile = cacheFile;
+        this.symbolProvider = symbolProvider;
+        this.fingerprint = fingerprint;
+        this.walker = new Walker(model);
+        this.service = service;
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * Loads the cache persisted by a previous run, if any.
+     *
+     * @param cacheFile File the cache is persisted to.
+     * @param model Model being generated.
+     * @param service Service being generated.
+     * @param symbolProvider Symbol provider used to generate the model.
+     * @param fingerprint Fingerprint of everything besides the model that affects the generated code.
+     * @return Returns the loaded cache.
+     */
+    static IncrementalCodegenCache load(
+            Path cacheFile,
+            Model model,
+            ServiceShape service,
+            SymbolProvider symbolProvider,
+            String fingerprint
+    ) {
+        Map<String, ObjectNode> previousEntries = new HashMap<>();
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                ObjectNode node = Node.parse(IoUtils.readUtf8File(cacheFile)).expectObjectNode();
+                if (node.expectStringMember("version").getValue().equals(VERSION)
+                        && node.expectStringMember("fingerprint").getValue().equals(fingerprint)) {
+                    node.expectObjectMember("entries").getStringMap().forEach((key, value) -> {
+                        previousEntries.put(key, value.expectObjectNode());
+                    });
+                } else {
+                    LOGGER.info("Settings or generator changed, ignoring incremental codegen cache " + cacheFile);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warning("Ignoring unreadable incremental codegen cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+        LOGGER.fine(() -> String.format("Loaded %d cached entries from %s", previousEntries.size(), cacheFile));
+        return new IncrementalCodegenCache(cacheFile, model, service, symbolProvider, fingerprint, previousEntries);
+    }
+
+    /**
+     * Computes a fingerprint of the settings and generator code that shape hashes are relative to.
+     *
+     * @param settings Settings of the code generator.
+     * @param generatorClasses Classes whose code affects generation, such as integrations.
+     * @return Returns the fingerprint.
+     */
+    static String fingerprint(TypeScriptSettings settings, List<Class<?>> generatorClasses) {
+        StringBuilder builder = new StringBuilder()
+                .append(settings.getArtifactType()).append('\n')
+                .append(Node.printJson(settings.getPluginSettings())).append('\n');
+        Map<CodeSource, String> codeSources = new HashMap<>();
+        for (Class<?> generatorClass : generatorClasses) {
+            CodeSource codeSource = generatorClass.getProtectionDomain().getCodeSource();
+            builder.append(generatorClass.getName()).append('@')
+                    .append(codeSources.computeIfAbsent(codeSource, IncrementalCodegenCache::codeSource))
+                    .append('\n');
+        }
+        return sha256(builder.toString());
+    }
+
+    /**
+     * Describes the version of a jar or classes directory by the size and modification
+     * time of its files, so rebuilding the generator in place invalidates the cache.
+     */
+    private static String codeSource(CodeSource codeSource) {
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return "";
+        }
+        try {
+            Path location = Paths.get(codeSource.getLocation().toURI());
+            if (Files.isRegularFile(location)) {
+                return location + ":" + Files.size(location) + ":" + Files.getLastModifiedTime(location);
+            }
+            StringBuilder builder = new StringBuilder(location.toString());
+            try (Stream<Path> files = Files.walk(location)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                    builder.append('\n').append(location.relativize(file))
+                            .append(':').append(Files.size(file))
+                            .append(':').append(Files.getLastModifiedTime(file));
+                }
+            }
+            return sha256(builder.toString());
+        } catch (URISyntaxException | IOException | UncheckedIOException | IllegalArgumentException
+                | FileSystemNotFoundException e) {
+            return codeSource.getLocation().toString();
+        }
+    }
+
+    /**
+     * Computes the hash of the code generated for a shape.
+     *
+     * <p>Generated code such as commands and errors also depends on the traits of
+     * the service, like its endpoint rule set, so the service is hashed into every
+     * entry without walking its closure.
+     *
+     * @param kind Kind of code generated for the shape, such as "structure" or "command".
+     * @param shape Shape to hash the closure of.
+     * @return Returns the hash.
+     */
+    String hash(String kind, Shape shape) {
+        StringBuilder builder = new StringBuilder().append(kind).append('\n')
+                .append(localHash(service)).append('\n');
+        walker.walkShapes(shape).stream()
+                .filter(closureShape -> !(closureShape instanceof MemberShape))
+                .sorted()
+                .forEach(closureShape -> builder.append(localHash(closureShape)).append('\n'));
+        return sha256(builder.toString());
+    }
+
+    /**
+     * Hashes a shape and its symbol, without the shapes it references.
+     */
+    private String localHash(Shape shape) {
+        String hash = localHashes.get(shape.getId());
+        if (hash == null) {
+            StringBuilder builder = new StringBuilder();
+            appendShape(builder, shape);
+            for (MemberShape member : shape.members()) {
+                appendShape(builder.append(member.getTarget()).append('\n'), member);
+            }
+            Symbol symbol = symbolProvider.toSymbol(shape);
+            builder.append(symbol.getNamespace()).append('\n')
+                    .append(symbol.getName()).append('\n')
+                    .append(symbol.getDefinitionFile()).append('\n');
+            hash = sha256(builder.toString());
+            localHashes.put(shape.getId(), hash);
+        }
+        return hash;
+    }
+
+    private static void appendShape(StringBuilder builder, Shape shape) {
+        builder.append(shape.getId()).append(' ').append(shape.getType()).append('\n');
+        for (Trait trait : new TreeMap<>(shape.getAllTraits()).values()) {
+            builder.append(trait.toShapeId()).append('=').append(Node.printJson(trait.toNode())).append('\n');
+        }
+    }
+
+    /**
+     * Restores the code previously generated for an entry into an empty writer.
+     *
+     * @param key Key of the entry.
+     * @param hash Current hash of the entry.
+     * @param writer Writer to restore the cached code into.
+     * @return Returns true if the entry was cached with the same hash and has been restored.
+     */
+    boolean restore(String key, String hash, TypeScriptWriter writer) {
+        ObjectNode entry = previousEntries.get(key);
+        if (entry == null || !entry.expectStringMember("hash").getValue().equals(hash)) {
+            return false;
+        }
+
+        writer.getImportContainer().addImports(entry.expectObjectMember("imports"));
+        for (ObjectNode dependency : entry.expectArrayMember("dependencies").getElementsAs(ObjectNode.class)) {
+            writer.addDependency(SymbolDependency.builder()
+                    .dependencyType(dependency.expectStringMember("type").getValue())
+                    .packageName(dependency.expectStringMember("package").getValue())
+                    .version(dependency.expectStringMember("version").getValue())
+                    .build());
+        }
+        String contents = entry.expectStringMember("contents").getValue();
+        if (contents.endsWith("\n")) {
+            contents = contents.substring(0, contents.length() - 1);
+        }
+        if (!contents.isEmpty()) {
+            writer.writeWithNoFormatting(contents);
+        }
+
+        entries.put(key, entry);
+        reused++;
+        return true;
+    }
+
+    /**
+     * Records the code generated for an entry.
+     *
+     * @param key Key of the entry.
+     * @param hash Current hash of the entry.
+     * @param writer Writer that the code of the entry was generated into.
+     */
+    void put(String key, String hash, TypeScriptWriter writer) {
+        List<Node> dependencies = new ArrayList<>();
+        for (SymbolDependency dependency : writer.getDependencies()) {
+            dependencies.add(Node.objectNodeBuilder()
+                    .withMember("type", Node.from(dependency.getDependencyType()))
+                    .withMember("package", Node.from(dependency.getPackageName()))
+                    .withMember("version", Node.from(dependency.getVersion()))
+                    .build());
+        }
+        entries.put(key, Node.objectNodeBuilder()
+                .withMember("hash", Node.from(hash))
+                .withMember("contents", Node.from(writer.getContents()))
+                .withMember("imports", writer.getImportContainer().toNode())
+                .withMember("dependencies", Node.fromNodes(dependencies))
+                .build());
+    }
+
+    /**
+     * Persists the entries recorded during this run, dropping entries of shapes that no longer exist.
+     */
+    void write() {
+        LOGGER.info(() -> String.format("Reused %d of %d generated entries from %s",
+                reused, entries.size(), cacheFile));
+        ObjectNode.Builder builder = Node.objectNodeBuilder();
+        entries.forEach((key, entry) -> builder.withMember(key, entry));
+        ObjectNode node = Node.objectNodeBuilder()
+                .withMember("version", Node.from(VERSION))
+                .withMember("fingerprint", Node.from(fingerprint))
+                .withMember("entries", builder.build())
+                .build();
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(cacheFile, Node.prettyPrintJson(node).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write incremental codegen cache " + cacheFile, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new CodegenException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+}
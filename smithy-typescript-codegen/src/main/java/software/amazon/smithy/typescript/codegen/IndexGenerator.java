@@ -18,7 +18,6 @@ package software.amazon.smithy.typescript.codegen;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
@@ -63,23 +62,24 @@ final class IndexGenerator {
         writer.write("export * as $L from \"./protocols/$L\";", protocolName, protocolName);
     }
 
-    static void writeServerIndex(
+    static void addServerExports(
             TypeScriptSettings settings,
             Model model,
             SymbolProvider symbolProvider,
-            FileManifest fileManifest
+            BarrelIndexCollector indexes
     ) {
-        TypeScriptWriter writer = new TypeScriptWriter("");
         ServiceShape service = settings.getService(model);
         Symbol symbol = symbolProvider.toSymbol(service);
+        String serverFolder = Paths.get(CodegenUtils.SOURCE_FOLDER, ServerSymbolVisitor.SERVER_FOLDER).toString();
 
         // Write export statement for operations.
-        writer.write("export * from \"./operations\";");
+        indexes.addExport(serverFolder, "./" + ServerCommandGenerator.COMMANDS_FOLDER);
 
-        writer.write("export * from \"./$L\"", symbol.getName());
-        fileManifest.writeFile(
-            Paths.get(CodegenUtils.SOURCE_FOLDER, ServerSymbolVisitor.SERVER_FOLDER, "index.ts").toString(),
-            writer.toString());
+        indexes.addExport(serverFolder, "./" + symbol.getName());
+
+        if (settings.serverInstrumentation()) {
+            indexes.addExport(serverFolder, "./instrumentation");
+        }
     }
 
     private static void writeClientExports(
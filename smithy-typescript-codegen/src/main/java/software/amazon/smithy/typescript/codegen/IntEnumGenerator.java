@@ -61,16 +61,37 @@ final class IntEnumGenerator implements Runnable {
     private final Symbol symbol;
     private final IntEnumShape shape;
     private final TypeScriptWriter writer;
+    private final boolean includeValidation;
 
     IntEnumGenerator(IntEnumShape shape, Symbol symbol, TypeScriptWriter writer) {
+        this(shape, symbol, writer, false);
+    }
+
+    IntEnumGenerator(IntEnumShape shape, Symbol symbol, TypeScriptWriter writer, boolean includeValidation) {
         this.shape = shape;
         this.symbol = symbol;
         this.writer = writer;
+        this.includeValidation = includeValidation;
     }
 
     @Override
     public void run() {
         generateIntEnum();
+        if (includeValidation) {
+            generateValidator();
+        }
+    }
+
+    // Members that target the intEnum share one validator, see EnumGenerator#getValidatorSymbol.
+    private void generateValidator() {
+        writer.addImport("IntegerEnumValidator", "__IntegerEnumValidator", "@aws-smithy/server-common");
+        writer.writeDocs("@internal");
+        writer.openBlock("export const $L = new __IntegerEnumValidator([", "]);",
+                EnumGenerator.getValidatorSymbol(symbol).getName(), () -> {
+            for (int value : shape.getEnumValues().values()) {
+                writer.write("$L,", value);
+            }
+        });
     }
 
     private void generateIntEnum() {
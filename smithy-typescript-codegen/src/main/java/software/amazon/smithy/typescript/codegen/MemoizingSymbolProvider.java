@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Caches the symbols and member names created by another provider.
+ *
+ * <p>Generators ask for the same operation, input, and output symbols many
+ * times, so each shape is only converted once. The cache is safe to share
+ * between threads; if two threads race on the same shape, the first symbol
+ * stored is returned to both.
+ */
+@SmithyInternalApi
+final class MemoizingSymbolProvider implements SymbolProvider {
+
+    private final SymbolProvider delegate;
+    private final ConcurrentMap<Shape, Symbol> symbols = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MemberShape, String> memberNames = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    MemoizingSymbolProvider(SymbolProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Symbol toSymbol(Shape shape) {
+        Symbol symbol = symbols.get(shape);
+        if (symbol != null) {
+            hits.increment();
+            return symbol;
+        }
+
+        // The delegate is invoked outside of the map so that it may resolve other
+        // symbols without recursively updating the map.
+        misses.increment();
+        symbol = delegate.toSymbol(shape);
+        Symbol existing = symbols.putIfAbsent(shape, symbol);
+        return existing == null ? symbol : existing;
+    }
+
+    @Override
+    public String toMemberName(MemberShape shape) {
+        String memberName = memberNames.get(shape);
+        if (memberName != null) {
+            hits.increment();
+            return memberName;
+        }
+
+        misses.increment();
+        memberName = delegate.toMemberName(shape);
+        String existing = memberNames.putIfAbsent(shape, memberName);
+        return existing == null ? memberName : existing;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return Returns the number of cache hits.
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that were delegated to the wrapped provider.
+     *
+     * @return Returns the number of cache misses.
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingSymbolProvider{hits=" + getHits() + ", misses=" + getMisses() + "}";
+    }
+}
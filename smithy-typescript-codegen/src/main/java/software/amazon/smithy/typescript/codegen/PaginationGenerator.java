@@ -18,19 +18,15 @@ package software.amazon.smithy.typescript.codegen;
 
 import java.nio.file.Paths;
 import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.knowledge.PaginatedIndex;
 import software.amazon.smithy.model.knowledge.PaginationInfo;
-import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
-import software.amazon.smithy.model.traits.PaginatedTrait;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 @SmithyInternalApi
@@ -39,6 +35,8 @@ final class PaginationGenerator implements Runnable {
     static final String PAGINATION_FOLDER = "pagination";
     static final String PAGINATION_INTERFACE_FILE =
         Paths.get(CodegenUtils.SOURCE_FOLDER, PAGINATION_FOLDER, "Interfaces.ts").toString();
+    static final String PREFETCH_PAGES_FILE =
+        Paths.get(CodegenUtils.SOURCE_FOLDER, PAGINATION_FOLDER, "prefetchPages.ts").toString();
 
     private final TypeScriptWriter writer;
     private final PaginationInfo paginatedInfo;
@@ -52,6 +50,7 @@ final class PaginationGenerator implements Runnable {
     private final String methodName;
     private final String aggregatedClientName;
     private final String paginationType;
+    private final boolean prefetchingPaginators;
 
     PaginationGenerator(
             Model model,
@@ -61,8 +60,21 @@ final class PaginationGenerator implements Runnable {
             TypeScriptWriter writer,
             String aggregatedClientName
     ) {
+        this(model, service, operation, symbolProvider, writer, aggregatedClientName, false);
+    }
+
+    PaginationGenerator(
+            Model model,
+            ServiceShape service,
+            OperationShape operation,
+            SymbolProvider symbolProvider,
+            TypeScriptWriter writer,
+            String aggregatedClientName,
+            boolean prefetchingPaginators
+    ) {
 
         this.writer = writer;
+        this.prefetchingPaginators = prefetchingPaginators;
 
         this.serviceSymbol = symbolProvider.toSymbol(service);
         this.operationSymbol = symbolProvider.toSymbol(operation);
@@ -119,6 +131,15 @@ final class PaginationGenerator implements Runnable {
             String aggregatedClientName,
             Symbol service,
             TypeScriptWriter writer
+    ) {
+        generateServicePaginationInterfaces(aggregatedClientName, service, writer, false);
+    }
+
+    static void generateServicePaginationInterfaces(
+            String aggregatedClientName,
+            Symbol service,
+            TypeScriptWriter writer,
+            boolean prefetchingPaginators
     ) {
         writer.addImport("PaginationConfiguration", "PaginationConfiguration", "@aws-sdk/types");
         String aggregatedClientLocation = service.getNamespace().replace(service.getName(), aggregatedClientName);
@@ -128,36 +149,23 @@ final class PaginationGenerator implements Runnable {
         writer.openBlock("export interface $LPaginationConfiguration extends PaginationConfiguration {",
                 "}", aggregatedClientName, () -> {
             writer.write("client: $L | $L;", aggregatedClientName, service.getName());
+            if (prefetchingPaginators) {
+                writer.writeDocs("The number of pages to request ahead of the page being consumed. Pages are\n"
+                        + "requested one at a time, in order. Defaults to 0, which requests each page\n"
+                        + "when it is consumed.");
+                writer.write("prefetchPages?: number;");
+            }
         });
     }
 
-    private static String getModulePath(String fileLocation) {
-        return fileLocation.substring(
-            fileLocation.lastIndexOf("/") + 1,
-            fileLocation.length()
-        ).replace(".ts", "");
-    }
-
-    static void writeIndex(
-            Model model,
-            ServiceShape service,
-            FileManifest fileManifest
-    ) {
-        TypeScriptWriter writer = new TypeScriptWriter("");
-        writer.write("export * from \"./$L\"", getModulePath(PAGINATION_INTERFACE_FILE));
-
-        TopDownIndex topDownIndex = TopDownIndex.of(model);
-        Set<OperationShape> containedOperations = new TreeSet<>(topDownIndex.getContainedOperations(service));
-        for (OperationShape operation : containedOperations) {
-            if (operation.hasTrait(PaginatedTrait.ID)) {
-                String outputFilepath = PaginationGenerator.getOutputFilelocation(operation);
-                writer.write("export * from \"./$L\"", getModulePath(outputFilepath));
-            }
-        }
-
-        fileManifest.writeFile(
-            Paths.get(CodegenUtils.SOURCE_FOLDER, PAGINATION_FOLDER, "index.ts").toString(),
-            writer.toString());
+    /**
+     * Writes the function that paginators use to request pages ahead of the
+     * page being consumed.
+     *
+     * @param writer The writer for {@link #PREFETCH_PAGES_FILE}.
+     */
+    static void generatePrefetchPages(TypeScriptWriter writer) {
+        writer.write(IoUtils.readUtf8Resource(PaginationGenerator.class, "prefetch-pages.ts"));
     }
 
     private String destructurePath(String path) {
@@ -180,6 +188,10 @@ final class PaginationGenerator implements Runnable {
             writer.write("let token: typeof input$L | undefined = config.startingToken || undefined;",
                     destructuredInputTokenName);
 
+            if (prefetchingPaginators) {
+                writePrefetchingPager(destructuredInputTokenName, destructurePath(outputTokenName));
+            }
+
             writer.write("let hasNext = true;");
             writer.write("let page: $L;", outputTypeName);
             writer.openBlock("while (hasNext) {", "}", () -> {
@@ -213,6 +225,45 @@ final class PaginationGenerator implements Runnable {
     }
 
 
+    /**
+     * Pager that keeps requesting pages while the consumer processes the ones already received,
+     * used when the configuration of the paginator asks for pages to be prefetched.
+     */
+    private void writePrefetchingPager(String destructuredInputTokenName, String destructuredOutputTokenName) {
+        String serviceTypeName = serviceSymbol.getName();
+        String outputTypeName = outputSymbol.getName();
+        writer.addImport("prefetchPages", "prefetchPages",
+                Paths.get(".", PREFETCH_PAGES_FILE.replace(".ts", "")).toString());
+
+        writer.openBlock("if (config.prefetchPages !== undefined && config.prefetchPages > 0) {", "}", () -> {
+            writer.openBlock("const requestPage = async (pageToken: typeof token): Promise<$L> => {", "};",
+                    outputTypeName, () -> {
+                writer.write("input$L = pageToken;", destructuredInputTokenName);
+                if (paginatedInfo.getPageSizeMember().isPresent()) {
+                    String pageSize = paginatedInfo.getPageSizeMember().get().getMemberName();
+                    writer.write("input[$S] = config.pageSize;", pageSize);
+                }
+                writer.openBlock("if (config.client instanceof $L) {", "}", aggregatedClientName, () -> {
+                    writer.write("return await makePagedRequest(config.client, input, ...additionalArguments);");
+                });
+                writer.openBlock("if (config.client instanceof $L) {", "}", serviceTypeName, () -> {
+                    writer.write("return await makePagedClientRequest(config.client, input, ...additionalArguments);");
+                });
+                writer.write("throw new Error(\"Invalid client, expected $L | $L\");",
+                        aggregatedClientName, serviceTypeName);
+            });
+            writer.openBlock("const getNextToken = (page: $L, prevToken: typeof token): typeof token => {", "};",
+                    outputTypeName, () -> {
+                writer.write("const nextToken = page$L;", destructuredOutputTokenName);
+                writer.write("return nextToken && (!config.stopOnSameToken || nextToken !== prevToken) "
+                        + "? nextToken : undefined;");
+            });
+            writer.write("yield* prefetchPages(config.prefetchPages, token, requestPage, getNextToken);");
+            writer.write("// @ts-ignore");
+            writer.write("return undefined;");
+        });
+    }
+
     /**
      * Paginated command that calls client.method({...}) under the hood. This is meant for server side environments and
      * exposes the entire service.
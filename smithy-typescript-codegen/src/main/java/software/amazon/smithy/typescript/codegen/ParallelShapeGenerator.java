@@ -0,0 +1,206 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Generates shapes on a work-stealing pool while keeping the generated files
+ * identical to a serial run.
+ *
+ * <p>Symbols are resolved on the calling thread in submission order, so models
+ * are assigned to the same chunked files as they would be serially. Each
+ * submitted generator then renders into its own detached {@link TypeScriptWriter},
+ * and {@link #flush()} appends the rendered code, imports, and dependencies to
+ * the writers of the {@link TypeScriptDelegator} in submission order.
+ *
+ * <p>When an {@link IncrementalCodegenCache} is provided, shapes whose closure
+ * is unchanged since the previous run are restored from the cache instead of
+ * being rendered.
+ */
+@SmithyInternalApi
+final class ParallelShapeGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelShapeGenerator.class.getName());
+
+    private final TypeScriptDelegator delegator;
+    private final SymbolProvider symbolProvider;
+    private final List<CodeInterceptor<? extends CodeSection, TypeScriptWriter>> interceptors;
+    private final int parallelism;
+    private final IncrementalCodegenCache cache;
+    private final List<PendingShape> pending = new ArrayList<>();
+
+    ParallelShapeGenerator(
+            TypeScriptDelegator delegator,
+            SymbolProvider symbolProvider,
+            List<CodeInterceptor<? extends CodeSection, TypeScriptWriter>> interceptors,
+            int parallelism,
+            IncrementalCodegenCache cache
+    ) {
+        this.delegator = delegator;
+        this.symbolProvider = symbolProvider;
+        this.interceptors = interceptors;
+        this.parallelism = parallelism;
+        this.cache = cache;
+    }
+
+    /**
+     * Queues a generator that writes the code of a shape.
+     *
+     * @param kind Kind of code generated for the shape, such as "structure" or "command".
+     * @param shape Shape being generated.
+     * @param generator Generator to invoke with a writer for the shape.
+     */
+    void submit(String kind, Shape shape, Consumer<TypeScriptWriter> generator) {
+        Symbol symbol = symbolProvider.toSymbol(shape);
+        // Resolve member symbols now, in the same order the generators would
+        // request them, so that no symbol is first created on a worker thread.
+        shape.members().forEach(symbolProvider::toSymbol);
+        String hash = cache == null ? null : cache.hash(kind, shape);
+        pending.add(new PendingShape(shape, symbol, kind + ":" + shape.getId(), hash, generator));
+    }
+
+    /**
+     * Runs every queued generator and writes the results to the delegator.
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingShape> shapes = new ArrayList<>(pending);
+        pending.clear();
+
+        List<TypeScriptWriter> writers = new ArrayList<>(shapes.size());
+        List<Callable<TypeScriptWriter>> tasks = new ArrayList<>();
+        List<Integer> renderedIndexes = new ArrayList<>();
+        for (int i = 0; i < shapes.size(); i++) {
+            PendingShape shape = shapes.get(i);
+            TypeScriptWriter writer = createWriter(shape.symbol.getDefinitionFile(), shape.symbol.getNamespace());
+            writers.add(writer);
+            if (cache == null || !cache.restore(shape.key, shape.hash, writer)) {
+                renderedIndexes.add(i);
+                tasks.add(() -> {
+                    shape.generator.accept(writer);
+                    return writer;
+                });
+            }
+        }
+
+        LOGGER.fine(() -> String.format("Generating %d of %d shapes with parallelism %d",
+                tasks.size(), shapes.size(), parallelism));
+        render(tasks);
+
+        if (cache != null) {
+            for (int i : renderedIndexes) {
+                cache.put(shapes.get(i).key, shapes.get(i).hash, writers.get(i));
+            }
+        }
+
+        for (int i = 0; i < shapes.size(); i++) {
+            TypeScriptWriter rendered = writers.get(i);
+            delegator.useShapeWriter(shapes.get(i).shape, writer -> writer.append(rendered));
+        }
+    }
+
+    /**
+     * Writes a file whose contents are derived from the closure of a shape,
+     * restoring it from the cache when the closure is unchanged.
+     *
+     * @param filename Name of the file to write.
+     * @param kind Kind of code generated in the file.
+     * @param shape Shape whose closure the contents of the file are derived from.
+     * @param generator Generator to invoke with a writer for the file.
+     */
+    void useFileWriter(String filename, String kind, Shape shape, Consumer<TypeScriptWriter> generator) {
+        TypeScriptWriter rendered = createWriter(filename, "");
+        if (cache == null) {
+            generator.accept(rendered);
+        } else {
+            String key = kind + ":" + Paths.get(filename).normalize();
+            String hash = cache.hash(kind, shape);
+            if (!cache.restore(key, hash, rendered)) {
+                generator.accept(rendered);
+                cache.put(key, hash, rendered);
+            }
+        }
+        delegator.useFileWriter(filename, writer -> writer.append(rendered));
+    }
+
+    private void render(List<Callable<TypeScriptWriter>> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<TypeScriptWriter> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CodegenException("Interrupted while generating shapes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CodegenException("Failed to generate shapes", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TypeScriptWriter createWriter(String filename, String namespace) {
+        // Mirror the filename normalization done by the delegator so imports relativize identically.
+        TypeScriptWriter writer = new TypeScriptWriter.TypeScriptWriterFactory()
+                .apply(Paths.get(filename).normalize().toString(), namespace);
+        for (CodeInterceptor<? extends CodeSection, TypeScriptWriter> interceptor : interceptors) {
+            writer.onSection(interceptor);
+        }
+        return writer;
+    }
+
+    private static final class PendingShape {
+        private final Shape shape;
+        private final Symbol symbol;
+        private final String key;
+        private final String hash;
+        private final Consumer<TypeScriptWriter> generator;
+
+        PendingShape(Shape shape, Symbol symbol, String key, String hash, Consumer<TypeScriptWriter> generator) {
+            this.shape = shape;
+            this.symbol = symbol;
+            this.key = key;
+            this.hash = hash;
+            this.generator = generator;
+        }
+    }
+}
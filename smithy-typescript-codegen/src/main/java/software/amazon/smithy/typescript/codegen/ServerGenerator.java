@@ -15,6 +15,7 @@
 
 package software.amazon.smithy.typescript.codegen;
 
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Set;
 import software.amazon.smithy.codegen.core.Symbol;
@@ -22,11 +23,15 @@ import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
 import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 @SmithyInternalApi
 final class ServerGenerator {
 
+    static final String INSTRUMENTATION_FILE = Paths.get(CodegenUtils.SOURCE_FOLDER,
+            ServerSymbolVisitor.SERVER_FOLDER, "instrumentation.ts").toString();
+
     private ServerGenerator() {}
 
     static void generateOperationsType(SymbolProvider symbolProvider,
@@ -48,15 +53,27 @@ final class ServerGenerator {
                                        Shape serviceShape,
                                        Set<OperationShape> operations,
                                        TypeScriptWriter writer) {
+        generateServiceHandler(symbolProvider, serviceShape, operations, writer, false);
+    }
+
+    static void generateServiceHandler(SymbolProvider symbolProvider,
+                                       Shape serviceShape,
+                                       Set<OperationShape> operations,
+                                       TypeScriptWriter writer,
+                                       boolean instrumented) {
         addCommonHandlerImports(writer);
         writer.addImport("UnknownOperationException", "__UnknownOperationException", "@aws-smithy/server-common");
 
         Symbol serviceSymbol = symbolProvider.toSymbol(serviceShape);
         Symbol handlerSymbol = serviceSymbol.expectProperty("handler", Symbol.class);
         Symbol operationsType = serviceSymbol.expectProperty("operations", Symbol.class);
+        String serviceName = serviceShape.getId().getName();
 
         writeSerdeContextBase(writer);
         writeHandleFunction(writer);
+        if (instrumented) {
+            writeInstrumentedHandleFunction(writer);
+        }
 
         String classDeclaration = "export class $L<Context> implements __ServiceHandler<Context> {";
         writer.openBlock(classDeclaration, "}", handlerSymbol.getName(), () -> {
@@ -68,6 +85,9 @@ final class ServerGenerator {
             writer.write("private readonly serializeFrameworkException: (e: __SmithyFrameworkException, "
                             + "ctx: __ServerSerdeContext) => Promise<__HttpResponse>;");
             writer.write("private readonly validationCustomizer: __ValidationCustomizer<$T>;", operationsType);
+            if (instrumented) {
+                writer.write("private readonly instrumentation?: __HandlerInstrumentation;");
+            }
             writer.writeDocs(() -> {
                 writer.write("Construct a $T handler.", serviceSymbol);
                 writer.write("@param service The {@link $1T} implementation that supplies the business logic for $1T",
@@ -82,6 +102,10 @@ final class ServerGenerator {
                         + "{@link __SmithyFrameworkException}s");
                 writer.write("@param validationCustomizer A {@link __ValidationCustomizer} for turning validation "
                         + "failures into {@link __SmithyFrameworkException}s");
+                if (instrumented) {
+                    writer.write("@param instrumentation An optional {@link __HandlerInstrumentation} that receives "
+                            + "the time spent in each phase of handling a request");
+                }
             });
             writer.openBlock("constructor(", ") {", () -> {
                 writer.write("service: $T<Context>,", serviceSymbol);
@@ -91,7 +115,11 @@ final class ServerGenerator {
                         operationsType, serviceSymbol);
                 writer.write("serializeFrameworkException: (e: __SmithyFrameworkException, ctx: __ServerSerdeContext) "
                         + "=> Promise<__HttpResponse>,");
-                writer.write("validationCustomizer: __ValidationCustomizer<$T>", operationsType);
+                writer.write("validationCustomizer: __ValidationCustomizer<$T>$L", operationsType,
+                        instrumented ? "," : "");
+                if (instrumented) {
+                    writer.write("instrumentation?: __HandlerInstrumentation");
+                }
             });
             writer.indent();
             writer.write("this.service = service;");
@@ -99,27 +127,61 @@ final class ServerGenerator {
             writer.write("this.serializerFactory = serializerFactory;");
             writer.write("this.serializeFrameworkException = serializeFrameworkException;");
             writer.write("this.validationCustomizer = validationCustomizer;");
+            if (instrumented) {
+                writer.write("this.instrumentation = instrumentation;");
+            }
             writer.closeBlock("}");
             String handleDecl = "async handle(request: __HttpRequest, context: Context): Promise<__HttpResponse> {";
             writer.openBlock(handleDecl, "}", () -> {
+                if (instrumented) {
+                    writeInstrumentationCheck(writer);
+                }
                 writer.write("const target = this.mux.match(request);");
                 writer.openBlock("if (target === undefined) {", "}", () -> {
                     writer.write("return this.serializeFrameworkException(new __UnknownOperationException(), "
                             + "serdeContextBase);");
                 });
-                writer.openBlock("switch (target.operation) {", "}", () -> {
-                    for (OperationShape operation : operations) {
-                        Symbol operationSymbol = symbolProvider.toSymbol(operation);
-                        Symbol inputSymbol = operationSymbol.expectProperty("inputType", Symbol.class);
-                        writer.openBlock("case $S : {", "}", operationSymbol.getName(), () -> {
-                            writer.write("return handle(request, context, $1S, this.serializerFactory($1S), "
-                                    + "this.service.$1L, this.serializeFrameworkException, $2T.validate, "
-                                    + "this.validationCustomizer);",
-                                    operationSymbol.getName(), inputSymbol);
-                        });
-                    }
-                });
+                writeOperationSwitch(symbolProvider, operations, writer, "handle", "");
             });
+            if (instrumented) {
+                writer.openBlock("private async handleWithInstrumentation(request: __HttpRequest, context: Context, "
+                        + "instrumentation: __HandlerInstrumentation): Promise<__HttpResponse> {", "}", () -> {
+                    writeInstrumentedMux(writer, serviceName);
+                    writer.openBlock("if (target === undefined) {", "}", () -> {
+                        writer.write("const response = await this.serializeFrameworkException("
+                                + "new __UnknownOperationException(), serdeContextBase);");
+                        writer.write("__endHandlerPhase(instrumentation, $S, undefined, \"serialize\", phaseStart, "
+                                + "false);", serviceName);
+                        writer.write("return response;");
+                    });
+                    writeOperationSwitch(symbolProvider, operations, writer, "handleInstrumented",
+                            writer.format(", $S, instrumentation, phaseStart", serviceName));
+                });
+            }
+        });
+    }
+
+    static void generateInstrumentation(TypeScriptWriter writer) {
+        writer.addImport("performance", null, "perf_hooks");
+        writer.write(IoUtils.readUtf8Resource(ServerGenerator.class, "server-instrumentation.ts"));
+    }
+
+    private static void writeOperationSwitch(SymbolProvider symbolProvider,
+                                             Set<OperationShape> operations,
+                                             TypeScriptWriter writer,
+                                             String handleFunction,
+                                             String extraArguments) {
+        writer.openBlock("switch (target.operation) {", "}", () -> {
+            for (OperationShape operation : operations) {
+                Symbol operationSymbol = symbolProvider.toSymbol(operation);
+                Symbol inputSymbol = operationSymbol.expectProperty("inputType", Symbol.class);
+                writer.openBlock("case $S : {", "}", operationSymbol.getName(), () -> {
+                    writer.write("return $3L(request, context, $1S, this.serializerFactory($1S), "
+                            + "this.service.$1L, this.serializeFrameworkException, $2T.validate, "
+                            + "this.validationCustomizer$4L);",
+                            operationSymbol.getName(), inputSymbol, handleFunction, extraArguments);
+                });
+            }
         });
     }
 
@@ -127,10 +189,21 @@ final class ServerGenerator {
                                          Shape serviceShape,
                                          OperationShape operation,
                                          TypeScriptWriter writer) {
+        generateOperationHandler(symbolProvider, serviceShape, operation, writer, false);
+    }
+
+    static void generateOperationHandler(SymbolProvider symbolProvider,
+                                         Shape serviceShape,
+                                         OperationShape operation,
+                                         TypeScriptWriter writer,
+                                         boolean instrumented) {
         addCommonHandlerImports(writer);
 
         writeSerdeContextBase(writer);
         writeHandleFunction(writer);
+        if (instrumented) {
+            writeInstrumentedHandleFunction(writer);
+        }
 
         Symbol serviceSymbol = symbolProvider.toSymbol(serviceShape);
         Symbol operationSymbol = symbolProvider.toSymbol(operation);
@@ -150,6 +223,9 @@ final class ServerGenerator {
             writer.write("private readonly serializeFrameworkException: (e: __SmithyFrameworkException, "
                     + "ctx: __ServerSerdeContext) => Promise<__HttpResponse>;");
             writer.write("private readonly validationCustomizer: __ValidationCustomizer<$S>;", operationName);
+            if (instrumented) {
+                writer.write("private readonly instrumentation?: __HandlerInstrumentation;");
+            }
             writer.writeDocs(() -> {
                 writer.write("Construct a $T handler.", operationSymbol);
                 writer.write("@param operation The {@link __Operation} implementation that supplies the business "
@@ -163,6 +239,10 @@ final class ServerGenerator {
                         + "{@link __SmithyFrameworkException}s");
                 writer.write("@param validationCustomizer A {@link __ValidationCustomizer} for turning validation "
                         + "failures into {@link __SmithyFrameworkException}s");
+                if (instrumented) {
+                    writer.write("@param instrumentation An optional {@link __HandlerInstrumentation} that receives "
+                            + "the time spent in each phase of handling a request");
+                }
             });
             writer.openBlock("constructor(", ") {", () -> {
                 writer.write("operation: __Operation<$T, $T, Context>,", inputSymbol, outputSymbol);
@@ -171,7 +251,11 @@ final class ServerGenerator {
                         serviceSymbol, operationName, errorsSymbol);
                 writer.write("serializeFrameworkException: (e: __SmithyFrameworkException, ctx: __ServerSerdeContext) "
                         + "=> Promise<__HttpResponse>,");
-                writer.write("validationCustomizer: __ValidationCustomizer<$S>", operationName);
+                writer.write("validationCustomizer: __ValidationCustomizer<$S>$L", operationName,
+                        instrumented ? "," : "");
+                if (instrumented) {
+                    writer.write("instrumentation?: __HandlerInstrumentation");
+                }
             });
             writer.indent();
             writer.write("this.operation = operation;");
@@ -179,10 +263,16 @@ final class ServerGenerator {
             writer.write("this.serializer = serializer;");
             writer.write("this.serializeFrameworkException = serializeFrameworkException;");
             writer.write("this.validationCustomizer = validationCustomizer;");
+            if (instrumented) {
+                writer.write("this.instrumentation = instrumentation;");
+            }
             writer.closeBlock("}");
             writer.openBlock("async handle(request: __HttpRequest, context: Context): Promise<__HttpResponse> {",
                 "}",
                 () -> {
+                    if (instrumented) {
+                        writeInstrumentationCheck(writer);
+                    }
                     writer.write("const target = this.mux.match(request);");
                     writer.openBlock("if (target === undefined) {", "}", () -> {
                         writer.write("console.log('Received a request that did not match $L.$L. This indicates a "
@@ -195,9 +285,51 @@ final class ServerGenerator {
                             operationName, inputSymbol);
                 }
             );
+            if (instrumented) {
+                writer.openBlock("private async handleWithInstrumentation(request: __HttpRequest, context: Context, "
+                        + "instrumentation: __HandlerInstrumentation): Promise<__HttpResponse> {", "}", () -> {
+                    String serviceName = serviceShape.getId().getName();
+                    writeInstrumentedMux(writer, serviceName);
+                    writer.openBlock("if (target === undefined) {", "}", () -> {
+                        writer.write("console.log('Received a request that did not match $L.$L. This indicates a "
+                                + "misconfiguration.');", serviceShape.getId(), operation.getId().getName());
+                        writer.write("const response = await this.serializeFrameworkException("
+                                + "new __InternalFailureException(), serdeContextBase);");
+                        writer.write("__endHandlerPhase(instrumentation, $S, undefined, \"serialize\", phaseStart, "
+                                + "false);", serviceName);
+                        writer.write("return response;");
+                    });
+                    writer.write("return handleInstrumented(request, context, $S, this.serializer, this.operation, "
+                            + "this.serializeFrameworkException, $T.validate, this.validationCustomizer, $S, "
+                            + "instrumentation, phaseStart);", operationName, inputSymbol, serviceName);
+                });
+            }
+        });
+    }
+
+    private static void writeInstrumentationCheck(TypeScriptWriter writer) {
+        writer.openBlock("if (this.instrumentation !== undefined) {", "}", () -> {
+            writer.write("return this.handleWithInstrumentation(request, context, this.instrumentation);");
         });
     }
 
+    private static void writeInstrumentedMux(TypeScriptWriter writer, String serviceName) {
+        writer.write("const muxStart = performance.now();");
+        writer.write("const target = this.mux.match(request);");
+        writer.write("const phaseStart = __endHandlerPhase(instrumentation, $S, target?.operation, \"mux\", "
+                + "muxStart, target === undefined);", serviceName);
+    }
+
+    // Writes the handle function with hooks that report the time spent in each phase.
+    private static void writeInstrumentedHandleFunction(TypeScriptWriter writer) {
+        String instrumentationModule = Paths.get(".", INSTRUMENTATION_FILE.replace(".ts", "")).toString();
+        writer.addImport("HandlerInstrumentation", "__HandlerInstrumentation", instrumentationModule);
+        writer.addImport("HandlerPhase", "__HandlerPhase", instrumentationModule);
+        writer.addImport("endHandlerPhase", "__endHandlerPhase", instrumentationModule);
+        writer.addImport("performance", null, "perf_hooks");
+        writeHandleFunction(writer, true);
+    }
+
     private static void addCommonHandlerImports(TypeScriptWriter writer) {
         writer.addImport("Operation", "__Operation", "@aws-smithy/server-common");
         writer.addImport("ServiceHandler", "__ServiceHandler", "@aws-smithy/server-common");
@@ -213,6 +345,15 @@ final class ServerGenerator {
     }
 
     private static void writeHandleFunction(TypeScriptWriter writer) {
+        writeHandleFunction(writer, false);
+    }
+
+    /**
+     * Writes the function that deserializes, validates, and handles a request, then
+     * serializes its response. The instrumented variant is written from the same steps,
+     * with hooks that end each phase, so the two cannot drift apart.
+     */
+    private static void writeHandleFunction(TypeScriptWriter writer, boolean instrumented) {
         writer.addImport("Operation", "__Operation", "@aws-smithy/server-common");
         writer.addImport("OperationInput", "__OperationInput", "@aws-smithy/server-common");
         writer.addImport("OperationOutput", "__OperationOutput", "@aws-smithy/server-common");
@@ -220,8 +361,8 @@ final class ServerGenerator {
         writer.addImport("ValidationCustomizer", "__ValidationCustomizer", "@aws-smithy/server-common");
         writer.addImport("isFrameworkException", "__isFrameworkException", "@aws-smithy/server-common");
 
-        writer.openBlock("async function handle<S, O extends keyof S & string, Context>(",
-                "): Promise<__HttpResponse> {",
+        writer.openBlock("async function $L<S, O extends keyof S & string, Context>(",
+                "): Promise<__HttpResponse> {", instrumented ? "handleInstrumented" : "handle",
                 () -> {
                     writer.write("request: __HttpRequest,");
                     writer.write("context: Context,");
@@ -231,9 +372,24 @@ final class ServerGenerator {
                     writer.write("serializeFrameworkException: (e: __SmithyFrameworkException, "
                             + "ctx: __ServerSerdeContext) => Promise<__HttpResponse>,");
                     writer.write("validationFn: (input: __OperationInput<S[O]>) => __ValidationFailure[],");
-                    writer.write("validationCustomizer: __ValidationCustomizer<O>");
+                    if (instrumented) {
+                        writer.write("validationCustomizer: __ValidationCustomizer<O>,");
+                        writer.write("serviceName: string,");
+                        writer.write("instrumentation: __HandlerInstrumentation,");
+                        writer.write("phaseStart: number");
+                    } else {
+                        writer.write("validationCustomizer: __ValidationCustomizer<O>");
+                    }
                 });
         writer.indent();
+        if (instrumented) {
+            writer.write("let phase: __HandlerPhase = \"deserialize\";");
+            writer.openBlock("const endPhase = (failed: boolean, next: __HandlerPhase): void => {", "};", () -> {
+                writer.write("phaseStart = __endHandlerPhase(instrumentation, serviceName, operationName, phase, "
+                        + "phaseStart, failed);");
+                writer.write("phase = next;");
+            });
+        }
         writer.write("let input;");
         writer.openBlock("try {", "} catch (error: unknown) {", () -> {
             writer.openBlock("input = await serializer.deserialize(request, {", "});", () -> {
@@ -241,35 +397,60 @@ final class ServerGenerator {
             });
         });
         writer.indent();
+        writeEndPhase(writer, instrumented, true, "serialize");
         writer.openBlock("if (__isFrameworkException(error)) {", "};", () -> {
-            writer.write("return serializeFrameworkException(error, serdeContextBase);");
+            writeReturn(writer, instrumented, "serializeFrameworkException(error, serdeContextBase)");
         });
-        writer.write("return serializeFrameworkException(new __SerializationException(), "
-                + "serdeContextBase);");
+        writeReturn(writer, instrumented, "serializeFrameworkException(new __SerializationException(), "
+                + "serdeContextBase)");
         writer.closeBlock("}");
         writer.openBlock("try {", "} catch(error: unknown) {", () -> {
+            writeEndPhase(writer, instrumented, false, "validate");
             writer.write("let validationFailures = validationFn(input);");
             writer.openBlock("if (validationFailures && validationFailures.length > 0) {", "}", () -> {
                 writer.write("let validationException = validationCustomizer({ operation: operationName }, "
                     + "validationFailures);");
                 writer.openBlock("if (validationException) {", "}", () -> {
-                    writer.write("return serializer.serializeError(validationException, serdeContextBase);");
+                    writeEndPhase(writer, instrumented, true, "serialize");
+                    writeReturn(writer, instrumented, "serializer.serializeError(validationException, "
+                            + "serdeContextBase)");
                 });
             });
+            writeEndPhase(writer, instrumented, false, "operation");
             writer.write("let output = await operation(input, context);");
-            writer.write("return serializer.serialize(output, serdeContextBase);");
+            writeEndPhase(writer, instrumented, false, "serialize");
+            writeReturn(writer, instrumented, "serializer.serialize(output, serdeContextBase)");
         });
         writer.indent();
+        writeEndPhase(writer, instrumented, true, "serialize");
         writer.openBlock("if (serializer.isOperationError(error)) {", "}", () -> {
-            writer.write("return serializer.serializeError(error, serdeContextBase);");
+            writeReturn(writer, instrumented, "serializer.serializeError(error, serdeContextBase)");
         });
         writer.write("console.log('Received an unexpected error', error);");
-        writer.write("return serializeFrameworkException(new __InternalFailureException(), "
-                + "serdeContextBase);");
+        writeReturn(writer, instrumented, "serializeFrameworkException(new __InternalFailureException(), "
+                + "serdeContextBase)");
         writer.closeBlock("}");
         writer.closeBlock("}");
     }
 
+    // Ends the current phase of an instrumented handle function and starts the next one.
+    private static void writeEndPhase(TypeScriptWriter writer, boolean instrumented, boolean failed, String next) {
+        if (instrumented) {
+            writer.write("endPhase($L, $S);", failed, next);
+        }
+    }
+
+    // Returns a serialized response, timing its serialization in an instrumented handle function.
+    private static void writeReturn(TypeScriptWriter writer, boolean instrumented, String response) {
+        if (instrumented) {
+            writer.write("const response = await $L;", response);
+            writer.write("endPhase(false, $S);", "serialize");
+            writer.write("return response;");
+        } else {
+            writer.write("return $L;", response);
+        }
+    }
+
     private static void writeSerdeContextBase(TypeScriptWriter writer) {
         writer.addImport("ServerSerdeContext", "__ServerSerdeContext", "@aws-smithy/server-common");
         writer.addImport("NodeHttpHandler", null, "@aws-sdk/node-http-handler");
@@ -67,6 +67,8 @@ final class StructureGenerator implements Runnable {
     private final TypeScriptWriter writer;
     private final StructureShape shape;
     private final boolean includeValidation;
+    private final boolean compileValidators;
+    private final boolean identityFilters;
 
     /**
      * sets 'includeValidation' to 'false' for backwards compatibility.
@@ -80,11 +82,35 @@ final class StructureGenerator implements Runnable {
                        TypeScriptWriter writer,
                        StructureShape shape,
                        boolean includeValidation) {
+        this(model, symbolProvider, writer, shape, includeValidation, false, false);
+    }
+
+    /**
+     * Creates a generator whose validation and sensitive log filters are configured by the settings.
+     */
+    StructureGenerator(Model model,
+                       SymbolProvider symbolProvider,
+                       TypeScriptWriter writer,
+                       StructureShape shape,
+                       TypeScriptSettings settings) {
+        this(model, symbolProvider, writer, shape, settings.generateServerSdk(), settings.compileValidators(),
+                settings.lazyFilterSensitiveLog());
+    }
+
+    private StructureGenerator(Model model,
+                       SymbolProvider symbolProvider,
+                       TypeScriptWriter writer,
+                       StructureShape shape,
+                       boolean includeValidation,
+                       boolean compileValidators,
+                       boolean identityFilters) {
         this.model = model;
         this.symbolProvider = symbolProvider;
         this.writer = writer;
         this.shape = shape;
         this.includeValidation = includeValidation;
+        this.compileValidators = compileValidators;
+        this.identityFilters = identityFilters;
     }
 
     @Override
@@ -169,31 +195,41 @@ final class StructureGenerator implements Runnable {
         Symbol symbol = symbolProvider.toSymbol(shape);
         String objectParam = "obj";
         writer.writeDocs("@internal");
-        writer.openBlock("export const $LFilterSensitiveLog = ($L: $L): any => ({", "})",
-            symbol.getName(),
-            objectParam,
-            symbol.getName(),
-            () -> {
-                structuredMemberWriter.writeFilterSensitiveLog(writer, objectParam);
-            }
-        );
+        if (identityFilters && !structuredMemberWriter.isFilterSensitiveLogRequired()) {
+            // Nothing in the structure is filtered, so there is no need to copy it.
+            writer.write("export const $LFilterSensitiveLog = ($L: $L): any => $L;",
+                    symbol.getName(), objectParam, symbol.getName(), objectParam);
+        } else {
+            writer.openBlock("export const $LFilterSensitiveLog = ($L: $L): any => ({", "})",
+                symbol.getName(),
+                objectParam,
+                symbol.getName(),
+                () -> {
+                    structuredMemberWriter.writeFilterSensitiveLog(writer, objectParam);
+                }
+            );
+        }
 
         if (!includeValidation) {
             return;
         }
 
+        if (compileValidators) {
+            CompiledValidatorWriter validatorWriter = new CompiledValidatorWriter(
+                    model, symbolProvider, shape.getAllMembers().values());
+            writer.openBlock("export namespace $L {", "}", symbol.getName(), () -> {
+                validatorWriter.writeValidateFunctions(writer, () -> writeValidatedType(symbol));
+            });
+            return;
+        }
+
         writer.openBlock("export namespace $L {", "}", symbol.getName(), () -> {
             structuredMemberWriter.writeMemberValidatorCache(writer, "memberValidators");
 
             writer.addImport("ValidationFailure", "__ValidationFailure", "@aws-smithy/server-common");
             writer.writeDocs("@internal");
-            List<MemberShape> blobStreamingMembers = getBlobStreamingMembers(model, shape);
             writer.writeInline("export const validate = ($L: ", objectParam);
-            if (blobStreamingMembers.isEmpty()) {
-                writer.writeInline("$L", symbol.getName());
-            } else {
-                writeInlineStreamingMemberType(writer, symbol, blobStreamingMembers.get(0));
-            }
+            writeValidatedType(symbol);
             writer.openBlock(", path: string = \"\"): __ValidationFailure[] => {", "}", () -> {
                 structuredMemberWriter.writeMemberValidatorFactory(writer, "memberValidators");
                 structuredMemberWriter.writeValidateMethodContents(writer, objectParam);
@@ -201,6 +237,18 @@ final class StructureGenerator implements Runnable {
         });
     }
 
+    /**
+     * Writes the type of the object passed to validate inline.
+     */
+    private void writeValidatedType(Symbol symbol) {
+        List<MemberShape> blobStreamingMembers = getBlobStreamingMembers(model, shape);
+        if (blobStreamingMembers.isEmpty()) {
+            writer.writeInline("$L", symbol.getName());
+        } else {
+            writeInlineStreamingMemberType(writer, symbol, blobStreamingMembers.get(0));
+        }
+    }
+
     /**
      * Error structures generate classes that extend from service base exception
      * (ServiceException in case of server SDK), and add the appropriate fault
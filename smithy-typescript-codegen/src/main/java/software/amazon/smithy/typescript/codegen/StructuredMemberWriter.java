@@ -43,6 +43,7 @@ import software.amazon.smithy.model.traits.PatternTrait;
 import software.amazon.smithy.model.traits.RangeTrait;
 import software.amazon.smithy.model.traits.RequiredTrait;
 import software.amazon.smithy.model.traits.SensitiveTrait;
+import software.amazon.smithy.model.traits.SparseTrait;
 import software.amazon.smithy.model.traits.StreamingTrait;
 import software.amazon.smithy.model.traits.Trait;
 import software.amazon.smithy.model.traits.UniqueItemsTrait;
@@ -103,6 +104,43 @@ final class StructuredMemberWriter {
         }
     }
 
+    /**
+     * Identifies if filterSensitiveLog changes any member, or any member of the shapes
+     * the members target.
+     *
+     * @return Returns true if the members need to be filtered before being logged.
+     */
+    boolean isFilterSensitiveLogRequired() {
+        Set<ShapeId> visited = new HashSet<>();
+        for (MemberShape member : members) {
+            if (isFilterSensitiveLogRequired(member, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFilterSensitiveLogRequired(MemberShape member, Set<ShapeId> visited) {
+        if (member.getMemberTrait(model, SensitiveTrait.class).isPresent()) {
+            return true;
+        }
+
+        Shape memberTarget = model.expectShape(member.getTarget());
+        if (memberTarget.isUnionShape()) {
+            // UnionShapes always replace unknown and streaming members.
+            return true;
+        } else if (memberTarget.hasTrait(ErrorTrait.class) || !visited.add(memberTarget.getId())) {
+            // Errors are not filtered, and shapes already visited are checked by the caller.
+            return false;
+        }
+        for (MemberShape targetMember : memberTarget.members()) {
+            if (isFilterSensitiveLogRequired(targetMember, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void writeMemberFilterSensitiveLog(TypeScriptWriter writer, MemberShape member, String memberParam) {
         Shape memberTarget = model.expectShape(member.getTarget());
         if (member.getMemberTrait(model, SensitiveTrait.class).isPresent()) {
@@ -339,7 +377,7 @@ final class StructuredMemberWriter {
                     writer.openBlock("switch (member) {", "}", () -> {
                         for (MemberShape member : members) {
                             final Shape targetShape = model.expectShape(member.getTarget());
-                            Collection<Trait> constraintTraits = getConstraintTraits(member);
+                            Collection<Trait> constraintTraits = getConstraintTraits(model, member);
                             writer.openBlock("case $S: {", "}", getSanitizedMemberName(member), () -> {
                                 writer.writeInline("$L[$S] = ", cacheName, getSanitizedMemberName(member));
                                 if (member.getMemberTrait(model, SensitiveTrait.class).isPresent()) {
@@ -432,7 +470,7 @@ final class StructuredMemberWriter {
                         writeShapeValidator(writer, shape, constraintTraits, ",");
                         writeMemberValidator(writer,
                                 collectionMemberTargetShape,
-                                getConstraintTraits(collectionMemberShape),
+                                getConstraintTraits(model, collectionMemberShape),
                                 "");
                     }
             );
@@ -448,11 +486,11 @@ final class StructuredMemberWriter {
                         writeShapeValidator(writer, mapShape, constraintTraits, ",");
                         writeMemberValidator(writer,
                                 model.expectShape(keyShape.getTarget()),
-                                getConstraintTraits(keyShape),
+                                getConstraintTraits(model, keyShape),
                                 ",");
                         writeMemberValidator(writer,
                                 model.expectShape(valueShape.getTarget()),
-                                getConstraintTraits(valueShape),
+                                getConstraintTraits(model, valueShape),
                                 "");
                     });
         } else {
@@ -486,16 +524,11 @@ final class StructuredMemberWriter {
         writer.openBlock("new __CompositeValidator<$T>([", "])" + trailer, getSymbolForValidatedType(shape),
                 () -> {
                     if (shouldWriteIntEnumValidator) {
-                        writer.addImport("IntegerEnumValidator", "__IntegerEnumValidator", "@aws-smithy/server-common");
-                        writer.openBlock("new __IntegerEnumValidator([", "]),", () -> {
-                            for (int i : ((IntEnumShape) shape).getEnumValues().values()) {
-                                writer.write("$L,", i);
-                            }
-                        });
+                        writer.write("$T,", EnumGenerator.getValidatorSymbol(symbolProvider.toSymbol(shape)));
                     }
 
                     for (Trait t : constraints) {
-                        writeSingleConstraintValidator(writer, t);
+                        writeSingleConstraintValidator(writer, shape, t);
                     }
                 }
         );
@@ -504,17 +537,12 @@ final class StructuredMemberWriter {
     /**
      * Writes a validator for one constraint of one member.
      */
-    private void writeSingleConstraintValidator(TypeScriptWriter writer, Trait trait) {
+    private void writeSingleConstraintValidator(TypeScriptWriter writer, Shape shape, Trait trait) {
         if (trait instanceof RequiredTrait) {
             writer.addImport("RequiredValidator", "__RequiredValidator", "@aws-smithy/server-common");
             writer.write("new __RequiredValidator(),");
         } else if (trait instanceof EnumTrait) {
-            writer.addImport("EnumValidator", "__EnumValidator", "@aws-smithy/server-common");
-            writer.openBlock("new __EnumValidator([", "]),", () -> {
-                for (String e : ((EnumTrait) trait).getEnumDefinitionValues()) {
-                    writer.write("$S,", e);
-                }
-            });
+            writer.write("$T,", EnumGenerator.getValidatorSymbol(symbolProvider.toSymbol(shape)));
         } else if (trait instanceof LengthTrait) {
             LengthTrait lengthTrait = (LengthTrait) trait;
             writer.addImport("LengthValidator", "__LengthValidator", "@aws-smithy/server-common");
@@ -532,10 +560,39 @@ final class StructuredMemberWriter {
                     rangeTrait.getMax().map(Object::toString).orElse("undefined"));
         } else if (trait instanceof UniqueItemsTrait) {
             writer.addImport("UniqueItemsValidator", "__UniqueItemsValidator", "@aws-smithy/server-common");
-            writer.write("new __UniqueItemsValidator(),");
+            String duplicateFinder = getDuplicateFinder(model, shape);
+            if (duplicateFinder.equals("findDuplicates")) {
+                writer.write("new __UniqueItemsValidator(),");
+            } else {
+                writer.addImport(duplicateFinder, "__" + duplicateFinder, "@aws-smithy/server-common");
+                writer.write("new __UniqueItemsValidator(__$L),", duplicateFinder);
+            }
         }
     }
 
+    /**
+     * Gets the function of the server-common library that finds the duplicate members of a list,
+     * which is specialized for dense lists whose members are primitives or blobs.
+     *
+     * @param model the model
+     * @param shape the list shape
+     * @return the name of the function
+     */
+    static String getDuplicateFinder(Model model, Shape shape) {
+        if (!(shape instanceof CollectionShape) || shape.hasTrait(SparseTrait.class)) {
+            return "findDuplicates";
+        }
+        Shape target = model.expectShape(((CollectionShape) shape).getMember().getTarget());
+        if (target.isStringShape() || target.isEnumShape() || target.isBooleanShape()
+                || target.isByteShape() || target.isShortShape() || target.isIntegerShape()
+                || target.isIntEnumShape() || target.isLongShape()) {
+            return "findDuplicatePrimitives";
+        } else if (target.isBlobShape() && !target.hasTrait(StreamingTrait.class)) {
+            return "findDuplicateBlobs";
+        }
+        return "findDuplicates";
+    }
+
     /**
      * Writes the type that is being validated (the TS type corresponding to the target shape) that is used as a
      * type arg for MultiConstraintValidator.
@@ -602,7 +659,14 @@ final class StructuredMemberWriter {
         return symbolProvider.toSymbol(shape);
     }
 
-    private Collection<Trait> getConstraintTraits(MemberShape member) {
+    /**
+     * Gets the constraint traits that apply to a member, including those of its target.
+     *
+     * @param model the model
+     * @param member the member shape
+     * @return the constraint traits to validate the member with
+     */
+    static Collection<Trait> getConstraintTraits(Model model, MemberShape member) {
         List<Trait> traits = new ArrayList<>();
         member.getTrait(RequiredTrait.class).ifPresent(traits::add);
         member.getMemberTrait(model, EnumTrait.class).ifPresent(traits::add);
@@ -19,7 +19,6 @@ import static java.lang.String.format;
 
 import java.nio.file.Paths;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -27,7 +26,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.ReservedWordSymbolProvider;
 import software.amazon.smithy.codegen.core.ReservedWords;
@@ -121,8 +119,9 @@ final class SymbolVisitor implements SymbolProvider, ShapeVisitor<Symbol> {
         moduleNameDelegator = new ModuleNameDelegator(shapeChunkSize);
     }
 
-    static void writeModelIndex(Collection<Shape> shapes, SymbolProvider symbolProvider, FileManifest fileManifest) {
-        ModuleNameDelegator.writeModelIndex(shapes, symbolProvider, fileManifest);
+    static void addModelExports(Collection<Shape> shapes, SymbolProvider symbolProvider,
+                                BarrelIndexCollector indexes) {
+        ModuleNameDelegator.addModelExports(shapes, symbolProvider, indexes);
     }
 
     @Override
@@ -448,7 +447,7 @@ final class SymbolVisitor implements SymbolProvider, ShapeVisitor<Symbol> {
             chunkSize = shapeChunkSize;
         }
 
-        public String formatModuleName(Shape shape, String name) {
+        public synchronized String formatModuleName(Shape shape, String name) {
             // All shapes except for the service and operations are stored in models.
             if (shape.getType() == ShapeType.SERVICE) {
                 return String.join("/", ".", name);
@@ -468,20 +467,18 @@ final class SymbolVisitor implements SymbolProvider, ShapeVisitor<Symbol> {
             return path;
         }
 
-        static void writeModelIndex(Collection<Shape> shapes, SymbolProvider symbolProvider,
-                                    FileManifest fileManifest) {
-            TypeScriptWriter writer = new TypeScriptWriter("");
+        static void addModelExports(Collection<Shape> shapes, SymbolProvider symbolProvider,
+                                    BarrelIndexCollector indexes) {
             String modelPrefix = String.join("/", ".", CodegenUtils.SOURCE_FOLDER, SHAPE_NAMESPACE_PREFIX);
+            String indexDirectory = Paths.get(CodegenUtils.SOURCE_FOLDER, SHAPE_NAMESPACE_PREFIX).toString();
+            // The package index always exports the models index, even when there are no models.
+            indexes.addIndex(indexDirectory);
             shapes.stream()
                     .map(shape -> symbolProvider.toSymbol(shape).getNamespace())
                     .filter(namespace -> namespace.startsWith(modelPrefix))
                     .distinct()
-                    .sorted(Comparator.naturalOrder())
                     .map(namespace -> namespace.replaceFirst(Matcher.quoteReplacement(modelPrefix), "."))
-                    .forEach(namespace -> writer.write("export * from $S;", namespace));
-            fileManifest.writeFile(
-                    Paths.get(CodegenUtils.SOURCE_FOLDER, SHAPE_NAMESPACE_PREFIX, "index.ts").toString(),
-                    writer.toString());
+                    .forEach(namespace -> indexes.addExport(indexDirectory, namespace));
         }
 
     }
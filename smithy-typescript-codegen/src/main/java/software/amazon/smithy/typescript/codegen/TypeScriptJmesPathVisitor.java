@@ -16,6 +16,7 @@
 package software.amazon.smithy.typescript.codegen;
 
 import java.util.ArrayList;
+import java.util.function.Consumer;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.jmespath.ExpressionVisitor;
 import software.amazon.smithy.jmespath.JmespathExpression;
@@ -106,6 +107,94 @@ class TypeScriptJmesPathVisitor implements ExpressionVisitor<Void> {
         });
     }
 
+    /**
+     * Writes the body of a matcher function that returns whether every element of the
+     * expression result equals the expected value. The function returns as soon as an
+     * element does not match, and projections and flattens are iterated in place rather
+     * than collected into intermediate arrays.
+     */
+    void writeAllStringEqualsMatcher(String expectedValue) {
+        String matched = makeNewScope("matched_");
+        writer.write("let $L = false;", matched);
+        writeElements(jmesExpression, accessor, element -> {
+            writer.openBlock("if ($L != $S) {", "}", element, expectedValue, () -> {
+                writer.write("return false;");
+            });
+            writer.write("$L = true;", matched);
+        });
+        writer.write("return $L;", matched);
+    }
+
+    /**
+     * Writes the body of a matcher function that returns whether any element of the
+     * expression result equals the expected value, returning at the first match.
+     */
+    void writeAnyStringEqualsMatcher(String expectedValue) {
+        writeElements(jmesExpression, accessor, element -> {
+            writer.openBlock("if ($L == $S) {", "}", element, expectedValue, () -> {
+                writer.write("return true;");
+            });
+        });
+        writer.write("return false;");
+    }
+
+    void writeStringMatcher(String expectedValue) {
+        executionContext = accessor;
+        jmesExpression.accept(this);
+        writer.write("return $L === $S;", executionContext, expectedValue);
+    }
+
+    void writeBooleanMatcher(String expectedValue) {
+        executionContext = accessor;
+        jmesExpression.accept(this);
+        writer.write("return $L == $L;", executionContext, expectedValue);
+    }
+
+    // Writes loops over the elements that the expression evaluates to from the given context, and
+    // writes the body for each element in the innermost loop.
+    private void writeElements(JmespathExpression expression, String context, Consumer<String> body) {
+        if (expression instanceof ProjectionExpression) {
+            ProjectionExpression projection = (ProjectionExpression) expression;
+            writeElements(projection.getLeft(), context, element -> {
+                executionContext = element;
+                projection.getRight().accept(this);
+                body.accept(executionContext);
+            });
+        } else if (expression instanceof FilterProjectionExpression) {
+            FilterProjectionExpression projection = (FilterProjectionExpression) expression;
+            writeElements(projection.getLeft(), context, element -> {
+                executionContext = element;
+                projection.getComparison().accept(this);
+                writer.openBlock("if ($L) {", "}", executionContext, () -> {
+                    executionContext = element;
+                    projection.getRight().accept(this);
+                    body.accept(executionContext);
+                });
+            });
+        } else if (expression instanceof FlattenExpression) {
+            writeElements(((FlattenExpression) expression).getExpression(), context, element -> {
+                String flattened = makeNewScope("flat_");
+                writer.openBlock("for (const $L of Array.isArray($L) ? $L : [$L]) {", "}",
+                        flattened, element, element, element, () -> body.accept(flattened));
+            });
+        } else if (expression instanceof ObjectProjectionExpression) {
+            ObjectProjectionExpression projection = (ObjectProjectionExpression) expression;
+            executionContext = context;
+            projection.getLeft().accept(this);
+            String element = makeNewScope("element_");
+            writer.openBlock("for (const $L of Object.values($L)) {", "}", element, executionContext, () -> {
+                executionContext = element;
+                projection.getRight().accept(this);
+                body.accept(executionContext);
+            });
+        } else {
+            executionContext = context;
+            expression.accept(this);
+            String element = makeNewScope("element_");
+            writer.openBlock("for (const $L of $L) {", "}", element, executionContext, () -> body.accept(element));
+        }
+    }
+
     @Override
     public Void visitComparator(ComparatorExpression expression) {
 
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.logging.Logger;
@@ -54,6 +55,24 @@ public final class TypeScriptSettings {
     private static final String PROTOCOL = "protocol";
     private static final String PRIVATE = "private";
     private static final String PACKAGE_MANAGER = "packageManager";
+    private static final String CODEGEN_PARALLELISM = "codegenParallelism";
+    private static final String INCREMENTAL_CODEGEN_CACHE = "incrementalCodegenCache";
+    private static final String COMPILE_ENDPOINT_RULE_SET = "compileEndpointRuleSet";
+    private static final String ENDPOINT_CACHE_SIZE = "endpointCacheSize";
+    private static final String GENERATE_SERVICE_ROUTER = "generateServiceRouter";
+    private static final String COMPILE_VALIDATORS = "compileValidators";
+    private static final String LAZY_OUTPUT = "lazyOutput";
+    private static final String STREAMING_LIST_OUTPUT = "streamingListOutput";
+    private static final String SPECIALIZED_SERIALIZERS = "specializedSerializers";
+    private static final String CACHE_RESOLVED_MIDDLEWARE = "cacheResolvedMiddleware";
+    private static final String LAZY_FILTER_SENSITIVE_LOG = "lazyFilterSensitiveLog";
+    private static final String ERROR_DISPATCH_TABLES = "errorDispatchTables";
+    private static final String PREFETCHING_PAGINATORS = "prefetchingPaginators";
+    private static final String COMPILED_WAITER_MATCHERS = "compiledWaiterMatchers";
+    private static final String ADAPTIVE_WAITERS = "adaptiveWaiters";
+    private static final String BATCHED_EVENT_STREAMS = "batchedEventStreams";
+    private static final String EVENT_TYPE_DISPATCH = "eventTypeDispatch";
+    private static final String SERVER_INSTRUMENTATION = "serverInstrumentation";
 
     private String packageName;
     private String packageDescription = "";
@@ -66,7 +85,25 @@ public final class TypeScriptSettings {
     private boolean isPrivate;
     private ArtifactType artifactType = ArtifactType.CLIENT;
     private boolean disableDefaultValidation = false;
+    private boolean generateServiceRouter = false;
+    private boolean compileValidators = false;
     private PackageManager packageManager = PackageManager.YARN;
+    private int codegenParallelism = 1;
+    private String incrementalCodegenCache;
+    private boolean compileEndpointRuleSet = false;
+    private int endpointCacheSize = 0;
+    private boolean lazyOutput = false;
+    private boolean streamingListOutput = false;
+    private boolean specializedSerializers = false;
+    private boolean cacheResolvedMiddleware = false;
+    private boolean lazyFilterSensitiveLog = false;
+    private boolean errorDispatchTables = false;
+    private boolean prefetchingPaginators = false;
+    private boolean compiledWaiterMatchers = false;
+    private boolean adaptiveWaiters = false;
+    private boolean batchedEventStreams = false;
+    private boolean eventTypeDispatch = false;
+    private boolean serverInstrumentation = false;
 
     @Deprecated
     public static TypeScriptSettings from(Model model, ObjectNode config) {
@@ -102,9 +139,28 @@ public final class TypeScriptSettings {
                 config.getStringMember(PACKAGE_MANAGER)
                     .map(s -> PackageManager.fromString(s.getValue()))
                     .orElse(PackageManager.YARN));
+        settings.setCodegenParallelism(config.getNumberMemberOrDefault(CODEGEN_PARALLELISM, 1).intValue());
+        config.getStringMember(INCREMENTAL_CODEGEN_CACHE).map(StringNode::getValue)
+                .ifPresent(settings::setIncrementalCodegenCache);
+        settings.setCompileEndpointRuleSet(config.getBooleanMemberOrDefault(COMPILE_ENDPOINT_RULE_SET));
+        settings.setEndpointCacheSize(config.getNumberMemberOrDefault(ENDPOINT_CACHE_SIZE, 0).intValue());
+        settings.setLazyOutput(config.getBooleanMemberOrDefault(LAZY_OUTPUT));
+        settings.setStreamingListOutput(config.getBooleanMemberOrDefault(STREAMING_LIST_OUTPUT));
+        settings.setSpecializedSerializers(config.getBooleanMemberOrDefault(SPECIALIZED_SERIALIZERS));
+        settings.setCacheResolvedMiddleware(config.getBooleanMemberOrDefault(CACHE_RESOLVED_MIDDLEWARE));
+        settings.setLazyFilterSensitiveLog(config.getBooleanMemberOrDefault(LAZY_FILTER_SENSITIVE_LOG));
+        settings.setPrefetchingPaginators(config.getBooleanMemberOrDefault(PREFETCHING_PAGINATORS));
+        settings.setErrorDispatchTables(config.getBooleanMemberOrDefault(ERROR_DISPATCH_TABLES));
+        settings.setAdaptiveWaiters(config.getBooleanMemberOrDefault(ADAPTIVE_WAITERS));
+        settings.setCompiledWaiterMatchers(config.getBooleanMemberOrDefault(COMPILED_WAITER_MATCHERS));
+        settings.setEventTypeDispatch(config.getBooleanMemberOrDefault(EVENT_TYPE_DISPATCH));
+        settings.setBatchedEventStreams(config.getBooleanMemberOrDefault(BATCHED_EVENT_STREAMS));
 
         if (artifactType == ArtifactType.SSDK) {
             settings.setDisableDefaultValidation(config.getBooleanMemberOrDefault(DISABLE_DEFAULT_VALIDATION));
+            settings.setGenerateServiceRouter(config.getBooleanMemberOrDefault(GENERATE_SERVICE_ROUTER));
+            settings.setCompileValidators(config.getBooleanMemberOrDefault(COMPILE_VALIDATORS));
+            settings.setServerInstrumentation(config.getBooleanMemberOrDefault(SERVER_INSTRUMENTATION));
         }
 
         settings.setPluginSettings(config);
@@ -296,6 +352,36 @@ public final class TypeScriptSettings {
         this.disableDefaultValidation = disableDefaultValidation;
     }
 
+    /**
+     * Returns whether service handlers route requests with a router generated for
+     * the service instead of the generic {@code HttpBindingMux}. This setting is only
+     * relevant for the SSDK.
+     *
+     * @return true if a service-specific router is generated. Default: false
+     */
+    public boolean generateServiceRouter() {
+        return generateServiceRouter;
+    }
+
+    public void setGenerateServiceRouter(boolean generateServiceRouter) {
+        this.generateServiceRouter = generateServiceRouter;
+    }
+
+    /**
+     * Returns whether structures and unions are validated by generated functions with
+     * inlined constraint checks instead of by composed validator objects. This setting
+     * is only relevant for the SSDK.
+     *
+     * @return true if validators are compiled. Default: false
+     */
+    public boolean compileValidators() {
+        return compileValidators;
+    }
+
+    public void setCompileValidators(boolean compileValidators) {
+        this.compileValidators = compileValidators;
+    }
+
     /**
      * Returns the package manager used by the generated package.
      *
@@ -309,6 +395,263 @@ public final class TypeScriptSettings {
         this.packageManager = packageManager;
     }
 
+    /**
+     * Returns the number of threads used to generate shapes and operations.
+     *
+     * <p>A value of 1 generates everything serially on the calling thread. A
+     * value of 0 uses one thread per available processor.
+     *
+     * @return the configured parallelism. Defaults to 1.
+     */
+    public int getCodegenParallelism() {
+        return codegenParallelism;
+    }
+
+    public void setCodegenParallelism(int codegenParallelism) {
+        if (codegenParallelism < 0) {
+            throw new CodegenException(String.format(
+                    "%s must be greater than or equal to 0, found %d", CODEGEN_PARALLELISM, codegenParallelism));
+        }
+        this.codegenParallelism = codegenParallelism == 0
+                ? Runtime.getRuntime().availableProcessors()
+                : codegenParallelism;
+    }
+
+    /**
+     * Returns the path of the file used to cache generated code between runs.
+     *
+     * <p>When set, shapes whose closure has not changed since the previous run
+     * are restored from the cache instead of being generated again. Relative
+     * paths are resolved against the plugin output directory.
+     *
+     * @return the path of the cache file, if incremental codegen is enabled.
+     */
+    public Optional<String> getIncrementalCodegenCache() {
+        return Optional.ofNullable(incrementalCodegenCache);
+    }
+
+    public void setIncrementalCodegenCache(String incrementalCodegenCache) {
+        this.incrementalCodegenCache = incrementalCodegenCache;
+    }
+
+    /**
+     * Returns whether the endpoint rule set is compiled to TypeScript conditionals
+     * instead of being interpreted by {@code resolveEndpoint} for each request.
+     *
+     * <p>Rule sets that use functions the compiler does not support are still interpreted.
+     *
+     * @return true if the endpoint rule set is compiled. Defaults to false.
+     */
+    public boolean compileEndpointRuleSet() {
+        return compileEndpointRuleSet;
+    }
+
+    public void setCompileEndpointRuleSet(boolean compileEndpointRuleSet) {
+        this.compileEndpointRuleSet = compileEndpointRuleSet;
+    }
+
+    /**
+     * Returns the default number of resolved endpoints each client caches.
+     *
+     * <p>A value of 0 generates clients without an endpoint cache. Otherwise,
+     * clients cache endpoints keyed on their endpoint parameters, and the size
+     * can be changed with the {@code endpointCacheSize} client config.
+     *
+     * @return the default endpoint cache size. Defaults to 0.
+     */
+    public int getEndpointCacheSize() {
+        return endpointCacheSize;
+    }
+
+    public void setEndpointCacheSize(int endpointCacheSize) {
+        if (endpointCacheSize < 0) {
+            throw new CodegenException(String.format(
+                    "%s must be greater than or equal to 0, found %d", ENDPOINT_CACHE_SIZE, endpointCacheSize));
+        }
+        this.endpointCacheSize = endpointCacheSize;
+    }
+
+    /**
+     * Returns whether clients deserialize the members bound to the document of
+     * a response the first time they are read, instead of when the response is received.
+     *
+     * <p>Only the top-level members of the output are deferred. Reading one of them
+     * deserializes its whole value, including any nested structures and documents.
+     *
+     * @return true if output document members are deserialized lazily. Defaults to false.
+     */
+    public boolean lazyOutput() {
+        return lazyOutput;
+    }
+
+    public void setLazyOutput(boolean lazyOutput) {
+        this.lazyOutput = lazyOutput;
+    }
+
+    /**
+     * Returns whether clients parse JSON responses of paginated operations as they
+     * are received, deserializing each element of the paginated list as soon as it
+     * has been read instead of buffering and parsing the whole body first.
+     *
+     * @return true if paginated list outputs are parsed incrementally. Defaults to false.
+     */
+    public boolean streamingListOutput() {
+        return streamingListOutput;
+    }
+
+    public void setStreamingListOutput(boolean streamingListOutput) {
+        this.streamingListOutput = streamingListOutput;
+    }
+
+    /**
+     * Returns whether structures in documents are serialized by straight-line functions
+     * that build an object literal with a fixed set of properties, for protocols that
+     * support it.
+     *
+     * @return true if structures use specialized serializers. Defaults to false.
+     */
+    public boolean specializedSerializers() {
+        return specializedSerializers;
+    }
+
+    public void setSpecializedSerializers(boolean specializedSerializers) {
+        this.specializedSerializers = specializedSerializers;
+    }
+
+    /**
+     * Returns whether commands reuse the middleware order they resolved for a client
+     * configuration while the client middleware stack holds the same middleware, instead
+     * of combining and sorting the stacks on every request. Commands whose own middleware
+     * stack was changed before they are sent combine the stacks as usual.
+     *
+     * @return true if resolved middleware is cached. Defaults to false.
+     */
+    public boolean cacheResolvedMiddleware() {
+        return cacheResolvedMiddleware;
+    }
+
+    public void setCacheResolvedMiddleware(boolean cacheResolvedMiddleware) {
+        this.cacheResolvedMiddleware = cacheResolvedMiddleware;
+    }
+
+    /**
+     * Returns whether clients only filter sensitive members out of command inputs and
+     * outputs when the configured logger logs them, and whether the filters of structures
+     * without sensitive members anywhere in their closure return their input as-is.
+     *
+     * @return true if sensitive log filters are skipped when not needed. Defaults to false.
+     */
+    public boolean lazyFilterSensitiveLog() {
+        return lazyFilterSensitiveLog;
+    }
+
+    public void setLazyFilterSensitiveLog(boolean lazyFilterSensitiveLog) {
+        this.lazyFilterSensitiveLog = lazyFilterSensitiveLog;
+    }
+
+    /**
+     * Returns whether clients dispatch error responses to the deserializer of the
+     * modeled error with a lookup table built once per operation, instead of a
+     * switch statement over every error code and shape ID.
+     *
+     * @return true if error responses are dispatched with lookup tables. Defaults to false.
+     */
+    public boolean errorDispatchTables() {
+        return errorDispatchTables;
+    }
+
+    public void setErrorDispatchTables(boolean errorDispatchTables) {
+        this.errorDispatchTables = errorDispatchTables;
+    }
+
+    /**
+     * Returns whether client paginators accept a {@code prefetchPages} option that
+     * requests up to that many pages ahead of the page being consumed.
+     *
+     * @return true if paginators can prefetch pages. Defaults to false.
+     */
+    public boolean prefetchingPaginators() {
+        return prefetchingPaginators;
+    }
+
+    public void setPrefetchingPaginators(boolean prefetchingPaginators) {
+        this.prefetchingPaginators = prefetchingPaginators;
+    }
+
+    /**
+     * Returns whether waiter path matchers are generated once per unique path and
+     * comparator as shared functions that stop at the first element deciding the match.
+     *
+     * @return true if waiters use shared path matchers. Defaults to false.
+     */
+    public boolean compiledWaiterMatchers() {
+        return compiledWaiterMatchers;
+    }
+
+    public void setCompiledWaiterMatchers(boolean compiledWaiterMatchers) {
+        this.compiledWaiterMatchers = compiledWaiterMatchers;
+    }
+
+    /**
+     * Returns whether waiters poll with a full jitter delay that honors Retry-After
+     * headers, can be stopped early, and share polls of the same input.
+     *
+     * @return true if waiters poll adaptively. Defaults to false.
+     */
+    public boolean adaptiveWaiters() {
+        return adaptiveWaiters;
+    }
+
+    public void setAdaptiveWaiters(boolean adaptiveWaiters) {
+        this.adaptiveWaiters = adaptiveWaiters;
+    }
+
+    /**
+     * Returns whether client event stream serializers combine the encoded messages
+     * that are ready together into a single chunk of the outbound stream.
+     *
+     * <p>Event stream signers sign each chunk they are given as one message, so the
+     * streams of operations that have an auth scheme are never batched.
+     *
+     * @return true if outbound event stream messages are batched. Defaults to false.
+     */
+    public boolean batchedEventStreams() {
+        return batchedEventStreams;
+    }
+
+    public void setBatchedEventStreams(boolean batchedEventStreams) {
+        this.batchedEventStreams = batchedEventStreams;
+    }
+
+    /**
+     * Returns whether event stream deserializers dispatch on the event type alone,
+     * returning unmodeled events without reading them, and skip parsing the bodies
+     * of events whose members are all bound to headers.
+     *
+     * @return true if events are dispatched by their type. Defaults to false.
+     */
+    public boolean eventTypeDispatch() {
+        return eventTypeDispatch;
+    }
+
+    public void setEventTypeDispatch(boolean eventTypeDispatch) {
+        this.eventTypeDispatch = eventTypeDispatch;
+    }
+
+    /**
+     * Returns whether generated server handlers accept an optional instrumentation that
+     * receives the time spent in each phase of handling a request.
+     *
+     * @return true if server handlers can be instrumented. Defaults to false.
+     */
+    public boolean serverInstrumentation() {
+        return serverInstrumentation;
+    }
+
+    public void setServerInstrumentation(boolean serverInstrumentation) {
+        this.serverInstrumentation = serverInstrumentation;
+    }
+
     /**
      * Gets the corresponding {@link ServiceShape} from a model.
      *
@@ -396,10 +739,18 @@ public final class TypeScriptSettings {
     public enum ArtifactType {
         CLIENT(SymbolVisitor::new,
                 Arrays.asList(PACKAGE, PACKAGE_DESCRIPTION, PACKAGE_JSON, PACKAGE_VERSION, PACKAGE_MANAGER,
-                              SERVICE, PROTOCOL, TARGET_NAMESPACE, PRIVATE)),
+                              SERVICE, PROTOCOL, TARGET_NAMESPACE, PRIVATE, CODEGEN_PARALLELISM,
+                              INCREMENTAL_CODEGEN_CACHE, COMPILE_ENDPOINT_RULE_SET, ENDPOINT_CACHE_SIZE,
+                              LAZY_OUTPUT, STREAMING_LIST_OUTPUT, SPECIALIZED_SERIALIZERS,
+                              CACHE_RESOLVED_MIDDLEWARE, LAZY_FILTER_SENSITIVE_LOG, ERROR_DISPATCH_TABLES,
+                              PREFETCHING_PAGINATORS, COMPILED_WAITER_MATCHERS, ADAPTIVE_WAITERS,
+                              BATCHED_EVENT_STREAMS, EVENT_TYPE_DISPATCH)),
         SSDK((m, s) -> new ServerSymbolVisitor(m, new SymbolVisitor(m, s)),
                 Arrays.asList(PACKAGE, PACKAGE_DESCRIPTION, PACKAGE_JSON, PACKAGE_VERSION, PACKAGE_MANAGER,
-                              SERVICE, PROTOCOL, TARGET_NAMESPACE, PRIVATE, DISABLE_DEFAULT_VALIDATION));
+                              SERVICE, PROTOCOL, TARGET_NAMESPACE, PRIVATE, DISABLE_DEFAULT_VALIDATION,
+                              CODEGEN_PARALLELISM, INCREMENTAL_CODEGEN_CACHE, COMPILE_ENDPOINT_RULE_SET,
+                              ENDPOINT_CACHE_SIZE, GENERATE_SERVICE_ROUTER, COMPILE_VALIDATORS,
+                              SPECIALIZED_SERIALIZERS, EVENT_TYPE_DISPATCH, SERVER_INSTRUMENTATION));
 
         private final BiFunction<Model, TypeScriptSettings, SymbolProvider> symbolProviderFactory;
         private final List<String> configProperties;
@@ -413,12 +764,15 @@ public final class TypeScriptSettings {
         /**
          * Creates a TypeScript symbol provider suited to the artifact type.
          *
+         * <p>The created provider caches the symbols it creates and is safe to
+         * share between threads.
+         *
          * @param model Model to generate symbols for.
          * @param settings Settings used by the symbol provider.
          * @return Returns the created provider.
          */
         public SymbolProvider createSymbolProvider(Model model, TypeScriptSettings settings) {
-            return symbolProviderFactory.apply(model, settings);
+            return new MemoizingSymbolProvider(symbolProviderFactory.apply(model, settings));
         }
     }
 
@@ -199,6 +199,36 @@ public final class TypeScriptWriter extends SymbolWriter<TypeScriptWriter, Impor
                && !Prelude.isPreludeShape(member.getTarget());
     }
 
+    /**
+     * Appends the contents, imports, and dependencies of a detached writer that
+     * generated code for the same module.
+     *
+     * @param other Writer to append to this writer.
+     * @return Returns the writer.
+     */
+    TypeScriptWriter append(TypeScriptWriter other) {
+        getImportContainer().addImports(other.getImportContainer());
+        other.getDependencies().forEach(this::addDependency);
+
+        String contents = other.getContents();
+        if (contents.endsWith("\n")) {
+            contents = contents.substring(0, contents.length() - 1);
+        }
+        if (!contents.isEmpty()) {
+            writeWithNoFormatting(contents);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the code written to the writer, without imports or attribution.
+     *
+     * @return Returns the written code.
+     */
+    String getContents() {
+        return super.toString();
+    }
+
     @Override
     public String toString() {
         String contents = super.toString();
@@ -134,6 +134,7 @@ final class UnionGenerator implements Runnable {
     private final UnionShape shape;
     private final Map<String, String> variantMap;
     private final boolean includeValidation;
+    private final boolean compileValidators;
 
     /**
      * sets 'includeValidation' to 'false' for backwards compatibility.
@@ -147,12 +148,33 @@ final class UnionGenerator implements Runnable {
                    TypeScriptWriter writer,
                    UnionShape shape,
                    boolean includeValidation) {
+        this(model, symbolProvider, writer, shape, includeValidation, false);
+    }
+
+    /**
+     * Creates a generator whose validation is configured by the settings.
+     */
+    UnionGenerator(Model model,
+                   SymbolProvider symbolProvider,
+                   TypeScriptWriter writer,
+                   UnionShape shape,
+                   TypeScriptSettings settings) {
+        this(model, symbolProvider, writer, shape, settings.generateServerSdk(), settings.compileValidators());
+    }
+
+    private UnionGenerator(Model model,
+                   SymbolProvider symbolProvider,
+                   TypeScriptWriter writer,
+                   UnionShape shape,
+                   boolean includeValidation,
+                   boolean compileValidators) {
         this.shape = shape;
         this.symbol = symbolProvider.toSymbol(shape);
         this.model = model;
         this.symbolProvider = symbolProvider;
         this.writer = writer;
         this.includeValidation = includeValidation;
+        this.compileValidators = compileValidators;
 
         variantMap = new TreeMap<>();
         for (MemberShape member : shape.getAllMembers().values()) {
@@ -266,6 +288,12 @@ final class UnionGenerator implements Runnable {
     }
 
     private void writeValidate() {
+        if (compileValidators) {
+            new CompiledValidatorWriter(model, symbolProvider, shape.getAllMembers().values())
+                    .writeValidateFunctions(writer, () -> writer.writeInline("$L", symbol.getName()));
+            return;
+        }
+
         StructuredMemberWriter structuredMemberWriter = new StructuredMemberWriter(
                 model, symbolProvider, shape.getAllMembers().values());
 
@@ -16,29 +16,26 @@
 package software.amazon.smithy.typescript.codegen;
 
 import java.nio.file.Paths;
-import java.util.Set;
-import java.util.TreeSet;
-import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.jmespath.JmespathExpression;
-import software.amazon.smithy.model.Model;
-import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyInternalApi;
 import software.amazon.smithy.waiters.Acceptor;
 import software.amazon.smithy.waiters.AcceptorState;
 import software.amazon.smithy.waiters.Matcher;
 import software.amazon.smithy.waiters.PathMatcher;
-import software.amazon.smithy.waiters.WaitableTrait;
 import software.amazon.smithy.waiters.Waiter;
 
 @SmithyInternalApi
 class WaiterGenerator implements Runnable {
     static final String WAITERS_FOLDER = "waiters";
     static final String WAITABLE_UTIL_PACKAGE = TypeScriptDependency.AWS_SDK_UTIL_WAITERS.packageName;
+    static final String ADAPTIVE_WAITER_FILE = Paths.get(CodegenUtils.SOURCE_FOLDER, WAITERS_FOLDER,
+            "adaptiveWaiter.ts").toString();
 
     private final String waiterName;
     private final Waiter waiter;
@@ -48,6 +45,10 @@ class WaiterGenerator implements Runnable {
     private final Symbol operationSymbol;
     private final Symbol inputSymbol;
 
+    // Shared path matchers, or null to evaluate path matchers inline.
+    private final WaiterMatcherGenerator matchers;
+    private final boolean adaptiveWaiters;
+
     WaiterGenerator(
             String waiterName,
             Waiter waiter,
@@ -55,9 +56,23 @@ class WaiterGenerator implements Runnable {
             OperationShape operation,
             TypeScriptWriter writer,
             SymbolProvider symbolProvider) {
+        this(waiterName, waiter, service, operation, writer, symbolProvider, null, false);
+    }
+
+    WaiterGenerator(
+            String waiterName,
+            Waiter waiter,
+            ServiceShape service,
+            OperationShape operation,
+            TypeScriptWriter writer,
+            SymbolProvider symbolProvider,
+            WaiterMatcherGenerator matchers,
+            boolean adaptiveWaiters) {
         this.waiterName = waiterName;
         this.waiter = waiter;
         this.writer = writer;
+        this.matchers = matchers;
+        this.adaptiveWaiters = adaptiveWaiters;
 
         this.operationSymbol = symbolProvider.toSymbol(operation);
         this.serviceSymbol = symbolProvider.toSymbol(service);
@@ -75,34 +90,64 @@ class WaiterGenerator implements Runnable {
         return Paths.get(CodegenUtils.SOURCE_FOLDER, WAITERS_FOLDER, "waitFor" + waiterName + ".ts").toString();
     }
 
-    private void generateWaiter() {
+    /**
+     * Writes the function that waiters use to poll with adaptive delays, and the
+     * configuration type that they accept.
+     *
+     * @param writer The writer for {@link #ADAPTIVE_WAITER_FILE}.
+     */
+    static void generateAdaptiveWaiter(TypeScriptWriter writer) {
+        writer.addDependency(TypeScriptDependency.AWS_SDK_UTIL_WAITERS);
+        writer.addImport("WaiterConfiguration", "WaiterConfiguration", WAITABLE_UTIL_PACKAGE);
+        writer.addImport("WaiterOptions", "WaiterOptions", WAITABLE_UTIL_PACKAGE);
+        writer.addImport("WaiterResult", "WaiterResult", WAITABLE_UTIL_PACKAGE);
+        writer.addImport("WaiterState", "WaiterState", WAITABLE_UTIL_PACKAGE);
+        // The source refers to the $response of errors, so it is written without formatting.
+        writer.writeWithNoFormatting(IoUtils.readUtf8Resource(WaiterGenerator.class, "adaptive-waiter.ts"));
+    }
 
-        writer.addImport("createWaiter", "createWaiter", WAITABLE_UTIL_PACKAGE);
+    private void generateWaiter() {
+        String createWaiter;
+        String configurationType;
+        if (adaptiveWaiters) {
+            String adaptiveWaiterModule = Paths.get(".", ADAPTIVE_WAITER_FILE.replace(".ts", "")).toString();
+            writer.addImport("createAdaptiveWaiter", "createAdaptiveWaiter", adaptiveWaiterModule);
+            writer.addImport("AdaptiveWaiterConfiguration", "AdaptiveWaiterConfiguration", adaptiveWaiterModule);
+            createWaiter = "createAdaptiveWaiter({...serviceDefaults, ...params}, input, \"" + waiterName
+                    + "\", checkState)";
+            configurationType = "AdaptiveWaiterConfiguration";
+        } else {
+            writer.addImport("createWaiter", "createWaiter", WAITABLE_UTIL_PACKAGE);
+            writer.addImport("WaiterConfiguration", "WaiterConfiguration", WAITABLE_UTIL_PACKAGE);
+            createWaiter = "createWaiter({...serviceDefaults, ...params}, input, checkState)";
+            configurationType = "WaiterConfiguration";
+        }
         writer.addImport("WaiterResult", "WaiterResult", WAITABLE_UTIL_PACKAGE);
         writer.addImport("WaiterState", "WaiterState", WAITABLE_UTIL_PACKAGE);
         writer.addImport("checkExceptions", "checkExceptions", WAITABLE_UTIL_PACKAGE);
-        writer.addImport("WaiterConfiguration", "WaiterConfiguration", WAITABLE_UTIL_PACKAGE);
 
         // generates (deprecated) WaitFor....
         writer.writeDocs(waiter.getDocumentation().orElse("") + " \n"
                 + " @deprecated Use waitUntil" + waiterName + " instead. "
                 + "waitFor" + waiterName + " does not throw error in non-success cases.");
-        writer.openBlock("export const waitFor$L = async (params: WaiterConfiguration<$T>, input: $T): "
-                + "Promise<WaiterResult> => {", "}", waiterName, serviceSymbol, inputSymbol, () -> {
+        writer.openBlock("export const waitFor$L = async (params: $L<$T>, input: $T): "
+                + "Promise<WaiterResult> => {", "}", waiterName, configurationType, serviceSymbol, inputSymbol,
+                () -> {
             writer.write("const serviceDefaults = { minDelay: $L, maxDelay: $L };", waiter.getMinDelay(),
                             waiter.getMaxDelay());
-            writer.write("return createWaiter({...serviceDefaults, ...params}, input, checkState);");
+            writer.write("return $L;", createWaiter);
         });
 
         // generates WaitUtil....
         writer.writeDocs(waiter.getDocumentation().orElse("") + " \n"
                 + " @param params - Waiter configuration options.\n"
                 + " @param input - The input to " + operationSymbol.getName() + " for polling.");
-        writer.openBlock("export const waitUntil$L = async (params: WaiterConfiguration<$T>, input: $T): "
-                + "Promise<WaiterResult> => {", "}", waiterName, serviceSymbol, inputSymbol, () -> {
+        writer.openBlock("export const waitUntil$L = async (params: $L<$T>, input: $T): "
+                + "Promise<WaiterResult> => {", "}", waiterName, configurationType, serviceSymbol, inputSymbol,
+                () -> {
             writer.write("const serviceDefaults = { minDelay: $L, maxDelay: $L };", waiter.getMinDelay(),
                     waiter.getMaxDelay());
-            writer.write("const result = await createWaiter({...serviceDefaults, ...params}, input, checkState);");
+            writer.write("const result = await $L;", createWaiter);
             writer.write("return checkExceptions(result);");
         });
     }
@@ -165,6 +210,15 @@ class WaiterGenerator implements Runnable {
     }
 
     private void generatePathMatcher(String accessor, PathMatcher pathMatcher, AcceptorState state) {
+        if (matchers != null) {
+            String matcherName = matchers.getMatcherName(pathMatcher);
+            writer.addImport(matcherName, matcherName,
+                    Paths.get(".", WaiterMatcherGenerator.MATCHERS_FILE.replace(".ts", "")).toString());
+            writer.openBlock("if ($L($L)) {", "}", matcherName, accessor, () -> {
+                writer.write("return $L;", makeWaiterResult(state));
+            });
+            return;
+        }
         writer.openBlock("try {", "} catch (e) {}", () -> {
             JmespathExpression expression = JmespathExpression.parse(pathMatcher.getPath());
             TypeScriptJmesPathVisitor expressionVisitor = new TypeScriptJmesPathVisitor(writer, accessor, expression);
@@ -200,35 +254,4 @@ class WaiterGenerator implements Runnable {
         }
         throw new CodegenException("Hit an invalid acceptor state to codegen " + resultantState.toString());
     }
-
-    private static String getModulePath(String fileLocation) {
-        return fileLocation.substring(
-            fileLocation.lastIndexOf("/") + 1,
-            fileLocation.length()
-        ).replace(".ts", "");
-    }
-
-    static void writeIndex(
-            Model model,
-            ServiceShape service,
-            FileManifest fileManifest
-    ) {
-        TypeScriptWriter writer = new TypeScriptWriter("");
-
-        TopDownIndex topDownIndex = TopDownIndex.of(model);
-        Set<OperationShape> containedOperations = new TreeSet<>(topDownIndex.getContainedOperations(service));
-        for (OperationShape operation : containedOperations) {
-            if (operation.hasTrait(WaitableTrait.ID)) {
-                WaitableTrait waitableTrait = operation.expectTrait(WaitableTrait.class);
-                waitableTrait.getWaiters().forEach((String waiterName, Waiter waiter) -> {
-                    String outputFilepath = WaiterGenerator.getOutputFileLocation(waiterName);
-                    writer.write("export * from \"./$L\"", getModulePath(outputFilepath));
-                });
-            }
-        }
-
-        fileManifest.writeFile(
-            Paths.get(CodegenUtils.SOURCE_FOLDER, WAITERS_FOLDER,  "index.ts").toString(),
-            writer.toString());
-    }
 }
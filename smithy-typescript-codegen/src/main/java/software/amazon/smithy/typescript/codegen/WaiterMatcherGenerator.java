@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.jmespath.JmespathExpression;
+import software.amazon.smithy.utils.SmithyInternalApi;
+import software.amazon.smithy.waiters.PathMatcher;
+
+/**
+ * Collects the path matchers of the waiters of a service and writes one function for
+ * each unique path, comparator, and expected value to a file shared by the waiters.
+ *
+ * <p>The functions are created once when the file is loaded instead of on every poll,
+ * and evaluate {@code allStringEquals} and {@code anyStringEquals} comparisons while
+ * iterating the projected elements, returning as soon as the result is known.
+ */
+@SmithyInternalApi
+final class WaiterMatcherGenerator {
+    static final String MATCHERS_FILE = Paths.get(CodegenUtils.SOURCE_FOLDER, WaiterGenerator.WAITERS_FOLDER,
+            "matchers.ts").toString();
+
+    private final Map<String, PathMatcher> matchers = new LinkedHashMap<>();
+    private final Map<String, String> matcherNames = new LinkedHashMap<>();
+
+    /**
+     * Gets the name of the function that evaluates the given path matcher, adding the
+     * function to the shared file if no other waiter uses the same matcher.
+     *
+     * @param pathMatcher The path matcher to evaluate.
+     * @return The name of the function exported by {@link #MATCHERS_FILE}.
+     */
+    String getMatcherName(PathMatcher pathMatcher) {
+        String key = pathMatcher.getComparator() + " " + pathMatcher.getExpected() + " " + pathMatcher.getPath();
+        return matcherNames.computeIfAbsent(key, k -> {
+            String name = "pathMatcher" + (matchers.size() + 1);
+            matchers.put(name, pathMatcher);
+            return name;
+        });
+    }
+
+    boolean hasMatchers() {
+        return !matchers.isEmpty();
+    }
+
+    /**
+     * Writes the functions of all the collected path matchers. Each function returns
+     * false when the path cannot be evaluated against the value it is given.
+     *
+     * @param writer The writer for {@link #MATCHERS_FILE}.
+     */
+    void generateMatchers(TypeScriptWriter writer) {
+        matchers.forEach((name, pathMatcher) -> {
+            writer.write("// $L $S: $L", pathMatcher.getComparator(), pathMatcher.getExpected(),
+                    pathMatcher.getPath());
+            writer.openBlock("export const $L = (value: any): boolean => {", "};", name, () -> {
+                writer.openBlock("try {", "} catch (e) {", () -> writeMatcher(writer, pathMatcher));
+                writer.indent().write("return false;").dedent();
+                writer.write("}");
+            });
+            writer.write("");
+        });
+    }
+
+    private void writeMatcher(TypeScriptWriter writer, PathMatcher pathMatcher) {
+        JmespathExpression expression = JmespathExpression.parse(pathMatcher.getPath());
+        TypeScriptJmesPathVisitor expressionVisitor = new TypeScriptJmesPathVisitor(writer, "value", expression);
+        switch (pathMatcher.getComparator()) {
+            case ALL_STRING_EQUALS:
+                expressionVisitor.writeAllStringEqualsMatcher(pathMatcher.getExpected());
+                break;
+            case ANY_STRING_EQUALS:
+                expressionVisitor.writeAnyStringEqualsMatcher(pathMatcher.getExpected());
+                break;
+            case STRING_EQUALS:
+                expressionVisitor.writeStringMatcher(pathMatcher.getExpected());
+                break;
+            case BOOLEAN_EQUALS:
+                expressionVisitor.writeBooleanMatcher(pathMatcher.getExpected());
+                break;
+            default:
+                throw new CodegenException("Invalid Matcher Comparator");
+        }
+    }
+}
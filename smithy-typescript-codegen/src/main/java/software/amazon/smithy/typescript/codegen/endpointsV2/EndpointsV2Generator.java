@@ -16,15 +16,24 @@
 package software.amazon.smithy.typescript.codegen.endpointsV2;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
 import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
 import software.amazon.smithy.rulesengine.traits.EndpointRuleSetTrait;
 import software.amazon.smithy.typescript.codegen.CodegenUtils;
 import software.amazon.smithy.typescript.codegen.TypeScriptDelegator;
 import software.amazon.smithy.typescript.codegen.TypeScriptDependency;
 import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -37,11 +46,16 @@ public final class EndpointsV2Generator implements Runnable {
     static final String ENDPOINT_PARAMETERS_FILE = "EndpointParameters.ts";
     static final String ENDPOINT_RESOLVER_FILE = "endpointResolver.ts";
     static final String ENDPOINT_RULESET_FILE = "ruleset.ts";
+    static final String ENDPOINT_FUNCTIONS_FILE = "endpointFunctions.ts";
+    static final String ENDPOINT_CACHE_FILE = "EndpointCache.ts";
+
+    private static final Logger LOGGER = Logger.getLogger(EndpointsV2Generator.class.getName());
 
     private final TypeScriptDelegator delegator;
     private final EndpointRuleSetTrait endpointRuleSetTrait;
     private final ServiceShape service;
     private final TypeScriptSettings settings;
+    private final Model model;
 
     public EndpointsV2Generator(
             TypeScriptDelegator delegator,
@@ -51,15 +65,37 @@ public final class EndpointsV2Generator implements Runnable {
         this.delegator = delegator;
         service = settings.getService(model);
         this.settings = settings;
+        this.model = model;
         endpointRuleSetTrait = service.getTrait(EndpointRuleSetTrait.class)
             .orElseThrow(() -> new RuntimeException("service missing EndpointRuleSetTrait"));
     }
 
     @Override
     public void run() {
+        if (settings.getEndpointCacheSize() > 0) {
+            generateEndpointCache();
+        }
         generateEndpointParameters();
-        generateEndpointResolver();
-        generateEndpointRuleset();
+        if (shouldCompileRuleSet()) {
+            generateEndpointFunctions();
+            generateCompiledEndpointResolver();
+        } else {
+            generateEndpointResolver();
+            generateEndpointRuleset();
+        }
+    }
+
+    private boolean shouldCompileRuleSet() {
+        if (!settings.compileEndpointRuleSet()) {
+            return false;
+        }
+        Set<String> unsupported = RuleSetCompiler.getUnsupportedFunctions(endpointRuleSetTrait.getRuleSet());
+        if (!unsupported.isEmpty()) {
+            LOGGER.warning(() -> "Interpreting the endpoint rule set of " + service.getId()
+                    + " because these functions cannot be compiled: " + unsupported);
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -85,6 +121,15 @@ public final class EndpointsV2Generator implements Runnable {
                         ruleSet.getObjectMember("parameters").ifPresent(parameters -> {
                             parameters.accept(new RuleSetParametersVisitor(writer, clientInputParams, true));
                         });
+                        if (settings.getEndpointCacheSize() > 0) {
+                            writer.addImport("EndpointV2", null, "@aws-sdk/types");
+                            writer.addImport("Logger", null, "@aws-sdk/types");
+                            writer.writeDocs("Maximum number of resolved endpoints the client caches. "
+                                + "Set to 0 to disable the cache.");
+                            writer.write("endpointCacheSize?: number;");
+                            writer.write("endpointProvider?: "
+                                + "(params: EndpointParameters, context?: { logger?: Logger }) => EndpointV2;");
+                        }
                     }
                 );
 
@@ -94,6 +139,10 @@ public final class EndpointsV2Generator implements Runnable {
                     "};",
                     () -> {
                         writer.write("defaultSigningName: string;");
+                        if (settings.getEndpointCacheSize() > 0) {
+                            writer.writeDocs("Cache of resolved endpoints, exposing its hit rate via getMetrics().");
+                            writer.write("endpointCache: EndpointCache;");
+                        }
                     }
                 );
                 writer.write("");
@@ -104,6 +153,9 @@ public final class EndpointsV2Generator implements Runnable {
                         + "): T & ClientResolvedEndpointParameters => {",
                     "}",
                     () -> {
+                        if (settings.getEndpointCacheSize() > 0) {
+                            writeEndpointCache(writer);
+                        }
                         writer.openBlock("return {", "}", () -> {
                             writer.write("...options,");
                             ObjectNode ruleSet = endpointRuleSetTrait.getRuleSet().expectObjectNode();
@@ -114,6 +166,11 @@ public final class EndpointsV2Generator implements Runnable {
                                 "defaultSigningName: \"$L\",",
                                 settings.getDefaultSigningName()
                             );
+                            if (settings.getEndpointCacheSize() > 0) {
+                                writer.write("endpointCache,");
+                                writer.write("...(options.endpointProvider && "
+                                    + "{ endpointProvider: endpointCache.wrap(options.endpointProvider) }),");
+                            }
                         });
                     }
                 );
@@ -133,6 +190,50 @@ public final class EndpointsV2Generator implements Runnable {
         );
     }
 
+    /**
+     * Writes the creation of the client's endpoint cache, keyed on every parameter
+     * that is not bound to an operation input member. Calls that set a parameter
+     * bound to an input member bypass the cache.
+     */
+    private void writeEndpointCache(TypeScriptWriter writer) {
+        writer.addImport("EndpointCache", null,
+            Paths.get(".", CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER,
+                ENDPOINT_CACHE_FILE.replace(".ts", "")).toString());
+
+        RuleSetParameterFinder ruleSetParameterFinder = new RuleSetParameterFinder(service);
+        Set<String> contextParams = new TreeSet<>();
+        for (OperationShape operation : TopDownIndex.of(model).getContainedOperations(service)) {
+            operation.getInput().flatMap(model::getShape).ifPresent(input -> {
+                contextParams.addAll(ruleSetParameterFinder.getContextParams(input).keySet());
+            });
+        }
+
+        List<String> keyParameters = new ArrayList<>();
+        ObjectNode ruleSet = endpointRuleSetTrait.getRuleSet().expectObjectNode();
+        ruleSet.getObjectMember("parameters").ifPresent(parameters -> {
+            for (String name : parameters.getStringMap().keySet()) {
+                if (!contextParams.contains(name)) {
+                    keyParameters.add("\"" + name + "\"");
+                }
+            }
+        });
+
+        writer.write("const endpointCache = new EndpointCache(options.endpointCacheSize ?? $L, [$L]);",
+            settings.getEndpointCacheSize(), String.join(", ", keyParameters));
+    }
+
+    /**
+     * Generate the cache of resolved endpoints.
+     */
+    private void generateEndpointCache() {
+        this.delegator.useFileWriter(
+            Paths.get(CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER, ENDPOINT_CACHE_FILE).toString(),
+            writer -> {
+                writer.write("$L", IoUtils.readUtf8Resource(getClass(), "endpoint-cache.ts"));
+            }
+        );
+    }
+
     /**
      * Generate the resolver function for this service.
      */
@@ -177,6 +278,43 @@ public final class EndpointsV2Generator implements Runnable {
         );
     }
 
+    /**
+     * Generate the resolver function for this service by compiling its rule set.
+     */
+    private void generateCompiledEndpointResolver() {
+        this.delegator.useFileWriter(
+            Paths.get(CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER, ENDPOINT_RESOLVER_FILE).toString(),
+            writer -> {
+                writer.addImport("EndpointV2", null, "@aws-sdk/types");
+                writer.addImport("Logger", null, "@aws-sdk/types");
+
+                writer.addDependency(TypeScriptDependency.AWS_SDK_UTIL_ENDPOINTS);
+                writer.addImport("EndpointParameters", null,
+                    Paths.get(".", CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER,
+                        ENDPOINT_PARAMETERS_FILE.replace(".ts", "")).toString());
+
+                new RuleSetCompiler(
+                    endpointRuleSetTrait.getRuleSet(),
+                    writer,
+                    Paths.get(".", CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER,
+                        ENDPOINT_FUNCTIONS_FILE.replace(".ts", "")).toString()
+                ).generate();
+            }
+        );
+    }
+
+    /**
+     * Generate the functions called by compiled resolvers.
+     */
+    private void generateEndpointFunctions() {
+        this.delegator.useFileWriter(
+            Paths.get(CodegenUtils.SOURCE_FOLDER, ENDPOINT_FOLDER, ENDPOINT_FUNCTIONS_FILE).toString(),
+            writer -> {
+                writer.write("$L", IoUtils.readUtf8Resource(getClass(), "endpoint-functions.ts"));
+            }
+        );
+    }
+
     /**
      * Generate the ruleset (dynamic resolution only).
      */
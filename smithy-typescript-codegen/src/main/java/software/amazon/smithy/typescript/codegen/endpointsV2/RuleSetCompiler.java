@@ -0,0 +1,429 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.endpointsV2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.utils.SetUtils;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Compiles an endpoint rule set to a TypeScript resolver function.
+ *
+ * <p>Rules become nested conditionals evaluated in rule set order, templates
+ * are parsed at generation time into template literals, and functions are
+ * either inlined or called directly, so resolving an endpoint no longer walks
+ * the rule set or parses templates at runtime. Only rule sets for which
+ * {@link #canCompile(Node)} returns true, because every function they use is
+ * inlined or provided by the runtime functions, can be compiled.
+ */
+@SmithyInternalApi
+public final class RuleSetCompiler {
+
+    /**
+     * Functions that compiled resolvers import from the endpoint functions file.
+     */
+    static final Set<String> RUNTIME_FUNCTIONS = SetUtils.of(
+            "isValidHostLabel", "parseURL", "substring", "uriEncode");
+
+    private static final Set<String> INLINED_FUNCTIONS = SetUtils.of(
+            "isSet", "not", "booleanEquals", "stringEquals", "getAttr");
+    private static final Set<String> BOOLEAN_FUNCTIONS = SetUtils.of(
+            "isSet", "not", "booleanEquals", "stringEquals", "isValidHostLabel");
+    private static final Set<String> COMPARISON_FUNCTIONS = SetUtils.of("isSet", "booleanEquals", "stringEquals");
+    private static final Set<String> NULLABLE_FUNCTIONS = SetUtils.of("parseURL", "substring", "uriEncode");
+    private static final Pattern IDENTIFIER = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*$");
+    private static final Set<String> RESERVED_IDENTIFIERS = SetUtils.of(
+            "break", "case", "catch", "class", "const", "continue", "debugger", "default", "delete", "do",
+            "else", "enum", "export", "extends", "false", "finally", "for", "function", "if", "import", "in",
+            "instanceof", "let", "new", "null", "return", "super", "switch", "this", "throw", "true", "try",
+            "typeof", "undefined", "var", "void", "while", "with", "yield", "await", "static",
+            "endpointParams", "context", "EndpointError", "URL", "isConditionMet",
+            "isValidHostLabel", "parseURL", "substring", "uriEncode");
+
+    private final ObjectNode ruleSet;
+    private final TypeScriptWriter writer;
+    private final String functionsModule;
+    private int conditionCount;
+
+    /**
+     * @param ruleSet Rule set to compile.
+     * @param writer Writer to write the resolver to.
+     * @param functionsModule Module that exports the runtime functions of compiled resolvers.
+     */
+    public RuleSetCompiler(Node ruleSet, TypeScriptWriter writer, String functionsModule) {
+        this.ruleSet = ruleSet.expectObjectNode();
+        this.writer = writer;
+        this.functionsModule = functionsModule;
+    }
+
+    /**
+     * Checks if every function used by a rule set can be compiled.
+     *
+     * @param ruleSet Rule set to check.
+     * @return Returns true if the rule set can be compiled.
+     */
+    public static boolean canCompile(Node ruleSet) {
+        return getUnsupportedFunctions(ruleSet).isEmpty();
+    }
+
+    /**
+     * Gets the functions used by a rule set that cannot be compiled.
+     *
+     * @param ruleSet Rule set to check.
+     * @return Returns the sorted names of the unsupported functions.
+     */
+    public static Set<String> getUnsupportedFunctions(Node ruleSet) {
+        Set<String> unsupported = new TreeSet<>();
+        collectUnsupportedFunctions(ruleSet, unsupported);
+        return unsupported;
+    }
+
+    private static void collectUnsupportedFunctions(Node node, Set<String> unsupported) {
+        if (node.isObjectNode()) {
+            ObjectNode objectNode = node.expectObjectNode();
+            objectNode.getStringMember("fn").map(StringNode::getValue).ifPresent(fn -> {
+                if (!INLINED_FUNCTIONS.contains(fn) && !RUNTIME_FUNCTIONS.contains(fn)) {
+                    unsupported.add(fn);
+                }
+            });
+            objectNode.getMembers().values().forEach(value -> collectUnsupportedFunctions(value, unsupported));
+        } else if (node.isArrayNode()) {
+            node.expectArrayNode().getElements().forEach(value -> collectUnsupportedFunctions(value, unsupported));
+        }
+    }
+
+    /**
+     * Writes the resolver function.
+     */
+    public void generate() {
+        Set<String> unsupported = getUnsupportedFunctions(ruleSet);
+        if (!unsupported.isEmpty()) {
+            throw new CodegenException("Cannot compile endpoint rule set functions: " + unsupported);
+        }
+
+        writer.addImport("EndpointError", null, "@aws-sdk/util-endpoints");
+        writer.openBlock(
+            "export const defaultEndpointResolver = "
+                + "(endpointParams: EndpointParameters, context: { logger?: Logger } = {}): EndpointV2 => {",
+            "};",
+            () -> {
+                writeParameters();
+                writeRules(ruleSet.expectArrayMember("rules"));
+                writer.write("throw new EndpointError($S);", "Rules evaluation failed");
+            }
+        );
+    }
+
+    private void writeParameters() {
+        Map<String, Node> parameters = ruleSet.getObjectMember("parameters")
+                .map(ObjectNode::getStringMap)
+                .orElse(Collections.emptyMap());
+
+        // Apply every default before checking required parameters, as the interpreter does.
+        parameters.forEach((name, parameter) -> {
+            String value = "endpointParams" + propertyAccess(name);
+            Node defaultValue = parameter.expectObjectNode().getMember("default").orElse(null);
+            if (defaultValue != null) {
+                value += " ?? " + literal(defaultValue);
+            }
+            writer.write("const $L = $L;", identifier(name), value);
+        });
+        parameters.forEach((name, parameter) -> {
+            if (parameter.expectObjectNode().getBooleanMemberOrDefault("required")) {
+                writer.openBlock("if ($L == null) {", "}", identifier(name), () -> {
+                    writer.write("throw new EndpointError($S);", "Missing required parameter: '" + name + "'");
+                });
+            }
+        });
+    }
+
+    private void writeRules(ArrayNode rules) {
+        for (ObjectNode rule : rules.getElementsAs(ObjectNode.class)) {
+            rule.getStringMember("documentation").ifPresent(documentation -> {
+                writer.write("// $L", documentation.getValue().replace('\n', ' '));
+            });
+            List<ObjectNode> conditions = rule.getArrayMember("conditions")
+                    .map(conditionsNode -> conditionsNode.getElementsAs(ObjectNode.class))
+                    .orElse(Collections.emptyList());
+            if (!conditions.isEmpty() && declaresVariable(conditions.get(0))) {
+                // Sibling rules often assign the same name, so each one is scoped to its own block.
+                writer.openBlock("{", "}", () -> writeConditions(conditions, 0, rule));
+            } else {
+                writeConditions(conditions, 0, rule);
+            }
+        }
+    }
+
+    private static boolean declaresVariable(ObjectNode condition) {
+        return condition.containsMember("assign")
+                || !BOOLEAN_FUNCTIONS.contains(condition.expectStringMember("fn").getValue());
+    }
+
+    private void writeConditions(List<ObjectNode> conditions, int index, ObjectNode rule) {
+        if (index == conditions.size()) {
+            writeRuleBody(rule);
+            return;
+        }
+
+        ObjectNode condition = conditions.get(index);
+        String fn = condition.expectStringMember("fn").getValue();
+        String expression = compileFunction(condition);
+        String assign = condition.getStringMember("assign").map(StringNode::getValue).orElse(null);
+
+        String test;
+        if (!declaresVariable(condition)) {
+            test = expression;
+        } else {
+            String variable = assign == null ? "__cond" + conditionCount++ : identifier(assign);
+            writer.write("const $L = $L;", variable, expression);
+            test = conditionTest(fn, variable);
+        }
+
+        // A condition with no nested rules or body still needs its block to scope assigned variables.
+        writer.openBlock("if ($L) {", "}", test, () -> writeConditions(conditions, index + 1, rule));
+    }
+
+    private String conditionTest(String fn, String variable) {
+        if (BOOLEAN_FUNCTIONS.contains(fn)) {
+            return variable;
+        } else if (NULLABLE_FUNCTIONS.contains(fn)) {
+            return variable + " != null";
+        }
+        // The interpreter treats empty strings as a satisfied condition.
+        writer.addImport("isConditionMet", null, functionsModule);
+        return "isConditionMet(" + variable + ")";
+    }
+
+    private void writeRuleBody(ObjectNode rule) {
+        String type = rule.expectStringMember("type").getValue();
+        switch (type) {
+            case "endpoint":
+                writeEndpoint(rule.expectObjectMember("endpoint"));
+                break;
+            case "error":
+                writer.write("throw new EndpointError($L);", compileExpression(rule.expectMember("error")));
+                break;
+            case "tree":
+                writeRules(rule.expectArrayMember("rules"));
+                // A tree rule whose conditions match is terminal, even if none of its rules match.
+                writer.write("throw new EndpointError($S);", "Rules evaluation failed");
+                break;
+            default:
+                throw new CodegenException("Unknown endpoint rule type: " + type);
+        }
+    }
+
+    private void writeEndpoint(ObjectNode endpoint) {
+        writer.openBlock("return {", "};", () -> {
+            endpoint.getObjectMember("headers").ifPresent(headers -> {
+                if (headers.isEmpty()) {
+                    writer.write("headers: {},");
+                    return;
+                }
+                writer.openBlock("headers: {", "},", () -> {
+                    headers.getStringMap().forEach((name, values) -> {
+                        List<String> compiled = new ArrayList<>();
+                        for (Node value : values.expectArrayNode().getElements()) {
+                            compiled.add(compileExpression(value));
+                        }
+                        writer.write("$L: [$L],", quote(name), String.join(", ", compiled));
+                    });
+                });
+            });
+            endpoint.getObjectMember("properties").ifPresent(properties -> {
+                writer.writeInline("properties: ");
+                writeProperty(properties);
+            });
+            writer.write("url: new URL($L),", compileExpression(endpoint.expectMember("url")));
+        });
+    }
+
+    private void writeProperty(Node property) {
+        if (property.isObjectNode() && property.expectObjectNode().isEmpty()) {
+            writer.write("{},");
+        } else if (property.isObjectNode()) {
+            writer.openBlock("{", "},", () -> {
+                property.expectObjectNode().getStringMap().forEach((name, value) -> {
+                    writer.writeInline("$L: ", quote(name));
+                    writeProperty(value);
+                });
+            });
+        } else if (property.isArrayNode()) {
+            writer.openBlock("[", "],", () -> {
+                property.expectArrayNode().getElements().forEach(this::writeProperty);
+            });
+        } else if (property.isStringNode()) {
+            writer.write("$L,", compileTemplate(property.expectStringNode().getValue()));
+        } else if (property.isBooleanNode()) {
+            writer.write("$L,", property.expectBooleanNode().getValue());
+        } else {
+            throw new CodegenException("Unexpected endpoint property: " + Node.printJson(property));
+        }
+    }
+
+    private String compileExpression(Node expression) {
+        if (expression.isStringNode()) {
+            return compileTemplate(expression.expectStringNode().getValue());
+        } else if (expression.isBooleanNode() || expression.isNumberNode()) {
+            return literal(expression);
+        }
+
+        ObjectNode objectNode = expression.expectObjectNode();
+        if (objectNode.containsMember("ref")) {
+            return identifier(objectNode.expectStringMember("ref").getValue());
+        }
+        String compiled = compileFunction(objectNode);
+        return COMPARISON_FUNCTIONS.contains(objectNode.expectStringMember("fn").getValue())
+                ? "(" + compiled + ")"
+                : compiled;
+    }
+
+    private String compileFunction(ObjectNode function) {
+        String fn = function.expectStringMember("fn").getValue();
+        List<Node> argv = function.expectArrayMember("argv").getElements();
+        switch (fn) {
+            case "isSet":
+                return compileExpression(argv.get(0)) + " != null";
+            case "not":
+                return "!" + compileExpression(argv.get(0));
+            case "booleanEquals":
+            case "stringEquals":
+                return compileExpression(argv.get(0)) + " === " + compileExpression(argv.get(1));
+            case "getAttr":
+                return compileExpression(argv.get(0)) + compilePath(argv.get(1).expectStringNode().getValue());
+            default:
+                writer.addImport(fn, null, functionsModule);
+                List<String> args = new ArrayList<>();
+                for (Node arg : argv) {
+                    args.add(compileExpression(arg));
+                }
+                return fn + "(" + String.join(", ", args) + ")";
+        }
+    }
+
+    /**
+     * Compiles a getAttr path such as "authSchemes[0].name" to optional property accesses.
+     */
+    private String compilePath(String path) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : path.split("\\.")) {
+            int bracket = part.indexOf('[');
+            if (bracket == -1) {
+                builder.append(optionalPropertyAccess(part));
+                continue;
+            }
+            if (!part.endsWith("]")) {
+                throw new CodegenException("Invalid getAttr path: " + path);
+            }
+            if (bracket != 0) {
+                builder.append(optionalPropertyAccess(part.substring(0, bracket)));
+            }
+            builder.append("?.[").append(Integer.parseInt(part.substring(bracket + 1, part.length() - 1))).append(']');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Compiles a rule set template string, e.g. "https://{Region}.{PartitionResult#dnsSuffix}",
+     * to a template literal.
+     */
+    private String compileTemplate(String template) {
+        StringBuilder literal = new StringBuilder();
+        List<String> parts = new ArrayList<>();
+        boolean hasPlaceholder = false;
+        int index = 0;
+        while (index < template.length()) {
+            int open = template.indexOf('{', index);
+            int close = open == -1 ? -1 : template.indexOf('}', open);
+            if (close == -1) {
+                literal.append(template.substring(index));
+                break;
+            }
+            literal.append(template, index, open);
+            if (template.startsWith("{{", open) && template.startsWith("}}", close)) {
+                // Escaped braces are written as-is.
+                literal.append(template, open + 1, close + 1);
+                index = close + 2;
+                continue;
+            }
+            String name = template.substring(open + 1, close);
+            int hash = name.indexOf('#');
+            String value = hash == -1
+                    ? identifier(name)
+                    : identifier(name.substring(0, hash)) + compilePath(name.substring(hash + 1));
+            parts.add(escapeTemplateLiteral(literal.toString()));
+            parts.add("${" + value + "}");
+            literal.setLength(0);
+            hasPlaceholder = true;
+            index = close + 1;
+        }
+
+        if (!hasPlaceholder) {
+            return quote(literal.toString());
+        }
+        parts.add(escapeTemplateLiteral(literal.toString()));
+        return "`" + String.join("", parts) + "`";
+    }
+
+    private static String escapeTemplateLiteral(String value) {
+        return value.replace("\\", "\\\\").replace("`", "\\`").replace("${", "\\${");
+    }
+
+    private static String literal(Node node) {
+        if (node.isStringNode()) {
+            return quote(node.expectStringNode().getValue());
+        } else if (node.isBooleanNode()) {
+            return String.valueOf(node.expectBooleanNode().getValue());
+        } else if (node.isNumberNode()) {
+            return node.expectNumberNode().getValue().toString();
+        }
+        throw new CodegenException("Unexpected endpoint rule set literal: " + Node.printJson(node));
+    }
+
+    private static String quote(String value) {
+        return Node.printJson(Node.from(value));
+    }
+
+    private static String propertyAccess(String name) {
+        return IDENTIFIER.matcher(name).matches() ? "." + name : "[" + quote(name) + "]";
+    }
+
+    private static String optionalPropertyAccess(String name) {
+        return IDENTIFIER.matcher(name).matches() ? "?." + name : "?.[" + quote(name) + "]";
+    }
+
+    /**
+     * Gets the local variable name of a rule set parameter or assigned value.
+     */
+    private static String identifier(String name) {
+        if (IDENTIFIER.matcher(name).matches() && !RESERVED_IDENTIFIERS.contains(name)) {
+            return name;
+        }
+        return "_" + name.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+}
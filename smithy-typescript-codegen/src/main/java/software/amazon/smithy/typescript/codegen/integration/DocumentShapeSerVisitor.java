@@ -15,15 +15,18 @@
 
 package software.amazon.smithy.typescript.codegen.integration;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.shapes.CollectionShape;
 import software.amazon.smithy.model.shapes.DocumentShape;
 import software.amazon.smithy.model.shapes.ListShape;
 import software.amazon.smithy.model.shapes.MapShape;
+import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ResourceShape;
 import software.amazon.smithy.model.shapes.ServiceShape;
@@ -32,6 +35,7 @@ import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeVisitor;
 import software.amazon.smithy.model.shapes.StructureShape;
 import software.amazon.smithy.model.shapes.UnionShape;
+import software.amazon.smithy.model.traits.IdempotencyTokenTrait;
 import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
 import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
 import software.amazon.smithy.utils.SmithyUnstableApi;
@@ -240,6 +244,35 @@ public abstract class DocumentShapeSerVisitor extends ShapeVisitor.Default<Void>
      */
     protected abstract void serializeStructure(GenerationContext context, StructureShape shape);
 
+    /**
+     * Gets the visitor that serializes the value of a structure member in specialized
+     * structure serializers.
+     *
+     * <p>Protocols whose documents are plain objects keyed by serialized member names
+     * may return a visitor to support the {@code specializedSerializers} setting. When
+     * a visitor is returned for every member of a structure, its serializer is written
+     * as a single object literal with one property per member, in member order, instead
+     * of by {@link #serializeStructure}. By default, no visitor is returned.
+     *
+     * @param member The member being serialized.
+     * @param dataSource The in-code location of the member value.
+     * @return The visitor to serialize the member value with, if supported.
+     */
+    protected Optional<DocumentMemberSerVisitor> getSpecializedMemberVisitor(MemberShape member, String dataSource) {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the name of the property a structure member is serialized to in specialized
+     * structure serializers.
+     *
+     * @param member The member being serialized.
+     * @return The serialized name of the member. Defaults to the member name.
+     */
+    protected String getSerializedMemberName(MemberShape member) {
+        return member.getMemberName();
+    }
+
     /**
      * Writes the code needed to serialize a union in the document of a request.
      *
@@ -493,10 +526,51 @@ public abstract class DocumentShapeSerVisitor extends ShapeVisitor.Default<Void>
      */
     @Override
     public final Void structureShape(StructureShape shape) {
-        generateSerFunction(shape, (c, s) -> serializeStructure(c, s.asStructureShape().get()));
+        if (isSpecialized(shape)) {
+            generateSerFunction(shape, (c, s) -> serializeSpecializedStructure(c, s.asStructureShape().get()));
+        } else {
+            generateSerFunction(shape, (c, s) -> serializeStructure(c, s.asStructureShape().get()));
+        }
         return null;
     }
 
+    private boolean isSpecialized(StructureShape shape) {
+        return context.getSettings().specializedSerializers()
+                && !shape.members().isEmpty()
+                && shape.members().stream().allMatch(member -> getSpecializedMemberVisitor(member, "").isPresent());
+    }
+
+    /**
+     * Writes a structure serializer that returns an object literal with a property for every
+     * member, so that every serialized value of the structure has the same shape. Members
+     * that are not set are serialized as undefined, which documents leave out.
+     */
+    private void serializeSpecializedStructure(GenerationContext context, StructureShape shape) {
+        TypeScriptWriter writer = context.getWriter();
+        Model model = context.getModel();
+        writer.openBlock("return {", "};", () -> {
+            for (MemberShape member : shape.members()) {
+                String memberName = context.getSymbolProvider().toMemberName(member);
+                String propertyName = getSerializedMemberName(member);
+                Shape target = model.expectShape(member.getTarget());
+                String dataSource = "input." + memberName;
+                if (member.hasTrait(IdempotencyTokenTrait.class)) {
+                    writer.addImport("v4", "generateIdempotencyToken", "uuid");
+                    String tokenSource = "(" + dataSource + " ?? generateIdempotencyToken())";
+                    writer.write("$S: $L,", propertyName,
+                            target.accept(getSpecializedMemberVisitor(member, tokenSource).get()));
+                } else {
+                    String value = target.accept(getSpecializedMemberVisitor(member, dataSource).get());
+                    if (value.equals(dataSource)) {
+                        writer.write("$S: $L ?? undefined,", propertyName, dataSource);
+                    } else {
+                        writer.write("$S: $L != null ? $L : undefined,", propertyName, dataSource, value);
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Dispatches to create the body of union shape serialization functions.
      * The function signature will be generated.
@@ -26,6 +26,7 @@ import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.knowledge.EventStreamIndex;
 import software.amazon.smithy.model.knowledge.EventStreamInfo;
+import software.amazon.smithy.model.knowledge.ServiceIndex;
 import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.BlobShape;
 import software.amazon.smithy.model.shapes.MemberShape;
@@ -42,6 +43,7 @@ import software.amazon.smithy.model.traits.StreamingTrait;
 import software.amazon.smithy.typescript.codegen.TypeScriptDependency;
 import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
 import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 
 /**
@@ -101,11 +103,15 @@ public class EventStreamGenerator {
         TopDownIndex topDownIndex = TopDownIndex.of(model);
         Set<OperationShape> operations = topDownIndex.getContainedOperations(service);
         TreeSet<UnionShape> eventUnionsToSerialize = new TreeSet<>();
+        TreeSet<UnionShape> signedEventUnions = new TreeSet<>();
         TreeSet<StructureShape> eventShapesToMarshall = new TreeSet<>();
         for (OperationShape operation : operations) {
             if (hasEventStreamInput(context, operation)) {
                 UnionShape eventsUnion = getEventStreamInputShape(context, operation);
                 eventUnionsToSerialize.add(eventsUnion);
+                if (!ServiceIndex.of(model).getEffectiveAuthSchemes(service, operation).isEmpty()) {
+                    signedEventUnions.add(eventsUnion);
+                }
                 Set<StructureShape> eventShapes = eventsUnion.members().stream()
                         .map(member -> model.expectShape(member.getTarget()).asStructureShape().get())
                         .collect(Collectors.toSet());
@@ -113,8 +119,16 @@ public class EventStreamGenerator {
             }
         }
 
+        // Signers of event streams sign each message they are given, so a batch would be
+        // signed as a single message. Only streams of operations without auth are batched.
+        boolean batchMessages = isBatchingEventMessages(context);
+        if (batchMessages && !signedEventUnions.containsAll(eventUnionsToSerialize)) {
+            context.getWriter().write(IoUtils.readUtf8Resource(EventStreamGenerator.class,
+                    "event-stream-batching.ts"));
+        }
         eventUnionsToSerialize.forEach(eventsUnion -> {
-            generateEventStreamSerializer(context, eventsUnion);
+            generateEventStreamSerializer(context, eventsUnion,
+                    batchMessages && !signedEventUnions.contains(eventsUnion));
         });
         eventShapesToMarshall.forEach(event -> {
             generateEventMarshaller(
@@ -175,7 +189,15 @@ public class EventStreamGenerator {
         });
     }
 
-    private void generateEventStreamSerializer(GenerationContext context, UnionShape eventsUnion) {
+    private boolean isBatchingEventMessages(GenerationContext context) {
+        return context.getSettings().generateClient() && context.getSettings().batchedEventStreams();
+    }
+
+    private void generateEventStreamSerializer(
+        GenerationContext context,
+        UnionShape eventsUnion,
+        boolean batchMessages
+    ) {
         String methodName = getSerFunctionName(context, eventsUnion);
         Symbol eventsUnionSymbol = getSymbol(context, eventsUnion);
         TypeScriptWriter writer = context.getWriter();
@@ -194,7 +216,12 @@ public class EventStreamGenerator {
                         });
                         writer.write("_: value => value as any");
                     });
-            writer.write("return context.eventStreamMarshaller.serialize(input, eventMarshallingVisitor);");
+            if (batchMessages) {
+                writer.write("return batchEventMessages(context.eventStreamMarshaller.serialize(input, "
+                        + "eventMarshallingVisitor));");
+            } else {
+                writer.write("return context.eventStreamMarshaller.serialize(input, eventMarshallingVisitor);");
+            }
         });
     }
 
@@ -236,20 +263,26 @@ public class EventStreamGenerator {
         Symbol symbol = getSymbol(context, event);
         TypeScriptWriter writer = context.getWriter();
         writer.addImport("MessageHeaders", "__MessageHeaders", TypeScriptDependency.AWS_SDK_TYPES.packageName);
+        // The headers required by event stream are the same for every event of a type, so they
+        // are created once and only copied for events that have header members.
+        String headersTemplateName = methodName + "Headers";
+        writer.openBlock("const $L: __MessageHeaders = {", "};", headersTemplateName, () -> {
+            writer.write("\":event-type\": { type: \"string\", value: $S },", symbol.getName());
+            writer.write("\":message-type\": { type: \"string\", value: \"event\" },");
+            writeEventContentTypeHeader(context, event, documentContentType);
+        });
         writer.openBlock("const $L = (\n"
                 + "  input: $T,\n"
                 + "  context: __SerdeContext\n"
                 + "): __Message => {", "}", methodName, symbol, () -> {
-            writer.openBlock("const headers: __MessageHeaders = {", "}", () -> {
-                //fix headers required by event stream
-                writer.write("\":event-type\": { type: \"string\", value: $S },", symbol.getName());
-                writer.write("\":message-type\": { type: \"string\", value: \"event\" },");
-                writeEventContentTypeHeader(context, event, documentContentType);
-            });
-            writeEventHeaders(context, event);
+            if (event.getAllMembers().values().stream().anyMatch(member -> member.hasTrait(EventHeaderTrait.class))) {
+                writer.write("const headers: __MessageHeaders = { ...$L };", headersTemplateName);
+                writeEventHeaders(context, event);
+            } else {
+                writer.write("const headers = $L;", headersTemplateName);
+            }
             writeEventBody(context, event, serializeInputEventDocumentPayload,
                     documentShapesToSerialize);
-            writer.openBlock("return { headers, body };");
         });
     }
 
@@ -336,26 +369,27 @@ public class EventStreamGenerator {
     ) {
         TypeScriptWriter writer = context.getWriter();
         Optional<MemberShape> payloadMemberOptional = getEventPayloadMember(event);
-        writer.write("let body = new Uint8Array();");
         if (payloadMemberOptional.isPresent()) {
             Shape payloadShape = context.getModel().expectShape(payloadMemberOptional.get().getTarget());
             String payloadMemberName = payloadMemberOptional.get().getMemberName();
+            writer.write("let body: any;");
             writer.openBlock("if (input.$L != null) {", "}", payloadMemberName, () -> {
                 if (payloadShape instanceof BlobShape) {
                     writer.write("body = input.$L;", payloadMemberName);
                 } else if (payloadShape instanceof StringShape) {
                     writer.write("body = context.utf8Decoder(input.$L);", payloadMemberName);
-                } else if (payloadShape instanceof BlobShape || payloadShape instanceof StringShape) {
+                } else if (payloadShape instanceof StructureShape || payloadShape instanceof UnionShape) {
                     Symbol symbol = getSymbol(context, payloadShape);
                     String serFunctionName = ProtocolGenerator.getSerFunctionName(symbol, context.getProtocolName());
                     documentShapesToSerialize.add(payloadShape);
-                    writer.write("body = $L(input.$L, context);", payloadMemberName, serFunctionName);
+                    writer.write("body = $L(input.$L, context);", serFunctionName, payloadMemberName);
                     serializeInputEventDocumentPayload.run();
                 } else {
                     throw new CodegenException(String.format("Unexpected shape type bound to event payload: `%s`",
                         payloadShape.getType()));
                 }
             });
+            writer.write("return { headers, body: body ?? new Uint8Array() };");
         } else {
             // remove the input parameters that already serialized into event headers
             for (MemberShape memberShape : event.members()) {
@@ -366,8 +400,9 @@ public class EventStreamGenerator {
             Symbol symbol = getSymbol(context, event);
             String serFunctionName = ProtocolGenerator.getSerFunctionName(symbol, context.getProtocolName());
             documentShapesToSerialize.add(event);
-            writer.write("body = $L(input, context);", serFunctionName);
+            writer.write("let body: any = $L(input, context);", serFunctionName);
             serializeInputEventDocumentPayload.run();
+            writer.write("return { headers, body };");
         }
     }
 
@@ -383,6 +418,10 @@ public class EventStreamGenerator {
                 + "): AsyncIterable<$T> => {", "}", methodName, contextType, eventsUnionSymbol, () -> {
             writer.openBlock("return context.eventStreamMarshaller.deserialize(", ");", () -> {
                 writer.write("output,");
+                if (context.getSettings().eventTypeDispatch()) {
+                    writeEventTypeDispatch(context, eventsUnion);
+                    return;
+                }
                 writer.openBlock("async event => {", "}", () -> {
                     eventsUnion.getAllMembers().forEach((name, member) -> {
                         StructureShape event = model.expectShape(member.getTarget(), StructureShape.class);
@@ -399,6 +438,30 @@ public class EventStreamGenerator {
         });
     }
 
+    // Writes a deserializer that selects the event unmarshaller from the event type that the
+    // marshaller read from the message headers, and returns unmodeled events without reading them.
+    private void writeEventTypeDispatch(GenerationContext context, UnionShape eventsUnion) {
+        TypeScriptWriter writer = context.getWriter();
+        Model model = context.getModel();
+        writer.openBlock("async event => {", "}", () -> {
+            writer.write("const eventType = Object.keys(event)[0];");
+            writer.openBlock("switch (eventType) {", "}", () -> {
+                eventsUnion.getAllMembers().forEach((name, member) -> {
+                    StructureShape event = model.expectShape(member.getTarget(), StructureShape.class);
+                    writer.write("case $S:", name);
+                    writer.indent();
+                    writer.write("return { $1L: await $2L(event[$1S], context) };", name,
+                            getEventDeserFunctionName(context, event));
+                    writer.dedent();
+                });
+                writer.write("default:");
+                writer.indent();
+                writer.write("return { $$unknown: [eventType, event[eventType]] };");
+                writer.dedent();
+            });
+        });
+    }
+
     private String getDeserFunctionName(GenerationContext context, Shape shape) {
         Symbol symbol = getSymbol(context, shape);
         String protocolName = context.getProtocolName();
@@ -493,6 +556,10 @@ public class EventStreamGenerator {
                 writer.write("contents.$L = $L(data, context);", payloadMemberName, deserFunctionName);
                 eventShapesToDeserialize.add(payloadShape);
             }
+        } else if (context.getSettings().eventTypeDispatch()
+                && event.members().stream().allMatch(member -> member.hasTrait(EventHeaderTrait.class))) {
+            // Every member was read from the headers, so the body is not parsed.
+            return;
         } else {
             writer.write("const data: any = await parseBody(output.body, context);");
             Symbol symbol = getSymbol(context, event);
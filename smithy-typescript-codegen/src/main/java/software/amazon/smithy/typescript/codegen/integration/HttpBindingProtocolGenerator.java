@@ -40,6 +40,8 @@ import software.amazon.smithy.model.knowledge.HttpBinding;
 import software.amazon.smithy.model.knowledge.HttpBinding.Location;
 import software.amazon.smithy.model.knowledge.HttpBindingIndex;
 import software.amazon.smithy.model.knowledge.OperationIndex;
+import software.amazon.smithy.model.knowledge.PaginatedIndex;
+import software.amazon.smithy.model.knowledge.PaginationInfo;
 import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.pattern.SmithyPattern.Segment;
 import software.amazon.smithy.model.shapes.BlobShape;
@@ -48,6 +50,7 @@ import software.amazon.smithy.model.shapes.CollectionShape;
 import software.amazon.smithy.model.shapes.DocumentShape;
 import software.amazon.smithy.model.shapes.DoubleShape;
 import software.amazon.smithy.model.shapes.FloatShape;
+import software.amazon.smithy.model.shapes.ListShape;
 import software.amazon.smithy.model.shapes.MapShape;
 import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.NumberShape;
@@ -65,7 +68,9 @@ import software.amazon.smithy.model.traits.HttpErrorTrait;
 import software.amazon.smithy.model.traits.HttpQueryTrait;
 import software.amazon.smithy.model.traits.HttpTrait;
 import software.amazon.smithy.model.traits.IdempotencyTokenTrait;
+import software.amazon.smithy.model.traits.JsonNameTrait;
 import software.amazon.smithy.model.traits.MediaTypeTrait;
+import software.amazon.smithy.model.traits.SparseTrait;
 import software.amazon.smithy.model.traits.StreamingTrait;
 import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
 import software.amazon.smithy.rulesengine.traits.EndpointRuleSetTrait;
@@ -193,9 +198,24 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
         HttpProtocolGeneratorUtils.generateMetadataDeserializer(context, getApplicationProtocol().getResponseType());
         HttpProtocolGeneratorUtils.generateCollectBody(context);
         HttpProtocolGeneratorUtils.generateCollectBodyString(context);
+        if (isLazyOutput(context)) {
+            HttpProtocolGeneratorUtils.generateDefineLazyMember(context);
+        }
+        if (isStreamingListOutput(context)) {
+            HttpProtocolGeneratorUtils.generateParseBodyWithItems(context);
+        }
         HttpProtocolGeneratorUtils.generateHttpBindingUtils(context);
     }
 
+    private static boolean isLazyOutput(GenerationContext context) {
+        return context.getSettings().generateClient() && context.getSettings().lazyOutput();
+    }
+
+    private boolean isStreamingListOutput(GenerationContext context) {
+        return context.getSettings().generateClient() && context.getSettings().streamingListOutput()
+                && getDocumentContentType().equals("application/json");
+    }
+
     @Override
     public void generateRequestSerializers(GenerationContext context) {
         TopDownIndex topDownIndex = TopDownIndex.of(context.getModel());
@@ -278,6 +298,11 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
     }
 
     private void generateServiceMux(GenerationContext context) {
+        if (context.getSettings().generateServiceRouter()) {
+            new ServiceRouterGenerator(context).run();
+            return;
+        }
+
         TopDownIndex topDownIndex = TopDownIndex.of(context.getModel());
         TypeScriptWriter writer = context.getWriter();
 
@@ -381,16 +406,17 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
         Symbol serviceSymbol = symbolProvider.toSymbol(context.getService());
         Symbol handlerSymbol = serviceSymbol.expectProperty("handler", Symbol.class);
         Symbol operationsSymbol = serviceSymbol.expectProperty("operations", Symbol.class);
+        String instrumentation = getHandlerInstrumentation(context);
 
         if (context.getSettings().isDisableDefaultValidation()) {
             writer.write("export const get$L = <Context>(service: $T<Context>, "
-                            + "customizer: __ValidationCustomizer<$T>): "
+                            + "customizer: __ValidationCustomizer<$T>$L): "
                             + "__ServiceHandler<Context, __HttpRequest, __HttpResponse> => {",
-                    handlerSymbol.getName(), serviceSymbol, operationsSymbol);
+                    handlerSymbol.getName(), serviceSymbol, operationsSymbol, instrumentation);
         } else {
-            writer.write("export const get$L = <Context>(service: $T<Context>): "
+            writer.write("export const get$L = <Context>(service: $T<Context>$L): "
                             + "__ServiceHandler<Context, __HttpRequest, __HttpResponse> => {",
-                    handlerSymbol.getName(), serviceSymbol);
+                    handlerSymbol.getName(), serviceSymbol, instrumentation);
         }
         writer.indent();
 
@@ -416,7 +442,8 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
             );
         }
 
-        writer.write("return new $T(service, mux, serFn, serializeFrameworkException, customizer);", handlerSymbol);
+        writer.write("return new $T(service, mux, serFn, serializeFrameworkException, customizer$L);",
+                handlerSymbol, instrumentation.isEmpty() ? "" : ", instrumentation");
 
         writer.dedent().write("}");
     }
@@ -437,16 +464,18 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
         final Symbol outputType = operationSymbol.expectProperty("outputType", Symbol.class);
         final Symbol serializerType = operationSymbol.expectProperty("serializerType", Symbol.class);
         final Symbol operationHandlerSymbol = operationSymbol.expectProperty("handler", Symbol.class);
+        final String instrumentation = getHandlerInstrumentation(context);
 
         if (context.getSettings().isDisableDefaultValidation()) {
             writer.write("export const get$L = <Context>(operation: __Operation<$T, $T, Context>, "
-                            + "customizer: __ValidationCustomizer<$S>): "
+                            + "customizer: __ValidationCustomizer<$S>$L): "
                             + "__ServiceHandler<Context, __HttpRequest, __HttpResponse> => {",
-                    operationHandlerSymbol.getName(), inputType, outputType, operationSymbol.getName());
+                    operationHandlerSymbol.getName(), inputType, outputType, operationSymbol.getName(),
+                    instrumentation);
         } else {
-            writer.write("export const get$L = <Context>(operation: __Operation<$T, $T, Context>): "
+            writer.write("export const get$L = <Context>(operation: __Operation<$T, $T, Context>$L): "
                             + "__ServiceHandler<Context, __HttpRequest, __HttpResponse> => {",
-                    operationHandlerSymbol.getName(), inputType, outputType);
+                    operationHandlerSymbol.getName(), inputType, outputType, instrumentation);
         }
         writer.indent();
 
@@ -462,12 +491,23 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
                 }
             );
         }
-        writer.write("return new $T(operation, mux, new $T(), serializeFrameworkException, customizer);",
-                operationHandlerSymbol, serializerType);
+        writer.write("return new $T(operation, mux, new $T(), serializeFrameworkException, customizer$L);",
+                operationHandlerSymbol, serializerType, instrumentation.isEmpty() ? "" : ", instrumentation");
 
         writer.dedent().write("}");
     }
 
+    // Returns the instrumentation parameter of handler factories, which is only generated
+    // when the server handlers are instrumented.
+    private String getHandlerInstrumentation(GenerationContext context) {
+        if (!context.getSettings().serverInstrumentation()) {
+            return "";
+        }
+        context.getWriter().addImport("HandlerInstrumentation", "__HandlerInstrumentation",
+                Paths.get(".", CodegenUtils.SOURCE_FOLDER, "server", "instrumentation").toString());
+        return ", instrumentation?: __HandlerInstrumentation";
+    }
+
     private void writeDefaultValidationCustomizer(TypeScriptWriter writer) {
         writer.openBlock("if (!failures) {", "}", () -> {
             writer.write("return undefined;");
@@ -2294,15 +2334,34 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
             // If the response has document bindings, the body can be parsed to a JavaScript object.
             writer.addImport("expectObject", "__expectObject", "@aws-sdk/smithy-client");
             writer.addImport("expectNonNull", "__expectNonNull", "@aws-sdk/smithy-client");
+            HttpBinding itemsBinding = isInput ? getStreamedItemsBinding(context, operationOrError) : null;
             String bodyLocation = "(__expectObject(await parseBody(output.body, context)))";
             // Use the protocol specific error location for retrieving contents.
-            if (operationOrError instanceof StructureShape) {
+            if (itemsBinding != null) {
+                bodyLocation = getParsedBodyWithItems(context, itemsBinding);
+            } else if (operationOrError instanceof StructureShape) {
                 bodyLocation = getErrorBodyLocation(context, bodyLocation);
             }
             writer.write("const data: Record<string, any> = __expectNonNull($L, $S);", bodyLocation, "body");
 
             if (isInput) {
-                deserializeInputDocumentBody(context, operationOrError.asOperationShape().get(), documentBindings);
+                OperationShape operation = operationOrError.asOperationShape().get();
+                List<HttpBinding> deserializedBindings = documentBindings.stream()
+                        .filter(binding -> itemsBinding == null
+                                || !binding.getMember().equals(itemsBinding.getMember()))
+                        .collect(Collectors.toList());
+                if (isLazyOutput(context)) {
+                    writeLazyDocumentMembers(context, operation, deserializedBindings);
+                } else if (!deserializedBindings.isEmpty()) {
+                    deserializeInputDocumentBody(context, operation, deserializedBindings);
+                }
+                if (itemsBinding != null) {
+                    String serializedName = getJsonName(itemsBinding);
+                    writer.openBlock("if (data[$S] != null) {", "}", serializedName, () -> {
+                        writer.write("contents.$L = data[$S];",
+                                symbolProvider.toMemberName(itemsBinding.getMember()), serializedName);
+                    });
+                }
             } else if (operationOrError.isOperationShape()) {
                 deserializeOutputDocumentBody(context, operationOrError.asOperationShape().get(), documentBindings);
             } else {
@@ -2348,6 +2407,78 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
         return ListUtils.of();
     }
 
+    /**
+     * Gets the binding of the paginated list of an operation's output if its elements
+     * are deserialized while the response body is parsed.
+     *
+     * <p>Only top-level lists of structures that are not sparse are parsed this way.
+     *
+     * @return Returns the binding, or null if the body is parsed whole.
+     */
+    private HttpBinding getStreamedItemsBinding(GenerationContext context, Shape operation) {
+        if (!isStreamingListOutput(context) || !operation.isOperationShape()) {
+            return null;
+        }
+        Model model = context.getModel();
+        Optional<PaginationInfo> paginationInfo = PaginatedIndex.of(model)
+                .getPaginationInfo(context.getService(), operation.asOperationShape().get());
+        if (!paginationInfo.isPresent() || paginationInfo.get().getItemsMemberPath().size() != 1) {
+            return null;
+        }
+
+        MemberShape itemsMember = paginationInfo.get().getItemsMemberPath().get(0);
+        Shape target = model.expectShape(itemsMember.getTarget());
+        if (!(target instanceof ListShape) || target.hasTrait(SparseTrait.class)
+                || !model.expectShape(((ListShape) target).getMember().getTarget()).isStructureShape()) {
+            return null;
+        }
+        return HttpBindingIndex.of(model).getResponseBindings(operation, Location.DOCUMENT).stream()
+                .filter(binding -> binding.getMember().equals(itemsMember))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String getParsedBodyWithItems(GenerationContext context, HttpBinding itemsBinding) {
+        ListShape target = context.getModel().expectShape(itemsBinding.getMember().getTarget(), ListShape.class);
+        Shape itemShape = context.getModel().expectShape(target.getMember().getTarget());
+        deserializingDocumentShapes.add(itemShape);
+        String itemDeserializer = ProtocolGenerator.getDeserFunctionName(
+                context.getSymbolProvider().toSymbol(itemShape), getName());
+        return context.getWriter().format("(__expectObject(await parseBodyWithItems(output.body, context, $S, "
+                + "(item: any) => $L(item, context))))", getJsonName(itemsBinding), itemDeserializer);
+    }
+
+    private static String getJsonName(HttpBinding binding) {
+        return binding.getMember().getTrait(JsonNameTrait.class)
+                .map(JsonNameTrait::getValue)
+                .orElse(binding.getMemberName());
+    }
+
+    /**
+     * Writes each document member as a member of {@code contents} that is deserialized
+     * from the parsed document the first time it is read.
+     *
+     * <p>The deserialization of each member is written by the protocol into a getter
+     * with its own {@code contents} variable, so that protocols are unaware of it.
+     * Only top-level members are deferred, since the values nested in them are
+     * deserialized by the protocol's shape deserializers.
+     */
+    private void writeLazyDocumentMembers(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        TypeScriptWriter writer = context.getWriter();
+        for (HttpBinding binding : documentBindings) {
+            String memberName = context.getSymbolProvider().toMemberName(binding.getMember());
+            writer.openBlock("defineLazyMember(contents, $S, () => {", "});", memberName, () -> {
+                writer.write("const contents: any = {};");
+                deserializeInputDocumentBody(context, operation, Collections.singletonList(binding));
+                writer.write("return contents[$S];", memberName);
+            });
+        }
+    }
+
     private HttpBinding readPayload(
             GenerationContext context,
             HttpBinding binding
@@ -2360,10 +2491,17 @@ public abstract class HttpBindingProtocolGenerator implements ProtocolGenerator
 
         // Handle streaming shapes differently.
         if (target.hasTrait(StreamingTrait.class)) {
-            writer.write("const data: any = output.body;");
-            // If payload is streaming blob, return low-level stream with the stream utility functions mixin.
-            if (isClientSdk && target instanceof BlobShape) {
-                writer.write("context.sdkStreamMixin(data);");
+            if (isClientSdk) {
+                writer.write("const data: any = output.body;");
+                // If payload is streaming blob, return low-level stream with the stream utility functions mixin.
+                if (target instanceof BlobShape) {
+                    writer.write("context.sdkStreamMixin(data);");
+                }
+            } else {
+                // Adapters such as the API Gateway one pass fully buffered bodies as a Uint8Array.
+                writer.addImport("Readable", "__Readable", "stream");
+                writer.write("const data: any = output.body instanceof Uint8Array ? "
+                        + "__Readable.from([output.body]) : output.body;");
             }
         } else if (target instanceof BlobShape) {
             // If payload is non-streaming Blob, only need to collect stream to binary data (Uint8Array).
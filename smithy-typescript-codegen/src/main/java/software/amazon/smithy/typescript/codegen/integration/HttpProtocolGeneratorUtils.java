@@ -269,6 +269,43 @@ public final class HttpProtocolGeneratorUtils {
         writer.write("");
     }
 
+    /**
+     * Writes a function that defines a member of an object whose value is computed
+     * the first time it is read. Once read, or assigned, the member becomes a plain
+     * property, and members whose value is undefined are removed.
+     *
+     * @param context The generation context
+     */
+    static void generateDefineLazyMember(GenerationContext context) {
+        TypeScriptWriter writer = context.getWriter();
+
+        writer.write("// Define a member that is deserialized the first time it is read.");
+        writer.openBlock("const defineLazyMember = (contents: any, name: string, deserialize: () => any): void => {",
+                "};", () -> {
+            writer.openBlock("const setValue = (value: any): void => {", "};", () -> {
+                writer.openBlock("if (value === undefined) {", "} else {", () -> {
+                    writer.write("delete contents[name];");
+                });
+                writer.indent();
+                writer.write("Object.defineProperty(contents, name, "
+                        + "{ value, writable: true, enumerable: true, configurable: true });");
+                writer.dedent().write("}");
+            });
+            writer.openBlock("Object.defineProperty(contents, name, {", "});", () -> {
+                writer.openBlock("get: () => {", "},", () -> {
+                    writer.write("const value = deserialize();");
+                    writer.write("setValue(value);");
+                    writer.write("return value;");
+                });
+                writer.write("set: setValue,");
+                writer.write("enumerable: true,");
+                writer.write("configurable: true,");
+            });
+        });
+
+        writer.write("");
+    }
+
     /**
      * Writes a function converting the low-level response body stream to utf-8 encoded string. It depends on
      * response body stream collector {@link #generateCollectBody(GenerationContext)}.
@@ -285,6 +322,20 @@ public final class HttpProtocolGeneratorUtils {
         writer.write("");
     }
 
+    /**
+     * Writes a function that parses a JSON response body as it is received, deserializing
+     * the elements of one top-level list as soon as each has been read. It depends on
+     * {@link #generateCollectBodyString(GenerationContext)} for bodies that are not streams.
+     *
+     * @param context The generation context.
+     */
+    static void generateParseBodyWithItems(GenerationContext context) {
+        TypeScriptWriter writer = context.getWriter();
+        // The parser contains template literals, so it is not written as a format string.
+        writer.writeWithNoFormatting(
+                IoUtils.readUtf8Resource(HttpProtocolGeneratorUtils.class, "json-items-parser.ts"));
+    }
+
     /**
      * Writes any additional utils needed for HTTP protocols with bindings.
      *
@@ -346,6 +397,16 @@ public final class HttpProtocolGeneratorUtils {
         Symbol outputType = symbol.expectProperty("outputType", Symbol.class);
         String errorMethodName = ProtocolGenerator.getDeserFunctionName(symbol, context.getProtocolName()) + "Error";
 
+        Map<String, ShapeId> operationNamesToShapes = operationErrorsToShapes.apply(context, operation);
+        boolean useDispatchTable = context.getSettings().errorDispatchTables() && !operationNamesToShapes.isEmpty();
+        String dispatchTableName = errorMethodName + "Deserializers";
+        String dispatchTableType = "Map<string, (output: any, context: __SerdeContext) => Promise<any>>";
+        if (useDispatchTable) {
+            // The table is built on first use, as the error deserializers are defined later in the file.
+            writer.write("let $L: $L | undefined;", dispatchTableName, dispatchTableType);
+            writer.write("");
+        }
+
         writer.openBlock("const $L = async(\n"
                        + "  output: $T,\n"
                        + "  context: __SerdeContext,\n"
@@ -389,8 +450,26 @@ public final class HttpProtocolGeneratorUtils {
                 });
             };
 
-            Map<String, ShapeId> operationNamesToShapes = operationErrorsToShapes.apply(context, operation);
-            if (!operationNamesToShapes.isEmpty()) {
+            String outputParam = shouldParseErrorBody ? "parsedOutput" : "output";
+            if (useDispatchTable) {
+                // Look the error code up in a table of the modeled error codes and shape IDs.
+                writer.openBlock("$L ??= new $L([", "]);", dispatchTableName, dispatchTableType, () -> {
+                    operationNamesToShapes.forEach((name, errorId) -> {
+                        StructureShape error = context.getModel().expectShape(errorId).asStructureShape().get();
+                        // Track errors bound to the operation so their deserializers may be generated.
+                        errorShapes.add(error);
+                        String errorDeserMethodName = ProtocolGenerator.getDeserFunctionName(
+                                symbolProvider.toSymbol(error), context.getProtocolName()) + "Response";
+                        writer.write("[$S, $L],", name, errorDeserMethodName);
+                        writer.write("[$S, $L],", errorId.toString(), errorDeserMethodName);
+                    });
+                });
+                writer.write("const deserializeError = $L.get(errorCode as string);", dispatchTableName);
+                writer.openBlock("if (deserializeError !== undefined) {", "}", () -> {
+                    writer.write("throw await deserializeError($L, context);", outputParam);
+                });
+                defaultErrorHandler.run();
+            } else if (!operationNamesToShapes.isEmpty()) {
                 writer.openBlock("switch (errorCode) {", "}", () -> {
                     // Generate the case statement for each error, invoking the specific deserializer.
 
@@ -402,7 +481,6 @@ public final class HttpProtocolGeneratorUtils {
                         String errorDeserMethodName = ProtocolGenerator.getDeserFunctionName(errorSymbol,
                             context.getProtocolName()) + "Response";
                         // Dispatch to the error deserialization function.
-                        String outputParam = shouldParseErrorBody ? "parsedOutput" : "output";
                         writer.write("case $S:", name);
                         writer.write("case $S:", errorId.toString());
                         writer.indent()
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.smithy.typescript.codegen.integration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.model.knowledge.TopDownIndex;
+import software.amazon.smithy.model.pattern.SmithyPattern.Segment;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.HttpQueryTrait;
+import software.amazon.smithy.model.traits.HttpTrait;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Generates a router for the operations of a service that dispatches requests with
+ * nested {@code switch} statements on the HTTP method, the first path segment, and the
+ * number of path segments, instead of matching them against the {@code UriSpec}s of an
+ * {@code HttpBindingMux}.
+ *
+ * <p>Operations are tried in the order the mux tries them: by descending rank, then in
+ * the order they are contained in the service. Both route every request to the same
+ * operation.
+ */
+@SmithyInternalApi
+final class ServiceRouterGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceRouterGenerator.class.getName());
+
+    private final GenerationContext context;
+    private final TypeScriptWriter writer;
+    private final String serviceName;
+
+    ServiceRouterGenerator(GenerationContext context) {
+        this.context = context;
+        this.writer = context.getWriter();
+        this.serviceName = context.getService().getId().getName();
+    }
+
+    /**
+     * Writes the router as a {@code Mux} named "mux".
+     */
+    void run() {
+        writer.addImport("httpbinding", null, "@aws-smithy/server-common");
+        writer.addImport("Mux", "__Mux", "@aws-smithy/server-common");
+
+        Map<String, List<Route>> routesByMethod = new TreeMap<>();
+        for (Route route : getRoutes()) {
+            routesByMethod.computeIfAbsent(route.method, m -> new ArrayList<>()).add(route);
+        }
+
+        Symbol serviceSymbol = context.getSymbolProvider().toSymbol(context.getService());
+        writer.openBlock("const mux: __Mux<$S, keyof $T<Context>> = {", "};", serviceName, serviceSymbol, () -> {
+            writer.openBlock("match(req) {", "},", () -> {
+                writer.write("const segments = req.path.split(\"/\").filter((s) => s.length > 0);");
+                writer.openBlock("switch (req.method) {", "}", () -> {
+                    routesByMethod.forEach((method, routes) -> {
+                        writer.openBlock("case $S: {", "}", method, () -> {
+                            if (writeFirstSegmentSwitch(routes)) {
+                                writer.write("break;");
+                            }
+                        });
+                    });
+                });
+                writer.write("return undefined;");
+            });
+        });
+    }
+
+    private List<Route> getRoutes() {
+        List<Route> routes = new ArrayList<>();
+        TopDownIndex topDownIndex = TopDownIndex.of(context.getModel());
+        for (OperationShape operation : topDownIndex.getContainedOperations(context.getService())) {
+            if (operation.hasTrait(HttpTrait.class)) {
+                routes.add(new Route(operation, operation.expectTrait(HttpTrait.class)));
+            } else {
+                LOGGER.warning(String.format("Unable to generate a route for %s because it does not have an "
+                        + "http binding trait", operation.getId()));
+            }
+        }
+        // List.sort is stable, which keeps operations of equal rank in service order like the mux.
+        routes.sort(Comparator.comparingInt((Route route) -> route.rank).reversed());
+        return routes;
+    }
+
+    /**
+     * Writes the routes of a method, switching on the first path segment when routes start with a literal.
+     *
+     * @return Returns true if the written code can complete without returning.
+     */
+    private boolean writeFirstSegmentSwitch(List<Route> routes) {
+        Set<String> firstLiterals = routes.stream()
+                .filter(Route::startsWithLiteral)
+                .map(route -> route.path.get(0).getContent())
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (firstLiterals.isEmpty()) {
+            return writeLengthSwitch(routes, false);
+        }
+
+        List<Route> defaultRoutes = routes.stream()
+                .filter(route -> !route.startsWithLiteral())
+                .collect(Collectors.toList());
+        writer.openBlock("switch (segments[0]) {", "}", () -> {
+            for (String literal : firstLiterals) {
+                List<Route> literalRoutes = routes.stream()
+                        .filter(route -> !route.path.isEmpty())
+                        .filter(route -> !route.startsWithLiteral() || route.path.get(0).getContent().equals(literal))
+                        .collect(Collectors.toList());
+                writer.openBlock("case $S: {", "}", literal, () -> {
+                    if (writeLengthSwitch(literalRoutes, true)) {
+                        writer.write("break;");
+                    }
+                });
+            }
+            if (!defaultRoutes.isEmpty()) {
+                writer.openBlock("default: {", "}", () -> {
+                    if (writeLengthSwitch(defaultRoutes, false)) {
+                        writer.write("break;");
+                    }
+                });
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Writes routes, switching on the number of path segments when some routes have a fixed length.
+     *
+     * @return Returns true if the written code can complete without returning.
+     */
+    private boolean writeLengthSwitch(List<Route> routes, boolean firstSegmentMatched) {
+        Set<Integer> lengths = routes.stream()
+                .filter(route -> route.greedyIndex < 0)
+                .map(route -> route.path.size())
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (lengths.isEmpty()) {
+            return writeRoutes(routes, firstSegmentMatched, null);
+        }
+
+        List<Route> greedyRoutes = routes.stream()
+                .filter(route -> route.greedyIndex >= 0)
+                .collect(Collectors.toList());
+        writer.openBlock("switch (segments.length) {", "}", () -> {
+            for (int length : lengths) {
+                List<Route> lengthRoutes = routes.stream()
+                        .filter(route -> route.greedyIndex < 0
+                                ? route.path.size() == length
+                                : route.path.size() <= length)
+                        .collect(Collectors.toList());
+                writer.openBlock("case $L: {", "}", length, () -> {
+                    if (writeRoutes(lengthRoutes, firstSegmentMatched, length)) {
+                        writer.write("break;");
+                    }
+                });
+            }
+            if (!greedyRoutes.isEmpty()) {
+                writer.openBlock("default: {", "}", () -> {
+                    if (writeRoutes(greedyRoutes, firstSegmentMatched, null)) {
+                        writer.write("break;");
+                    }
+                });
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Writes a check of each route in order, stopping after a route that always matches.
+     *
+     * @param routes Routes to check, in priority order.
+     * @param firstSegmentMatched Whether the first segment is known to match the routes' first literal.
+     * @param length Number of path segments if known, or null.
+     * @return Returns true if the written code can complete without returning.
+     */
+    private boolean writeRoutes(List<Route> routes, boolean firstSegmentMatched, Integer length) {
+        for (Route route : routes) {
+            List<String> conditions = route.getConditions(firstSegmentMatched, length);
+            if (conditions.isEmpty()) {
+                writeReturn(route);
+                return false;
+            }
+            writer.openBlock("if ($L) {", "}", String.join(" && ", conditions), () -> writeReturn(route));
+        }
+        return true;
+    }
+
+    private void writeReturn(Route route) {
+        writer.write("return { service: $S, operation: $S };", serviceName, route.operationName);
+    }
+
+    private final class Route {
+        private final String method;
+        private final List<Segment> path;
+        private final int greedyIndex;
+        private final Map<String, String> queryLiterals;
+        private final List<String> requiredQueryParameters = new ArrayList<>();
+        private final String operationName;
+        private final int rank;
+
+        Route(OperationShape operation, HttpTrait httpTrait) {
+            method = httpTrait.getMethod();
+            path = httpTrait.getUri().getSegments();
+            int greedy = -1;
+            for (int i = 0; i < path.size(); i++) {
+                if (path.get(i).isGreedyLabel()) {
+                    greedy = i;
+                    break;
+                }
+            }
+            greedyIndex = greedy;
+            queryLiterals = httpTrait.getUri().getQueryLiterals();
+            operation.getInput().ifPresent(inputId -> {
+                StructureShape inputShape = context.getModel().expectShape(inputId, StructureShape.class);
+                for (MemberShape member : inputShape.members()) {
+                    if (member.isRequired() && member.hasTrait(HttpQueryTrait.class)) {
+                        requiredQueryParameters.add(member.expectTrait(HttpQueryTrait.class).getValue());
+                    }
+                }
+            });
+            operationName = context.getSymbolProvider().toSymbol(operation).getName();
+            rank = path.size() + queryLiterals.size() + requiredQueryParameters.size();
+        }
+
+        boolean startsWithLiteral() {
+            return !path.isEmpty() && !path.get(0).isLabel();
+        }
+
+        List<String> getConditions(boolean firstSegmentMatched, Integer length) {
+            List<String> conditions = new ArrayList<>();
+            if (length == null) {
+                // Greedy labels consume at least one segment, and every other segment exactly one.
+                conditions.add(writer.format("segments.length $L $L", greedyIndex < 0 ? "===" : ">=", path.size()));
+            }
+            for (int i = firstSegmentMatched ? 1 : 0; i < path.size(); i++) {
+                Segment segment = path.get(i);
+                if (segment.isLabel()) {
+                    continue;
+                }
+                String index;
+                if (greedyIndex < 0 || i < greedyIndex) {
+                    index = String.valueOf(i);
+                } else if (length != null) {
+                    index = String.valueOf(length - (path.size() - i));
+                } else {
+                    index = "segments.length - " + (path.size() - i);
+                }
+                conditions.add(writer.format("segments[$L] === $S", index, segment.getContent()));
+            }
+            queryLiterals.forEach((key, value) -> {
+                if (value == null || value.isEmpty()) {
+                    conditions.add(writer.format("httpbinding.matchesQueryLiteral(req, $S)", key));
+                } else {
+                    conditions.add(writer.format("httpbinding.matchesQueryLiteral(req, $S, $S)", key, value));
+                }
+            });
+            for (String key : requiredQueryParameters) {
+                conditions.add(writer.format("httpbinding.hasQueryParameter(req, $S)", key));
+            }
+            return conditions;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Options of waiters that poll with adaptive delays.
+ */
+export interface AdaptiveWaiterConfiguration<Client> extends WaiterConfiguration<Client> {
+  /**
+   * Called with the reason of each poll that does not complete the waiter. Returning true
+   * stops the waiter with the ABORTED state and that reason instead of polling again.
+   */
+  shouldStopWaiting?: (reason: any, attempt: number) => boolean;
+
+  /**
+   * Whether waiters of the same client that wait on the same input share their polls,
+   * reusing a poll of another waiter that is in flight or that completed less than the
+   * minimum delay ago. Defaults to true.
+   */
+  coalescePolls?: boolean;
+}
+
+interface SharedPoll {
+  owner: object;
+  result: Promise<WaiterResult>;
+  settledAt?: number;
+}
+
+// Polls shared by waiters, by client and then by waiter name and input.
+const sharedPolls = new WeakMap<object, Map<string, SharedPoll>>();
+
+/**
+ * Waits like createWaiter, except that every delay between polls is chosen at random
+ * between the minimum delay and the exponential backoff ceiling, so concurrent waiters
+ * do not poll in lockstep once the backoff reaches the maximum delay. The delay is
+ * extended to the Retry-After header of a failed poll, and waiters may share polls
+ * and stop early through their configuration.
+ *
+ * @internal
+ */
+export const createAdaptiveWaiter = async <Client, Input>(
+  options: WaiterOptions<Client> & AdaptiveWaiterConfiguration<Client>,
+  input: Input,
+  waiterName: string,
+  checkState: (client: Client, input: Input) => Promise<WaiterResult>
+): Promise<WaiterResult> => {
+  validateOptions(options);
+  const { client, minDelay, maxDelay, maxWaitTime, shouldStopWaiting } = options;
+  const abortSignal = options.abortSignal ?? options.abortController?.signal;
+  const owner = {};
+  const poll =
+    options.coalescePolls === false
+      ? () => checkState(client, input)
+      : () => pollShared(client as any, owner, waiterName, input, minDelay, () => checkState(client, input));
+
+  const waitUntil = Date.now() + maxWaitTime * 1000;
+  const attemptCeiling = Math.log(maxDelay / minDelay) / Math.log(2) + 1;
+  let attempt = 1;
+  while (true) {
+    const { state, reason } = await poll();
+    if (state !== WaiterState.RETRY) {
+      return { state, reason };
+    }
+    if (shouldStopWaiting?.(reason, attempt)) {
+      return { state: WaiterState.ABORTED, reason };
+    }
+    if (abortSignal?.aborted) {
+      return { state: WaiterState.ABORTED };
+    }
+    const ceiling = attempt > attemptCeiling ? maxDelay : Math.min(maxDelay, minDelay * 2 ** (attempt - 1));
+    const delay = Math.max(minDelay + Math.random() * (ceiling - minDelay), getRetryAfter(reason) ?? 0);
+    if (Date.now() + delay * 1000 > waitUntil) {
+      return { state: WaiterState.TIMEOUT };
+    }
+    if (!(await sleep(delay, abortSignal))) {
+      return { state: WaiterState.ABORTED };
+    }
+    attempt++;
+  }
+};
+
+const validateOptions = (options: WaiterOptions<any>): void => {
+  if (options.maxWaitTime < 1) {
+    throw new Error("WaiterConfiguration.maxWaitTime must be greater than 0");
+  } else if (options.minDelay < 1) {
+    throw new Error("WaiterConfiguration.minDelay must be greater than 0");
+  } else if (options.maxDelay < 1) {
+    throw new Error("WaiterConfiguration.maxDelay must be greater than 0");
+  } else if (options.maxWaitTime <= options.minDelay) {
+    throw new Error(
+      `WaiterConfiguration.maxWaitTime [${options.maxWaitTime}] must be greater than WaiterConfiguration.minDelay [${options.minDelay}] for this waiter`
+    );
+  } else if (options.maxDelay < options.minDelay) {
+    throw new Error(
+      `WaiterConfiguration.maxDelay [${options.maxDelay}] must be greater than WaiterConfiguration.minDelay [${options.minDelay}] for this waiter`
+    );
+  }
+};
+
+const pollShared = (
+  client: object,
+  owner: object,
+  waiterName: string,
+  input: unknown,
+  minDelay: number,
+  checkState: () => Promise<WaiterResult>
+): Promise<WaiterResult> => {
+  let key: string;
+  try {
+    key = `${waiterName}:${JSON.stringify(input)}`;
+  } catch (e) {
+    return checkState();
+  }
+  let polls = sharedPolls.get(client);
+  if (polls === undefined) {
+    polls = new Map();
+    sharedPolls.set(client, polls);
+  }
+  const now = Date.now();
+  const shared = polls.get(key);
+  if (
+    shared !== undefined &&
+    shared.owner !== owner &&
+    (shared.settledAt === undefined || now - shared.settledAt < minDelay * 1000)
+  ) {
+    return shared.result;
+  }
+  // Polls are only reused for the minimum delay, so older ones can be dropped.
+  for (const [sharedKey, { settledAt }] of polls) {
+    if (settledAt !== undefined && now - settledAt >= minDelay * 1000) {
+      polls.delete(sharedKey);
+    }
+  }
+  const poll: SharedPoll = { owner, result: checkState() };
+  const settle = () => {
+    poll.settledAt = Date.now();
+  };
+  poll.result.then(settle, settle);
+  polls.set(key, poll);
+  return poll.result;
+};
+
+// Reads the delay in seconds that the Retry-After header of a failed poll asks for.
+const getRetryAfter = (reason: any): number | undefined => {
+  const headers = reason?.$response?.headers;
+  if (headers === undefined || headers === null) {
+    return undefined;
+  }
+  const name = Object.keys(headers).find((header) => header.toLowerCase() === "retry-after");
+  const value = name === undefined ? undefined : String(headers[name]).trim();
+  if (!value) {
+    return undefined;
+  }
+  const seconds = /^\d+$/.test(value) ? Number(value) : (Date.parse(value) - Date.now()) / 1000;
+  return Number.isNaN(seconds) ? undefined : Math.max(seconds, 0);
+};
+
+// Resolves to true after the delay, or to false as soon as the signal aborts.
+const sleep = (seconds: number, abortSignal: any): Promise<boolean> =>
+  new Promise((resolve) => {
+    if (abortSignal?.aborted) {
+      resolve(false);
+      return;
+    }
+    const onAbort = () => {
+      clearTimeout(timeout);
+      resolve(false);
+    };
+    const timeout = setTimeout(() => {
+      abortSignal?.removeEventListener?.("abort", onAbort);
+      resolve(true);
+    }, seconds * 1000);
+    abortSignal?.addEventListener?.("abort", onAbort, { once: true });
+  });
@@ -0,0 +1,130 @@
+import { EndpointV2, Logger } from "@aws-sdk/types";
+
+export interface EndpointCacheMetrics {
+  /**
+   * Number of endpoints returned from the cache.
+   */
+  hits: number;
+
+  /**
+   * Number of endpoints resolved and added to the cache.
+   */
+  misses: number;
+
+  /**
+   * Number of endpoints resolved without the cache because they depend on per-call parameters.
+   */
+  bypasses: number;
+
+  /**
+   * Number of endpoints currently cached.
+   */
+  size: number;
+
+  /**
+   * Ratio of cache hits to cacheable resolutions, or 0 before the first resolution.
+   */
+  hitRate: number;
+}
+
+type EndpointProvider<T> = (params: T, context?: { logger?: Logger }) => EndpointV2;
+
+/**
+ * A bounded least-recently-used cache of resolved endpoints, keyed on the endpoint
+ * parameters that stay the same between calls of a client.
+ */
+export class EndpointCache {
+  private readonly entries = new Map<string, EndpointV2>();
+  private readonly keyParameters: Set<string>;
+  private hits = 0;
+  private misses = 0;
+  private bypasses = 0;
+
+  /**
+   * @param capacity - maximum number of endpoints to cache. 0 disables caching.
+   * @param keyParameters - parameters the cache is keyed on. Endpoints resolved with any
+   * other parameter set, such as operation context parameters, are not cached.
+   */
+  constructor(private readonly capacity: number, keyParameters: string[]) {
+    this.keyParameters = new Set(keyParameters);
+  }
+
+  /**
+   * Returns the cached endpoint for the parameters, or resolves and caches it.
+   */
+  get<T extends object>(params: T, resolve: () => EndpointV2): EndpointV2 {
+    const key = this.capacity > 0 ? this.key(params) : undefined;
+    if (key === undefined) {
+      this.bypasses++;
+      return resolve();
+    }
+
+    const cached = this.entries.get(key);
+    if (cached !== undefined) {
+      // Re-insert the entry to mark it as the most recently used.
+      this.entries.delete(key);
+      this.entries.set(key, cached);
+      this.hits++;
+      return cached;
+    }
+
+    const endpoint = resolve();
+    this.misses++;
+    this.entries.set(key, endpoint);
+    if (this.entries.size > this.capacity) {
+      this.entries.delete(this.entries.keys().next().value);
+    }
+    return endpoint;
+  }
+
+  /**
+   * Wraps an endpoint provider so that it resolves endpoints through this cache.
+   */
+  wrap<T extends object>(provider: EndpointProvider<T>): EndpointProvider<T> {
+    return (params, context) => this.get(params, () => provider(params, context));
+  }
+
+  /**
+   * Returns the hit and miss counts of the cache.
+   */
+  getMetrics(): EndpointCacheMetrics {
+    const cacheable = this.hits + this.misses;
+    return {
+      hits: this.hits,
+      misses: this.misses,
+      bypasses: this.bypasses,
+      size: this.entries.size,
+      hitRate: cacheable === 0 ? 0 : this.hits / cacheable,
+    };
+  }
+
+  /**
+   * Removes every cached endpoint.
+   */
+  clear(): void {
+    this.entries.clear();
+  }
+
+  private key(params: object): string | undefined {
+    let key = "";
+    for (const [name, value] of Object.entries(params)) {
+      if (!this.keyParameters.has(name)) {
+        if (value != null) {
+          return undefined;
+        }
+        continue;
+      }
+      if (value == null) {
+        key += `${name}=|`;
+      } else if (typeof value === "string") {
+        // Prefix strings with their length so that no value can be mistaken for a separator.
+        key += `${name}=s${value.length}:${value}|`;
+      } else if (typeof value === "boolean") {
+        key += `${name}=${value}|`;
+      } else {
+        return undefined;
+      }
+    }
+    return key;
+  }
+}
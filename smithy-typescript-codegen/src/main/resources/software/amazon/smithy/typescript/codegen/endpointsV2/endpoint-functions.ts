@@ -0,0 +1,82 @@
+// Rule set functions that compiled endpoint resolvers call at runtime. Their behavior
+// matches the functions used by `resolveEndpoint` in @aws-sdk/util-endpoints.
+
+export interface EndpointURL {
+  scheme: string;
+  authority: string;
+  path: string;
+  normalizedPath: string;
+  isIp: boolean;
+}
+
+const DEFAULT_PORTS: Record<string, number> = {
+  http: 80,
+  https: 443,
+};
+
+const IP_V4_REGEX = new RegExp(
+  `^(?:25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]\\d|\\d)(?:\\.(?:25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]\\d|\\d)){3}$`
+);
+
+const VALID_HOST_LABEL_REGEX = new RegExp(`^(?!.*-$)(?!-)[a-zA-Z0-9-]{1,63}$`);
+
+const isIpAddress = (value: string): boolean =>
+  IP_V4_REGEX.test(value) || (value.startsWith("[") && value.endsWith("]"));
+
+export const isValidHostLabel = (value: string, allowSubDomains = false): boolean => {
+  if (!allowSubDomains) {
+    return VALID_HOST_LABEL_REGEX.test(value);
+  }
+  for (const label of value.split(".")) {
+    if (!isValidHostLabel(label)) {
+      return false;
+    }
+  }
+  return true;
+};
+
+export const parseURL = (value: string): EndpointURL | null => {
+  let whatwgURL: URL;
+  try {
+    whatwgURL = new URL(value);
+  } catch (error) {
+    return null;
+  }
+
+  const { host, hostname, pathname, protocol, search } = whatwgURL;
+  if (search) {
+    return null;
+  }
+
+  const scheme = protocol.slice(0, -1);
+  const defaultPort = DEFAULT_PORTS[scheme];
+  if (defaultPort === undefined) {
+    return null;
+  }
+
+  const inputContainsDefaultPort =
+    whatwgURL.href.includes(`${host}:${defaultPort}`) || value.includes(`${host}:${defaultPort}`);
+  return {
+    scheme,
+    authority: inputContainsDefaultPort ? `${host}:${defaultPort}` : host,
+    path: pathname,
+    normalizedPath: pathname.endsWith("/") ? pathname : `${pathname}/`,
+    isIp: isIpAddress(hostname),
+  };
+};
+
+export const substring = (input: string, start: number, stop: number, reverse: boolean): string | null => {
+  if (start >= stop || input.length < stop) {
+    return null;
+  }
+  if (!reverse) {
+    return input.substring(start, stop);
+  }
+  return input.substring(input.length - stop, input.length - start);
+};
+
+export const uriEncode = (value: string): string =>
+  encodeURIComponent(value).replace(/[!*'()]/g, (c) => `%${c.charCodeAt(0).toString(16).toUpperCase()}`);
+
+// Conditions are met by any truthy value, and also by empty strings.
+export const isConditionMet = (value: unknown): boolean => value === "" || !!value;
@@ -0,0 +1,49 @@
+// Combines the encoded messages of an outbound event stream that are ready before the next
+// macrotask into one chunk of at most maxBatchLength bytes, so that bursts of small events
+// are written together. Each message carries its own length, so receivers read the same
+// messages. A message that does not fit in the current chunk starts the next one.
+const batchEventMessages = (
+  messages: AsyncIterable<Uint8Array>,
+  maxBatchLength = 64 * 1024
+): AsyncIterable<Uint8Array> => ({
+  [Symbol.asyncIterator]: async function* () {
+    const iterator = messages[Symbol.asyncIterator]();
+    let next = iterator.next();
+    try {
+      while (true) {
+        const first = await next;
+        if (first.done) {
+          return;
+        }
+        next = iterator.next();
+        const batch = [first.value];
+        let length = first.value.length;
+        while (length < maxBatchLength) {
+          // Failures of the next message are thrown when it starts the next chunk.
+          const ready = await Promise.race([next.catch(() => undefined), nextMacrotask()]);
+          if (ready === undefined || ready.done || length + ready.value.length > maxBatchLength) {
+            break;
+          }
+          batch.push(ready.value);
+          length += ready.value.length;
+          next = iterator.next();
+        }
+        yield batch.length === 1 ? batch[0] : concatMessages(batch, length);
+      }
+    } finally {
+      await iterator.return?.();
+    }
+  },
+});
+
+const nextMacrotask = (): Promise<undefined> => new Promise((resolve) => setTimeout(resolve, 0));
+
+const concatMessages = (messages: Uint8Array[], length: number): Uint8Array => {
+  const chunk = new Uint8Array(length);
+  let offset = 0;
+  for (const message of messages) {
+    chunk.set(message, offset);
+    offset += message.length;
+  }
+  return chunk;
+};
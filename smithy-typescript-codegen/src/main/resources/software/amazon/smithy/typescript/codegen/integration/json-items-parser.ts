@@ -0,0 +1,159 @@
+// Parses a JSON object from a response body as it is received, deserializing each element
+// of one top-level array member as soon as the element is complete. Only the text of the
+// current member or element is buffered. Null elements are skipped, like non-sparse lists.
+const parseBodyWithItems = async (
+  streamBody: any,
+  context: __SerdeContext,
+  itemsKey: string,
+  deserializeItem: (item: any) => any
+): Promise<any> => {
+  const parser = new JsonItemsParser(itemsKey, deserializeItem);
+  if (typeof streamBody?.[Symbol.asyncIterator] === "function" && typeof TextDecoder === "function") {
+    const decoder = new TextDecoder();
+    for await (const chunk of streamBody) {
+      parser.write(typeof chunk === "string" ? chunk : decoder.decode(chunk, { stream: true }));
+    }
+    parser.write(decoder.decode());
+  } else {
+    parser.write(await collectBodyString(streamBody, context));
+  }
+  return parser.end();
+};
+
+class JsonItemsParser {
+  private result: Record<string, any> = {};
+  private items: any[] = [];
+  private text = "";
+  private depth = 0;
+  private inString = false;
+  private escaped = false;
+  private inItems = false;
+  private isObject: boolean | undefined = undefined;
+  private ended = false;
+
+  constructor(private readonly itemsKey: string, private readonly deserializeItem: (item: any) => any) {}
+
+  write(chunk: string): void {
+    let start = 0;
+    for (let i = 0; i < chunk.length; i++) {
+      const c = chunk[i];
+      if (this.inString) {
+        if (this.escaped) {
+          this.escaped = false;
+        } else if (c === "\\") {
+          this.escaped = true;
+        } else if (c === '"') {
+          this.inString = false;
+        }
+        continue;
+      }
+      if (this.isObject === undefined) {
+        // Bodies that are not objects are parsed whole when they end.
+        if (!isJsonWhitespace(c)) {
+          this.isObject = c === "{";
+          if (this.isObject) {
+            this.depth = 1;
+            start = i + 1;
+          }
+        }
+        continue;
+      }
+      if (!this.isObject) {
+        continue;
+      }
+      if (this.ended) {
+        if (!isJsonWhitespace(c)) {
+          throw new SyntaxError(`Unexpected token ${c} in JSON`);
+        }
+        continue;
+      }
+      switch (c) {
+        case '"':
+          this.inString = true;
+          break;
+        case "[":
+          if (this.depth === 1 && this.readKey(this.text + chunk.slice(start, i)) === this.itemsKey) {
+            this.items = [];
+            this.define(this.itemsKey, this.items);
+            this.inItems = true;
+            this.text = "";
+            start = i + 1;
+          }
+          this.depth++;
+          break;
+        case "{":
+          this.depth++;
+          break;
+        case "]":
+        case "}":
+          this.depth--;
+          if (this.inItems && this.depth === 1) {
+            this.addItem(chunk.slice(start, i));
+            this.inItems = false;
+            start = i + 1;
+          } else if (this.depth === 0) {
+            this.addMember(chunk.slice(start, i));
+            this.ended = true;
+            start = i + 1;
+          }
+          break;
+        case ",":
+          if (this.inItems && this.depth === 2) {
+            this.addItem(chunk.slice(start, i));
+            start = i + 1;
+          } else if (this.depth === 1) {
+            this.addMember(chunk.slice(start, i));
+            start = i + 1;
+          }
+          break;
+      }
+    }
+    if (!this.ended) {
+      this.text += chunk.slice(start);
+    }
+  }
+
+  end(): any {
+    if (this.isObject === undefined) {
+      return {};
+    } else if (!this.isObject) {
+      return JSON.parse(this.text);
+    } else if (!this.ended) {
+      throw new SyntaxError("Unexpected end of JSON input");
+    }
+    return this.result;
+  }
+
+  private readKey(text: string): string | undefined {
+    const member = text.trim();
+    return member.endsWith(":") ? JSON.parse(member.slice(0, -1)) : undefined;
+  }
+
+  private addItem(tail: string): void {
+    const text = this.text + tail;
+    this.text = "";
+    if (text.trim().length > 0) {
+      const item = JSON.parse(text);
+      if (item != null) {
+        this.items.push(this.deserializeItem(item));
+      }
+    }
+  }
+
+  private addMember(tail: string): void {
+    const text = this.text + tail;
+    this.text = "";
+    if (text.trim().length > 0) {
+      const member = JSON.parse(`{${text}}`);
+      for (const key of Object.keys(member)) {
+        this.define(key, member[key]);
+      }
+    }
+  }
+
+  private define(key: string, value: any): void {
+    Object.defineProperty(this.result, key, { value, writable: true, enumerable: true, configurable: true });
+  }
+}
+
+const isJsonWhitespace = (c: string): boolean => c === " " || c === "\t" || c === "\n" || c === "\r";
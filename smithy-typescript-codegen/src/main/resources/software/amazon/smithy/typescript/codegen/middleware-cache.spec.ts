@@ -0,0 +1,137 @@
+import { constructStack } from "@aws-sdk/middleware-stack";
+import { HandlerExecutionContext, MiddlewareStack, Pluggable } from "@aws-sdk/types";
+
+import { resolveCachedMiddleware } from "./middlewareCache";
+
+interface TestInput {
+  name: string;
+}
+
+interface TestContext extends HandlerExecutionContext {
+  trace: string[];
+}
+
+// Adds middleware that sends the input the command was created with as the request.
+const getInputPlugin = (input: TestInput): Pluggable<any, any> => ({
+  applyToStack: (stack) => {
+    stack.add((next) => (args) => next({ ...args, request: input.name }), { step: "build", name: "inputPlugin" });
+  },
+});
+
+const traced = (name: string) => (next: any, context: any) => (args: any) => {
+  context.trace.push(name);
+  return next(args);
+};
+
+// Resolves its middleware the way generated commands do when resolved middleware is cached.
+class TestCommand {
+  readonly middlewareStack = constructStack<any, any>();
+
+  constructor(readonly input: TestInput) {}
+
+  resolveMiddleware(clientStack: MiddlewareStack<any, any>, configuration: object, context: TestContext) {
+    const cacheable = this.middlewareStack.identify().length === 0;
+    this.middlewareStack.use(getInputPlugin(this.input));
+    const stack = cacheable
+      ? resolveCachedMiddleware(TestCommand, clientStack, configuration, this.middlewareStack)
+      : clientStack.concat(this.middlewareStack);
+    return stack.resolve((args: any) => Promise.resolve({ output: args.request, response: {} }), context);
+  }
+}
+
+const send = async (
+  clientStack: MiddlewareStack<any, any>,
+  configuration: object,
+  command: TestCommand
+): Promise<{ output: string; trace: string[] }> => {
+  const context = { trace: [] } as any;
+  const { output } = await command.resolveMiddleware(clientStack, configuration, context)({ input: command.input });
+  return { output, trace: context.trace };
+};
+
+describe("resolveCachedMiddleware", () => {
+  it("applies the plugins of each command to its own input", async () => {
+    const clientStack = constructStack<any, any>();
+    const configuration = {};
+    const first = new TestCommand({ name: "first" });
+    const second = new TestCommand({ name: "second" });
+
+    expect((await send(clientStack, configuration, first)).output).toEqual("first");
+    expect((await send(clientStack, configuration, second)).output).toEqual("second");
+    expect(first.middlewareStack.remove("inputPlugin")).toBe(true);
+    expect(second.middlewareStack.remove("inputPlugin")).toBe(true);
+  });
+
+  it("orders middleware as concatenating the stacks does", async () => {
+    const clientStack = constructStack<any, any>();
+    clientStack.add(traced("clientBuild"), { step: "build", name: "clientBuild" });
+    clientStack.add(traced("clientInitialize"), { step: "initialize", priority: "high", name: "clientInitialize" });
+    clientStack.addRelativeTo(traced("afterInput"), {
+      relation: "after",
+      toMiddleware: "inputPlugin",
+      name: "afterInput",
+    });
+    const configuration = {};
+
+    const { trace } = await send(clientStack, configuration, new TestCommand({ name: "first" }));
+    const { trace: cachedTrace } = await send(clientStack, configuration, new TestCommand({ name: "second" }));
+
+    const expected: string[] = [];
+    const concatenated = new TestCommand({ name: "third" });
+    concatenated.middlewareStack.use(getInputPlugin(concatenated.input));
+    await clientStack
+      .concat(concatenated.middlewareStack)
+      .resolve((args: any) => Promise.resolve({ output: args.request, response: {} }), { trace: expected } as any)({
+        input: concatenated.input,
+      });
+
+    expect(trace).toEqual(expected);
+    expect(cachedTrace).toEqual(expected);
+  });
+
+  it("combines the stacks of commands with their own middleware", async () => {
+    const clientStack = constructStack<any, any>();
+    clientStack.add(traced("clientBuild"), { step: "build", name: "clientBuild" });
+    const configuration = {};
+    await send(clientStack, configuration, new TestCommand({ name: "first" }));
+
+    const command = new TestCommand({ name: "second" });
+    command.middlewareStack.add(traced("commandInitialize"), { step: "initialize", name: "commandInitialize" });
+    const { output, trace } = await send(clientStack, configuration, command);
+    const { trace: cachedTrace } = await send(clientStack, configuration, new TestCommand({ name: "third" }));
+
+    expect(output).toEqual("second");
+    expect(trace).toEqual(["commandInitialize", "clientBuild"]);
+    expect(cachedTrace).toEqual(["clientBuild"]);
+  });
+
+  it("applies middleware added to the client stack after it was resolved", async () => {
+    const clientStack = constructStack<any, any>();
+    const configuration = {};
+    await send(clientStack, configuration, new TestCommand({ name: "first" }));
+
+    clientStack.add(traced("added"), { step: "initialize", name: "added" });
+    const { output, trace } = await send(clientStack, configuration, new TestCommand({ name: "second" }));
+
+    expect(output).toEqual("second");
+    expect(trace).toEqual(["added"]);
+  });
+
+  it("reorders middleware added back to the client stack with other options", async () => {
+    const clientStack = constructStack<any, any>();
+    const locate = (next: any, context: any) => (args: any) => {
+      context.trace.push(args.request === undefined ? "beforeInput" : "afterInput");
+      return next(args);
+    };
+    clientStack.add(locate, { step: "initialize", name: "locate" });
+    const configuration = {};
+    const { trace: before } = await send(clientStack, configuration, new TestCommand({ name: "first" }));
+
+    clientStack.remove("locate");
+    clientStack.add(locate, { step: "finalizeRequest", name: "locate" });
+    const { trace: after } = await send(clientStack, configuration, new TestCommand({ name: "second" }));
+
+    expect(before).toEqual(["beforeInput"]);
+    expect(after).toEqual(["afterInput"]);
+  });
+});
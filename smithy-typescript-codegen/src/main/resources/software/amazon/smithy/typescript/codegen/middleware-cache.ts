@@ -0,0 +1,130 @@
+type StackMiddleware = (next: any, context: HandlerExecutionContext) => any;
+
+// A middleware of the client stack, or the index of a middleware of the command stack in the
+// order the command stack applies its middleware to another stack.
+type MiddlewareSlot = StackMiddleware | number;
+
+// A middleware of a stack and the options it is applied to another stack with.
+interface MiddlewareEntry {
+  middleware: StackMiddleware;
+  options: any;
+}
+
+interface ResolvedMiddleware {
+  clientStack: MiddlewareStack<any, any>;
+  clientEntries: MiddlewareEntry[];
+  commandLength: number;
+  slots: MiddlewareSlot[];
+}
+
+// Options of a middleware entry that determine where it is sorted.
+const SORT_OPTIONS = ["step", "priority", "name", "relation", "toMiddleware"];
+
+// Resolved middleware order for each command class, by the resolved configuration of the client.
+const resolvedMiddleware = new WeakMap<Function, WeakMap<object, ResolvedMiddleware>>();
+
+/**
+ * Returns a stack that resolves the same handler as the client stack concatenated with the
+ * stack of the command. The command stack must only hold the plugins that the command class
+ * adds to every instance, so commands whose stack was changed by the caller must concatenate
+ * the stacks instead. The order of the combined middleware is computed once per command class
+ * and client configuration, and is reused while the client stack holds the same middleware
+ * with the same options. The middleware of the command stack itself is read on every request,
+ * so each command instance uses the plugins it added to its own stack.
+ *
+ * @internal
+ */
+export const resolveCachedMiddleware = <Input extends object, Output extends object>(
+  commandClass: Function,
+  clientStack: MiddlewareStack<Input, Output>,
+  configuration: object,
+  commandStack: MiddlewareStack<Input, Output>
+): Pick<MiddlewareStack<Input, Output>, "resolve"> => {
+  let byConfiguration = resolvedMiddleware.get(commandClass);
+  if (byConfiguration === undefined) {
+    byConfiguration = new WeakMap();
+    resolvedMiddleware.set(commandClass, byConfiguration);
+  }
+  const clientEntries = collectEntries(clientStack);
+  const commandEntries = collectEntries(commandStack);
+  let resolved = byConfiguration.get(configuration);
+  if (
+    resolved === undefined ||
+    resolved.clientStack !== clientStack ||
+    resolved.commandLength !== commandEntries.length ||
+    !sameEntries(resolved.clientEntries, clientEntries)
+  ) {
+    resolved = {
+      clientStack,
+      clientEntries,
+      commandLength: commandEntries.length,
+      slots: sortMiddleware(clientStack, commandStack),
+    };
+    byConfiguration.set(configuration, resolved);
+  }
+  const { slots } = resolved;
+  return {
+    resolve: (handler: any, context: HandlerExecutionContext): any => {
+      for (let i = slots.length - 1; i >= 0; i--) {
+        const slot = slots[i];
+        handler = (typeof slot === "number" ? commandEntries[slot].middleware : slot)(handler, context);
+      }
+      return handler;
+    },
+  };
+};
+
+// Returns the middleware of a stack in the order it applies them to another stack.
+const collectEntries = (stack: MiddlewareStack<any, any>): MiddlewareEntry[] => {
+  const entries: MiddlewareEntry[] = [];
+  const collect = (middleware: StackMiddleware, options: any): void => {
+    entries.push({ middleware, options });
+  };
+  stack.applyToStack({ add: collect, addRelativeTo: collect } as any);
+  return entries;
+};
+
+const sameEntries = (previous: MiddlewareEntry[], current: MiddlewareEntry[]): boolean => {
+  if (previous.length !== current.length) {
+    return false;
+  }
+  for (let i = 0; i < current.length; i++) {
+    if (previous[i].middleware !== current[i].middleware) {
+      return false;
+    }
+    for (const option of SORT_OPTIONS) {
+      if (previous[i].options[option] !== current[i].options[option]) {
+        return false;
+      }
+    }
+  }
+  return true;
+};
+
+// Returns the middleware of the client stack and the indexes of the middleware of the command
+// stack in the order that concatenating and resolving the stacks applies them, outermost first,
+// by recording the order a sorted copy of the stacks uses.
+const sortMiddleware = (
+  clientStack: MiddlewareStack<any, any>,
+  commandStack: MiddlewareStack<any, any>
+): MiddlewareSlot[] => {
+  const slots: MiddlewareSlot[] = [];
+  const recorder = constructStack<any, any>();
+  const record =
+    (slot: MiddlewareSlot): StackMiddleware =>
+    (next: any) => {
+      slots.unshift(slot);
+      return next;
+    };
+  clientStack.applyToStack({
+    add: (fn: StackMiddleware, options: any) => recorder.add(record(fn), options),
+    addRelativeTo: (fn: StackMiddleware, options: any) => recorder.addRelativeTo(record(fn), options),
+  } as any);
+  let index = 0;
+  commandStack.applyToStack({
+    add: (fn: StackMiddleware, options: any) => recorder.add(record(index++), options),
+    addRelativeTo: (fn: StackMiddleware, options: any) => recorder.addRelativeTo(record(index++), options),
+  } as any);
+  recorder.resolve((() => undefined) as any, {} as HandlerExecutionContext);
+  return slots;
+};
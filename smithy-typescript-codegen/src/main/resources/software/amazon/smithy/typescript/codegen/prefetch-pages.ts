@@ -0,0 +1,70 @@
+/**
+ * Yields the pages of a paginated operation, requesting the next page as soon as the
+ * previous one is received instead of when the consumer asks for it. At most `depth`
+ * received pages are held ahead of the consumer, and pages are always requested one
+ * at a time, in order. Requests stop when the consumer stops iterating; a page that is
+ * in flight at that point is discarded.
+ *
+ * @internal
+ */
+export async function* prefetchPages<Token, Page>(
+  depth: number,
+  startingToken: Token | undefined,
+  requestPage: (token: Token | undefined) => Promise<Page>,
+  getNextToken: (page: Page, token: Token | undefined) => Token | undefined
+): AsyncGenerator<Page, void, unknown> {
+  // Kept in one object, as it is updated by the callbacks of the requests.
+  const state: {
+    received: Page[];
+    token: Token | undefined;
+    hasNext: boolean;
+    inFlight?: Promise<void>;
+    failure?: { error: unknown };
+    closed: boolean;
+  } = { received: [], token: startingToken, hasNext: true, closed: false };
+
+  const requestNext = (): void => {
+    if (
+      state.closed ||
+      !state.hasNext ||
+      state.inFlight !== undefined ||
+      state.failure !== undefined ||
+      state.received.length >= depth
+    ) {
+      return;
+    }
+    const pageToken = state.token;
+    state.inFlight = requestPage(pageToken).then(
+      (page) => {
+        state.inFlight = undefined;
+        state.received.push(page);
+        state.token = getNextToken(page, pageToken);
+        state.hasNext = state.token !== undefined;
+        requestNext();
+      },
+      (error) => {
+        state.inFlight = undefined;
+        state.failure = { error };
+      }
+    );
+  };
+
+  try {
+    requestNext();
+    while (true) {
+      if (state.received.length > 0) {
+        const page = state.received.shift()!;
+        requestNext();
+        yield page;
+      } else if (state.inFlight !== undefined) {
+        await state.inFlight;
+      } else if (state.failure !== undefined) {
+        throw state.failure.error;
+      } else {
+        return;
+      }
+    }
+  } finally {
+    state.closed = true;
+  }
+}
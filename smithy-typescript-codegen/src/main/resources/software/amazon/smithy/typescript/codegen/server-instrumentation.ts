@@ -0,0 +1,67 @@
+/**
+ * A phase of handling a request in a generated server handler.
+ */
+export type HandlerPhase = "mux" | "deserialize" | "validate" | "operation" | "serialize";
+
+/**
+ * The time that a generated server handler spent in one phase of handling a request.
+ */
+export interface HandlerPhaseTiming {
+  /**
+   * The name of the service that the handler belongs to.
+   */
+  service: string;
+
+  /**
+   * The operation that the request was routed to, or undefined if it matched no operation.
+   */
+  operation: string | undefined;
+
+  phase: HandlerPhase;
+
+  /**
+   * When the phase started, as returned by performance.now().
+   */
+  startTime: number;
+
+  /**
+   * The time spent in the phase, in milliseconds.
+   */
+  duration: number;
+
+  /**
+   * Whether the phase ended with an error, including requests that failed validation.
+   */
+  failed: boolean;
+}
+
+/**
+ * Receives the timing of each phase of the requests handled by a generated server handler.
+ * Handlers that are created without instrumentation do not measure time.
+ */
+export interface HandlerInstrumentation {
+  onPhaseEnd(timing: HandlerPhaseTiming): void;
+}
+
+/**
+ * Reports the end of a phase to the instrumentation, and returns the start time of the next
+ * phase. Errors thrown by the instrumentation are logged and do not fail the request.
+ *
+ * @internal
+ */
+export const endHandlerPhase = (
+  instrumentation: HandlerInstrumentation,
+  service: string,
+  operation: string | undefined,
+  phase: HandlerPhase,
+  startTime: number,
+  failed: boolean
+): number => {
+  const duration = performance.now() - startTime;
+  try {
+    instrumentation.onPhaseEnd({ service, operation, phase, startTime, duration, failed });
+  } catch (error) {
+    console.log("Handler instrumentation failed", error);
+  }
+  return performance.now();
+};
@@ -0,0 +1,107 @@
+package software.amazon.smithy.typescript.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+
+public class BarrelIndexCollectorTest {
+    @Test
+    public void writesSortedExportsPerDirectory() {
+        BarrelIndexCollector indexes = new BarrelIndexCollector();
+        indexes.addFileExport("./src/commands/PutFooCommand.ts");
+        indexes.addFileExport("./src/commands/GetFooCommand.ts");
+        indexes.addFileExport("./src/commands/GetFooCommand.ts");
+        indexes.addExport("src/server", "./operations");
+
+        MockManifest manifest = new MockManifest();
+        indexes.writeIndexes(manifest);
+
+        assertThat(manifest.getFileString("src/commands/index.ts").get(), equalTo(
+                TypeScriptWriter.CODEGEN_INDICATOR
+                + "export * from \"./GetFooCommand\";\n"
+                + "export * from \"./PutFooCommand\";\n"));
+        assertThat(manifest.getFileString("src/server/index.ts").get(), equalTo(
+                TypeScriptWriter.CODEGEN_INDICATOR
+                + "export * from \"./operations\";\n"));
+    }
+
+    @Test
+    public void writesEachIndexOnce() {
+        BarrelIndexCollector indexes = new BarrelIndexCollector();
+        indexes.addFileExport("./src/waiters/waitForFooExists.ts");
+
+        MockManifest manifest = new MockManifest();
+        indexes.writeIndexes(manifest);
+        MockManifest secondManifest = new MockManifest();
+        indexes.writeIndexes(secondManifest);
+
+        assertFalse(secondManifest.hasFile("src/waiters/index.ts"));
+    }
+
+    @Test
+    public void exportsGeneratedClientFiles() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .model(model)
+                .fileManifest(manifest)
+                .settings(Node.objectNodeBuilder()
+                                  .withMember("service", Node.from("smithy.example#Example"))
+                                  .withMember("package", Node.from("example"))
+                                  .withMember("packageVersion", Node.from("1.0.0"))
+                                  .build())
+                .build();
+
+        new TypeScriptCodegenPlugin().execute(context);
+
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/commands/index.ts").get(), equalTo(
+                TypeScriptWriter.CODEGEN_INDICATOR
+                + "export * from \"./DeleteFooCommand\";\n"
+                + "export * from \"./GetFooCommand\";\n"
+                + "export * from \"./ListFoosCommand\";\n"
+                + "export * from \"./PutFooCommand\";\n"));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/pagination/index.ts").get(), equalTo(
+                TypeScriptWriter.CODEGEN_INDICATOR
+                + "export * from \"./Interfaces\";\n"
+                + "export * from \"./ListFoosPaginator\";\n"));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/index.ts").get(), equalTo(
+                TypeScriptWriter.CODEGEN_INDICATOR
+                + "export * from \"./waitForFooExists\";\n"));
+    }
+
+    @Test
+    public void writesModelIndexWithoutModels() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("simple-service.smithy"))
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .model(model)
+                .fileManifest(manifest)
+                .settings(Node.objectNodeBuilder()
+                                  .withMember("service", Node.from("smithy.example#Example"))
+                                  .withMember("package", Node.from("example"))
+                                  .withMember("packageVersion", Node.from("1.0.0"))
+                                  .build())
+                .build();
+
+        new TypeScriptCodegenPlugin().execute(context);
+
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/index.ts").get(),
+                containsString("export * from \"./models\";"));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/models/index.ts").get(),
+                not(containsString("export")));
+    }
+}
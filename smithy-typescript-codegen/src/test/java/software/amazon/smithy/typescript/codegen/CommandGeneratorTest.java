@@ -23,6 +23,77 @@ public class CommandGeneratorTest {
                 "    const stack = clientStack.concat(this.middlewareStack);");
     }
 
+    @Test
+    public void resolvesCachedMiddleware() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("output-structure.smithy"))
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .model(model)
+                .fileManifest(manifest)
+                .settings(Node.objectNodeBuilder()
+                                  .withMember("service", Node.from("smithy.example#Example"))
+                                  .withMember("package", Node.from("example"))
+                                  .withMember("packageVersion", Node.from("1.0.0"))
+                                  .withMember("cacheResolvedMiddleware", Node.from(true))
+                                  .build())
+                .build();
+
+        new TypeScriptCodegenPlugin().execute(context);
+        String contents = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "//commands/GetFooCommand.ts").get();
+        String cache = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "//commands/middlewareCache.ts").get();
+
+        assertThat(contents, containsString("import { resolveCachedMiddleware } from \"./middlewareCache\";"));
+        assertThat(contents, containsString(
+                "    const cacheable = this.middlewareStack.identify().length === 0;\n" +
+                "    this.middlewareStack.use(getSerdePlugin(configuration, this.serialize, this.deserialize));\n" +
+                "\n" +
+                "    const stack = cacheable\n" +
+                "      ? resolveCachedMiddleware(GetFooCommand, clientStack, configuration, this.middlewareStack)\n" +
+                "      : clientStack.concat(this.middlewareStack);\n" +
+                "\n" +
+                "    const { logger } = configuration;"));
+        assertThat(cache, containsString("export const resolveCachedMiddleware = "));
+        assertThat(cache, containsString("import { constructStack } from \"@aws-sdk/middleware-stack\";"));
+
+        String spec = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "//commands/middlewareCache.spec.ts").get();
+        assertThat(spec, containsString("it(\"applies the plugins of each command to its own input\""));
+        assertThat(spec, containsString("it(\"combines the stacks of commands with their own middleware\""));
+    }
+
+    @Test
+    public void filtersSensitiveLogWhenLogged() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("test-lazy-filter-sensitive-log.smithy"))
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .model(model)
+                .fileManifest(manifest)
+                .settings(Node.objectNodeBuilder()
+                                  .withMember("service", Node.from("smithy.example#Example"))
+                                  .withMember("package", Node.from("example"))
+                                  .withMember("packageVersion", Node.from("1.0.0"))
+                                  .withMember("lazyFilterSensitiveLog", Node.from(true))
+                                  .build())
+                .build();
+
+        new TypeScriptCodegenPlugin().execute(context);
+        String contents = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "//commands/GetFooCommand.ts").get();
+        String models = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "//models/models_0.ts").get();
+
+        assertThat(contents, containsString(
+                "const logsInfo = typeof logger?.info === \"function\" && !(logger instanceof __NoOpLogger);"));
+        assertThat(contents, containsString(
+                "inputFilterSensitiveLog: logsInfo ? GetFooInputFilterSensitiveLog : (input: any) => input,"));
+        assertThat(contents, containsString("outputFilterSensitiveLog: GetFooOutputFilterSensitiveLog,"));
+        assertThat(models, containsString(
+                "export const GetFooOutputFilterSensitiveLog = (obj: GetFooOutput): any => obj;"));
+    }
+
     @Test
     public void writesSerializer() {
         testCommmandCodegen("output-structure.smithy",
@@ -59,4 +59,31 @@ public class EnumGeneratorTest {
 
         assertThat(writer.toString(), containsString("export type Baz = \"BAR\" | \"FOO\""));
     }
+
+    @Test
+    public void generatesSharedValidators() {
+        EnumTrait trait = EnumTrait.builder()
+                .addEnum(EnumDefinition.builder().value("FOO").name("FOO").build())
+                .addEnum(EnumDefinition.builder().value("BAR").name("BAR").build())
+                .build();
+        StringShape shape = StringShape.builder().id("com.foo#Baz").addTrait(trait).build();
+        TypeScriptWriter writer = new TypeScriptWriter("foo");
+        Model model = Model.assembler()
+                .addShape(shape)
+                .addImport(getClass().getResource("simple-service.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build());
+        Symbol symbol = new SymbolVisitor(model, settings).toSymbol(shape);
+        new EnumGenerator(shape, symbol, writer, true).run();
+
+        assertThat(writer.toString(), containsString(
+                "export const BazValidator = new __EnumValidator([\n"
+                + "  \"FOO\",\n"
+                + "  \"BAR\",\n"
+                + "]);"));
+    }
 }
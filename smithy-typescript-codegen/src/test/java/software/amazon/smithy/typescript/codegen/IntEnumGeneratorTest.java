@@ -34,4 +34,29 @@ public class IntEnumGeneratorTest {
         assertThat(writer.toString(), containsString("export enum Foo {"));
         assertThat(writer.toString(), stringContainsInOrder("BAZ = 2,", "BAR = 5,"));
     }
+
+    @Test
+    public void generatesSharedValidators() {
+        IntEnumShape shape = IntEnumShape.builder()
+                .id("com.foo#Foo")
+                .addMember("BAR", 5)
+                .addMember("BAZ", 2)
+                .build();
+        TypeScriptWriter writer = new TypeScriptWriter("foo");
+        Model model = Model.assembler()
+                .addShape(shape)
+                .addImport(getClass().getResource("simple-service.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build());
+        Symbol symbol = new SymbolVisitor(model, settings).toSymbol(shape);
+        new IntEnumGenerator(shape, symbol, writer, true).run();
+
+        assertThat(writer.toString(), containsString("export const FooValidator = new __IntegerEnumValidator(["));
+        assertThat(writer.toString(), containsString("  5,\n"));
+        assertThat(writer.toString(), containsString("  2,\n"));
+    }
 }
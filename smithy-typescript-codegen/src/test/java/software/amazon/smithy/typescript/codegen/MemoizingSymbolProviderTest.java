@@ -0,0 +1,60 @@
+package software.amazon.smithy.typescript.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.StringShape;
+
+public class MemoizingSymbolProviderTest {
+    @Test
+    public void cachesSymbols() {
+        AtomicInteger calls = new AtomicInteger();
+        MemoizingSymbolProvider provider = new MemoizingSymbolProvider(shape -> {
+            calls.incrementAndGet();
+            return Symbol.builder().name(shape.getId().getName()).build();
+        });
+        Shape shape = StringShape.builder().id("smithy.example#Foo").build();
+
+        Symbol first = provider.toSymbol(shape);
+        Symbol second = provider.toSymbol(shape);
+
+        assertThat(second, sameInstance(first));
+        assertThat(calls.get(), equalTo(1));
+        assertThat(provider.getHits(), equalTo(1L));
+        assertThat(provider.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    public void cachesMemberNames() {
+        AtomicInteger calls = new AtomicInteger();
+        MemoizingSymbolProvider provider = new MemoizingSymbolProvider(new SymbolProvider() {
+            @Override
+            public Symbol toSymbol(Shape shape) {
+                return Symbol.builder().name(shape.getId().getName()).build();
+            }
+
+            @Override
+            public String toMemberName(MemberShape shape) {
+                calls.incrementAndGet();
+                return "_" + shape.getMemberName();
+            }
+        });
+        MemberShape member = MemberShape.builder()
+                .id("smithy.example#Foo$bar")
+                .target("smithy.api#String")
+                .build();
+
+        assertThat(provider.toMemberName(member), equalTo("_bar"));
+        assertThat(provider.toMemberName(member), equalTo("_bar"));
+        assertThat(calls.get(), equalTo(1));
+        assertThat(provider.getHits(), equalTo(1L));
+        assertThat(provider.getMisses(), equalTo(1L));
+    }
+}
@@ -0,0 +1,102 @@
+package software.amazon.smithy.typescript.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.TopDownIndex;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+
+public class ServerGeneratorTest {
+    @Test
+    public void generatesInstrumentedServiceHandler() {
+        String contents = generateServiceHandler(true);
+
+        assertThat(contents, containsString("private readonly instrumentation?: __HandlerInstrumentation;"));
+        assertThat(contents, containsString(
+                "    validationCustomizer: __ValidationCustomizer<ExampleServiceOperations>,\n"
+                + "    instrumentation?: __HandlerInstrumentation\n"));
+        assertThat(contents, containsString("if (this.instrumentation !== undefined) {\n"
+                + "      return this.handleWithInstrumentation(request, context, this.instrumentation);\n"));
+        assertThat(contents, containsString("const phaseStart = __endHandlerPhase(instrumentation, \"Example\", "
+                + "target?.operation, \"mux\", muxStart, target === undefined);"));
+        assertThat(contents, containsString("return handleInstrumented(request, context, \"GetFoo\", "
+                + "this.serializerFactory(\"GetFoo\"), this.service.GetFoo, this.serializeFrameworkException, "
+                + "GetFooServerInput.validate, this.validationCustomizer, \"Example\", instrumentation, phaseStart);"));
+        assertThat(contents, containsString("async function handleInstrumented<"));
+        assertThat(contents, containsString("  let phase: __HandlerPhase = \"deserialize\";\n"));
+        assertThat(contents, containsString("    endPhase(false, \"validate\");\n"
+                + "    let validationFailures = validationFn(input);\n"));
+        assertThat(contents, containsString("    endPhase(false, \"operation\");\n"
+                + "    let output = await operation(input, context);\n"
+                + "    endPhase(false, \"serialize\");\n"
+                + "    const response = await serializer.serialize(output, serdeContextBase);\n"
+                + "    endPhase(false, \"serialize\");\n"
+                + "    return response;\n"));
+    }
+
+    @Test
+    public void writesInstrumentedHandlerFromTheSameSteps() {
+        String instrumented = generateServiceHandler(true);
+        String plain = generateServiceHandler(false);
+
+        // The plain handle function is unchanged when instrumentation is enabled.
+        assertThat(getFunction(instrumented, "handle"), equalTo(getFunction(plain, "handle")));
+
+        // Removing the phase hooks from the instrumented function leaves the plain one.
+        String stripped = getFunction(instrumented, "handleInstrumented")
+                .replace("handleInstrumented<", "handle<")
+                .replace("validationCustomizer: __ValidationCustomizer<O>,\n"
+                        + "  serviceName: string,\n"
+                        + "  instrumentation: __HandlerInstrumentation,\n"
+                        + "  phaseStart: number\n",
+                        "validationCustomizer: __ValidationCustomizer<O>\n")
+                .replaceAll("(?m)^ *let phase: .*\n", "")
+                .replaceAll("(?s) *const endPhase = .*?\n  };\n", "")
+                .replaceAll("(?m)^ *endPhase\\(.*\n", "")
+                .replaceAll("(?m)^( *)const response = await (.*);\n *return response;\n", "$1return $2;\n");
+        assertThat(stripped, equalTo(getFunction(plain, "handle")));
+    }
+
+    private static String getFunction(String contents, String name) {
+        int start = contents.indexOf("async function " + name + "<");
+        return contents.substring(start, contents.indexOf("\n}\n", start) + 3);
+    }
+
+    @Test
+    public void doesNotInstrumentServiceHandlerByDefault() {
+        String contents = generateServiceHandler(false);
+
+        assertThat(contents, containsString("return handle(request, context, \"GetFoo\", "));
+        assertThat(contents, not(containsString("instrumentation")));
+    }
+
+    private String generateServiceHandler(boolean instrumented) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("simple-service-with-operation.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("service", Node.from("smithy.example#Example"))
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build(), ArtifactType.SSDK);
+        ServiceShape service = model.expectShape(ShapeId.from("smithy.example#Example"), ServiceShape.class);
+        Set<OperationShape> operations = TopDownIndex.of(model).getContainedOperations(service);
+        SymbolProvider symbolProvider = ArtifactType.SSDK.createSymbolProvider(model, settings);
+        TypeScriptWriter writer = new TypeScriptWriter("");
+
+        ServerGenerator.generateServiceHandler(symbolProvider, service, operations, writer, instrumented);
+
+        return writer.toString();
+    }
+}
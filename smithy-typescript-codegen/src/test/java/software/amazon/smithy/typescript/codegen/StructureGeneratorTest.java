@@ -2,6 +2,8 @@ package software.amazon.smithy.typescript.codegen;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 
 import org.junit.jupiter.api.Test;
 import software.amazon.smithy.build.MockManifest;
@@ -12,6 +14,7 @@ import software.amazon.smithy.model.loader.ModelAssembler;
 import software.amazon.smithy.model.node.Node;
 import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.shapes.StructureShape;
 
 public class StructureGeneratorTest {
@@ -586,4 +589,142 @@ public class StructureGeneratorTest {
 
         assertThat(output, containsString("export interface Bar {"));
     }
+
+    @Test
+    public void writesIdentityFiltersForStructuresWithoutSensitiveData() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("test-lazy-filter-sensitive-log.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("lazyFilterSensitiveLog", Node.from(true))
+                .build(), TypeScriptSettings.ArtifactType.CLIENT);
+        SymbolProvider symbolProvider = new SymbolVisitor(model, settings);
+
+        TypeScriptWriter writer = new TypeScriptWriter("./foo");
+        for (String name : new String[]{"GetFooInput", "Plain", "User"}) {
+            StructureShape struct = model.expectShape(ShapeId.from("smithy.example#" + name), StructureShape.class);
+            new StructureGenerator(model, symbolProvider, writer, struct, settings).run();
+        }
+        String output = writer.toString();
+
+        assertThat(output, containsString("export const PlainFilterSensitiveLog = (obj: Plain): any => obj;"));
+        assertThat(output, containsString(
+                "export const GetFooInputFilterSensitiveLog = (obj: GetFooInput): any => ({\n"
+                + "  ...obj,\n"));
+        assertThat(output, containsString(
+                "export const UserFilterSensitiveLog = (obj: User): any => ({\n"
+                + "  ...obj,\n"
+                + "  ...(obj.password && { password:\n"
+                + "    SENSITIVE_STRING\n"
+                + "  }),\n"
+                + "})"));
+    }
+
+    @Test
+    public void generatesCompiledValidators() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("validation/compiled-validation.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("compileValidators", Node.from(true))
+                .build(), TypeScriptSettings.ArtifactType.SSDK);
+        StructureShape struct = model.expectShape(ShapeId.from("smithy.example#Foo"), StructureShape.class);
+
+        TypeScriptWriter writer = new TypeScriptWriter("./foo");
+        new StructureGenerator(model, new SymbolVisitor(model, settings), writer, struct, settings).run();
+        String output = writer.toString();
+
+        assertThat(output, containsString(
+                "export const validate = (obj: Foo, path: string = \"\"): __ValidationFailure[] => {\n"
+                + "    const failures: __ValidationFailure[] = [];\n"
+                + "    validateInto(obj, path, failures);\n"
+                + "    return failures;\n"
+                + "  };"));
+        assertThat(output, containsString(
+                "export const validateInto = (obj: Foo, path: string, failures: __ValidationFailure[]): void => {"));
+        assertThat(output, containsString(
+                "    {\n"
+                + "      const value = obj.name;\n"
+                + "      if (value === undefined || value === null) {\n"
+                + "        failures.push(new __RequiredValidationFailure(`${path}/name`));\n"
+                + "      } else {\n"
+                + "        {\n"
+                + "          const length = __lengthOf(value);\n"
+                + "          if (length < 1 || length > 10) {\n"));
+        assertThat(output, containsString("if (!pattern0.test(value)) {"));
+        assertThat(output, containsString("const pattern0 = new __PatternValidator(\"^[a-z]+$\");"));
+        assertThat(output, containsString("if (value < 1) {"));
+        assertThat(output, containsString("const repeats = __findDuplicatePrimitives(value as any[]);"));
+        assertThat(output, containsString("const length = value.length;"));
+        assertThat(output, containsString(
+                "for (const item0 of value) {\n"
+                + "          if (item0 !== undefined && item0 !== null) {\n"));
+        assertThat(output, containsString("path: `${path}/tags/${i0}`, failureValue: length });"));
+        assertThat(output, containsString("const sensitiveStart = failures.length;"));
+        assertThat(output, containsString("Bar.validateInto(value, `${path}/bar`, failures);"));
+        assertThat(output, containsString("failures[i] = { ...failures[i], failureValue: null };"));
+        assertThat(output, not(containsString("obj.unconstrained")));
+        assertThat(output, not(containsString("__CompositeValidator")));
+    }
+
+    @Test
+    public void specializesUniqueItemsValidatorsByMemberType() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("validation/unique-items.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build());
+        StructureShape struct = model.expectShape(ShapeId.from("smithy.example#Lists"), StructureShape.class);
+
+        TypeScriptWriter writer = new TypeScriptWriter("./foo");
+        new StructureGenerator(model, new SymbolVisitor(model, settings), writer, struct, true).run();
+        String output = writer.toString();
+
+        assertThat(output, containsString("new __UniqueItemsValidator(__findDuplicatePrimitives),"));
+        assertThat(output, containsString("new __UniqueItemsValidator(__findDuplicateBlobs),"));
+        assertThat(output, containsString("new __UniqueItemsValidator(),"));
+        assertThat(StructuredMemberWriter.getDuplicateFinder(model,
+                model.expectShape(ShapeId.from("smithy.example#SparseBlobList"))), equalTo("findDuplicates"));
+    }
+
+    @Test
+    public void referencesSharedEnumValidators() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("validation/enum-validation.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build());
+        StructureShape struct = model.expectShape(ShapeId.from("smithy.example#Card"), StructureShape.class);
+
+        TypeScriptWriter writer = new TypeScriptWriter("./foo");
+        new StructureGenerator(model, new SymbolVisitor(model, settings), writer, struct, true).run();
+        String output = writer.toString();
+        assertThat(output, containsString("SuitValidator,"));
+        assertThat(output, containsString("RankValidator,"));
+        assertThat(output, not(containsString("new __EnumValidator")));
+
+        TypeScriptSettings compiledSettings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("compileValidators", Node.from(true))
+                .build(), TypeScriptSettings.ArtifactType.SSDK);
+        TypeScriptWriter compiledWriter = new TypeScriptWriter("./foo");
+        new StructureGenerator(model, new SymbolVisitor(model, compiledSettings), compiledWriter, struct,
+                compiledSettings).run();
+        String compiledOutput = compiledWriter.toString();
+        assertThat(compiledOutput, containsString("const failure = SuitValidator.validate(value, `${path}/suit`);"));
+        assertThat(compiledOutput, containsString("const failure = RankValidator.validate(value, `${path}/rank`);"));
+    }
 }
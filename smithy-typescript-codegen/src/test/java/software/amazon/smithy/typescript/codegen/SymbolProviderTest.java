@@ -61,7 +61,9 @@ public class SymbolProviderTest {
         Symbol symbol1 = provider.toSymbol(shape1);
         Symbol symbol2 = provider.toSymbol(shape2);
         MockManifest manifest = new MockManifest();
-        SymbolVisitor.writeModelIndex(Arrays.asList(shape1, shape2), provider, manifest);
+        BarrelIndexCollector indexes = new BarrelIndexCollector();
+        SymbolVisitor.addModelExports(Arrays.asList(shape1, shape2), provider, indexes);
+        indexes.writeIndexes(manifest);
 
         assertThat(symbol1.getName(), equalTo("Hello"));
         assertThat(symbol1.getNamespace(), equalTo("./" + CodegenUtils.SOURCE_FOLDER + "/models/models_0"));
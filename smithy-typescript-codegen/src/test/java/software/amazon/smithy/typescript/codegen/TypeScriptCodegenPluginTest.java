@@ -3,15 +3,23 @@ package software.amazon.smithy.typescript.codegen;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import software.amazon.smithy.build.MockManifest;
 import software.amazon.smithy.build.PluginContext;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.node.Node;
 import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.utils.IoUtils;
 
 public class TypeScriptCodegenPluginTest {
     @Test
@@ -98,6 +106,171 @@ public class TypeScriptCodegenPluginTest {
         assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/ExampleClient.ts").get(), containsString("export class ExampleClient"));
     }
 
+    @Test
+    public void generatesIdenticalOutputInParallel() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+
+        MockManifest serial = generate(model, 1);
+        MockManifest parallel = generate(model, 4);
+
+        assertThat(parallel.getFiles(), equalTo(serial.getFiles()));
+        for (Path file : serial.getFiles()) {
+            assertThat(parallel.getFileString(file), equalTo(serial.getFileString(file)));
+        }
+    }
+
+    @Test
+    public void reusesIncrementalCodegenCache(@TempDir Path tempDir) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+        Path cacheFile = tempDir.resolve("codegen-cache.json");
+        ObjectNode incremental = Node.objectNode()
+                .withMember("incrementalCodegenCache", Node.from(cacheFile.toString()));
+
+        MockManifest expected = generate(model, 1);
+        MockManifest first = generate(model, new MockManifest(tempDir), incremental);
+        String cache = IoUtils.readUtf8File(cacheFile);
+        MockManifest second = generate(model, new MockManifest(tempDir), incremental);
+
+        assertThat(cache, containsString("structure:smithy.example#Foo"));
+        assertThat(cache, containsString("command:smithy.example#GetFoo"));
+        for (MockManifest manifest : Arrays.asList(first, second)) {
+            assertThat(manifest.getFiles(), equalTo(expected.getFiles()));
+            for (Path file : expected.getFiles()) {
+                assertThat(manifest.getFileString(file), equalTo(expected.getFileString(file)));
+            }
+        }
+        assertThat(IoUtils.readUtf8File(cacheFile), equalTo(cache));
+    }
+
+    @Test
+    public void invalidatesIncrementalCodegenCacheWhenServiceChanges(@TempDir Path tempDir) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+        ServiceShape service = model.expectShape(ShapeId.from("smithy.example#Example"), ServiceShape.class);
+        Model documented = model.toBuilder()
+                .addShape(service.toBuilder().addTrait(new DocumentationTrait("Changed.")).build())
+                .build();
+        Path cacheFile = tempDir.resolve("codegen-cache.json");
+        ObjectNode incremental = Node.objectNode()
+                .withMember("incrementalCodegenCache", Node.from(cacheFile.toString()));
+
+        generate(model, new MockManifest(tempDir), incremental);
+        String before = entryHash(cacheFile, "command:smithy.example#GetFoo");
+        generate(documented, new MockManifest(tempDir), incremental);
+
+        assertThat(entryHash(cacheFile, "command:smithy.example#GetFoo"), not(equalTo(before)));
+    }
+
+    private static String entryHash(Path cacheFile, String key) {
+        return Node.parse(IoUtils.readUtf8File(cacheFile)).expectObjectNode()
+                .expectObjectMember("entries")
+                .expectObjectMember(key)
+                .expectStringMember("hash")
+                .getValue();
+    }
+
+    @Test
+    public void generatesPrefetchingPaginators() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+
+        MockManifest manifest = generate(model, new MockManifest(), Node.objectNode()
+                .withMember("prefetchingPaginators", Node.from(true)));
+        String paginator = manifest.getFileString(
+                CodegenUtils.SOURCE_FOLDER + "/pagination/ListFoosPaginator.ts").get();
+
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/pagination/Interfaces.ts").get(),
+                containsString("prefetchPages?: number;"));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/pagination/prefetchPages.ts").get(),
+                containsString("export async function* prefetchPages<Token, Page>("));
+        assertThat(paginator, containsString("import { prefetchPages } from \"./prefetchPages\";"));
+        assertThat(paginator, containsString(
+                "  if (config.prefetchPages !== undefined && config.prefetchPages > 0) {\n"
+                + "    const requestPage = async (pageToken: typeof token): Promise<ListFoosCommandOutput> => {\n"
+                + "      input.nextToken = pageToken;\n"
+                + "      input[\"maxResults\"] = config.pageSize;\n"));
+        assertThat(paginator, containsString(
+                "    yield* prefetchPages(config.prefetchPages, token, requestPage, getNextToken);"));
+    }
+
+    @Test
+    public void generatesSharedWaiterMatchers() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("waiter-matchers.smithy"))
+                .assemble()
+                .unwrap();
+
+        MockManifest manifest = generate(model, new MockManifest(), Node.objectNode()
+                .withMember("compiledWaiterMatchers", Node.from(true)));
+        String matchers = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/matchers.ts").get();
+        String waiter = manifest.getFileString(
+                CodegenUtils.SOURCE_FOLDER + "/waiters/waitForClustersRunning.ts").get();
+
+        assertThat(matchers, containsString("export const pathMatcher1 = (value: any): boolean => {"));
+        assertThat(matchers, containsString("export const pathMatcher2 = (value: any): boolean => {"));
+        assertThat(matchers, not(containsString("pathMatcher3")));
+        assertThat(matchers, containsString("          if (flat_4.state != \"RUNNING\") {\n"));
+        assertThat(matchers, containsString("        if (flat_2.state == \"FAILED\") {\n"));
+        assertThat(waiter, containsString("from \"./matchers\";"));
+        assertThat(waiter, not(containsString("returnComparator")));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/index.ts").get(),
+                not(containsString("matchers")));
+    }
+
+    @Test
+    public void generatesAdaptiveWaiters() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("multi-operation-service.smithy"))
+                .assemble()
+                .unwrap();
+
+        MockManifest manifest = generate(model, new MockManifest(), Node.objectNode()
+                .withMember("adaptiveWaiters", Node.from(true)));
+        String waiter = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/waitForFooExists.ts").get();
+
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/adaptiveWaiter.ts").get(),
+                containsString("export const createAdaptiveWaiter = async <Client, Input>("));
+        assertThat(manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/waiters/index.ts").get(),
+                containsString("export * from \"./adaptiveWaiter\";"));
+        assertThat(waiter, containsString(
+                "export const waitUntilFooExists = async (params: AdaptiveWaiterConfiguration<ExampleClient>, "));
+        assertThat(waiter, containsString(
+                "const result = await createAdaptiveWaiter({...serviceDefaults, ...params}, input, \"FooExists\", "
+                + "checkState);"));
+        assertThat(waiter, not(containsString("createWaiter(")));
+    }
+
+    private MockManifest generate(Model model, int parallelism) {
+        return generate(model, new MockManifest(), Node.objectNode()
+                .withMember("codegenParallelism", Node.from(parallelism)));
+    }
+
+    private MockManifest generate(Model model, MockManifest manifest, ObjectNode settings) {
+        PluginContext context = PluginContext.builder()
+                .model(model)
+                .fileManifest(manifest)
+                .settings(Node.objectNodeBuilder()
+                                  .withMember("service", Node.from("smithy.example#Example"))
+                                  .withMember("package", Node.from("example"))
+                                  .withMember("packageVersion", Node.from("1.0.0"))
+                                  .build()
+                                  .merge(settings))
+                .build();
+
+        new TypeScriptCodegenPlugin().execute(context);
+        return manifest;
+    }
+
     @Test
     public void invokesOnWriterCustomizations() {
         // TODO
@@ -160,4 +160,42 @@ public class TypeScriptJmesPathVisitorTest {
         assertThat(result,
                 equalTo(CODEGEN_INDICATOR + "let returnComparator = () => {\n  let filterRes_2 = result.services.filter((element_1: any) => {\n    return (!((element_1.deployments.length == 1.0) && (element_1.runningCount == element_1.desiredCount)));\n  });\n  return (filterRes_2.length == 0.0);\n}\n"));
     }
+
+    @Test
+    public void createsAllStringEqualsMatcherOverNestedProjections() {
+        TypeScriptWriter writer = new TypeScriptWriter("test");
+        JmespathExpression expression = JmespathExpression.parse("clusters[].nodes[].state");
+        new TypeScriptJmesPathVisitor(writer, "value", expression).writeAllStringEqualsMatcher("RUNNING");
+
+        assertThat(writer.toString(), equalTo(CODEGEN_INDICATOR
+                + "let matched_1 = false;\n"
+                + "for (const element_2 of value.clusters) {\n"
+                + "  for (const flat_3 of Array.isArray(element_2) ? element_2 : [element_2]) {\n"
+                + "    for (const flat_4 of Array.isArray(flat_3.nodes) ? flat_3.nodes : [flat_3.nodes]) {\n"
+                + "      if (flat_4.state != \"RUNNING\") {\n"
+                + "        return false;\n"
+                + "      }\n"
+                + "      matched_1 = true;\n"
+                + "    }\n"
+                + "  }\n"
+                + "}\n"
+                + "return matched_1;\n"));
+    }
+
+    @Test
+    public void createsAnyStringEqualsMatcherOverFilterProjection() {
+        TypeScriptWriter writer = new TypeScriptWriter("test");
+        JmespathExpression expression = JmespathExpression.parse("items[?size > `1`].state");
+        new TypeScriptJmesPathVisitor(writer, "value", expression).writeAnyStringEqualsMatcher("FAILED");
+
+        assertThat(writer.toString(), equalTo(CODEGEN_INDICATOR
+                + "for (const element_1 of value.items) {\n"
+                + "  if ((element_1.size > 1.0)) {\n"
+                + "    if (element_1.state == \"FAILED\") {\n"
+                + "      return true;\n"
+                + "    }\n"
+                + "  }\n"
+                + "}\n"
+                + "return false;\n"));
+    }
 }
@@ -3,12 +3,14 @@ package software.amazon.smithy.typescript.codegen.endpointsV2;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 import org.junit.jupiter.api.Test;
 import software.amazon.smithy.build.MockManifest;
 import software.amazon.smithy.build.PluginContext;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
 import software.amazon.smithy.typescript.codegen.CodegenUtils;
 import software.amazon.smithy.typescript.codegen.TypeScriptCodegenPlugin;
 
@@ -58,7 +60,83 @@ public class EndpointsV2GeneratorTest {
                 "  }\n"));
     }
 
+    @Test
+    public void compilesRuleSet() {
+        MockManifest manifest = generateEndpoints("endpoints.smithy",
+                Node.objectNode().withMember("compileEndpointRuleSet", Node.from(true)));
+
+        assertThat(manifest.hasFile(CodegenUtils.SOURCE_FOLDER + "/endpoint/ruleset.ts"), is(false));
+        assertThat(manifest.hasFile(CodegenUtils.SOURCE_FOLDER + "/endpoint/endpointFunctions.ts"), is(true));
+
+        String resolver = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/endpoint/endpointResolver.ts").get();
+
+        assertThat(resolver, containsString("import { parseURL } from \"./endpointFunctions\";"));
+        assertThat(resolver, containsString("export const defaultEndpointResolver = "
+                + "(endpointParams: EndpointParameters, context: { logger?: Logger } = {}): EndpointV2 => {\n"
+                + "  const Region = endpointParams.Region ?? \"us-east-1\";\n"));
+        assertThat(resolver, containsString("const Endpoint = endpointParams.Endpoint;"));
+        assertThat(resolver, containsString(
+                "if (Region == null) {\n"
+                + "    throw new EndpointError(\"Missing required parameter: 'Region'\");\n"));
+        assertThat(resolver, containsString("if (Endpoint != null) {"));
+        assertThat(resolver, containsString("const url = parseURL(Endpoint);"));
+        assertThat(resolver, containsString("if (url != null) {"));
+        assertThat(resolver, containsString("url: new URL(Endpoint),"));
+        assertThat(resolver, containsString("if (Stage === \"staging\") {"));
+        assertThat(resolver, containsString("url: new URL(`https://${Region}.staging.example.com/2023-01-01`),"));
+        assertThat(resolver, containsString(
+                "throw new EndpointError(\"Region must be set to resolve a valid endpoint\");"));
+        assertThat(resolver, containsString("throw new EndpointError(\"Rules evaluation failed\");"));
+    }
+
+    @Test
+    public void scopesSiblingRulesThatAssignTheSameName() {
+        MockManifest manifest = generateEndpoints("endpoints-sibling-assign.smithy",
+                Node.objectNode().withMember("compileEndpointRuleSet", Node.from(true)));
+
+        String resolver = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/endpoint/endpointResolver.ts").get();
+        String scopedRule = "  {\n"
+                + "    const url = parseURL(Endpoint);\n"
+                + "    if (url != null) {\n";
+
+        int first = resolver.indexOf(scopedRule);
+        assertThat(first, not(-1));
+        assertThat(resolver.indexOf(scopedRule, first + 1), not(-1));
+        assertThat(resolver, not(containsString("\n  const url = ")));
+    }
+
+    @Test
+    public void cachesResolvedEndpoints() {
+        MockManifest manifest = generateEndpoints("endpoints.smithy",
+                Node.objectNode().withMember("endpointCacheSize", Node.from(50)));
+
+        assertThat(manifest.hasFile(CodegenUtils.SOURCE_FOLDER + "/endpoint/EndpointCache.ts"), is(true));
+
+        String endpointParameters = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/endpoint/EndpointParameters.ts").get();
+
+        assertThat(endpointParameters, containsString("import { EndpointCache } from \"./EndpointCache\";"));
+        assertThat(endpointParameters, containsString("endpointCacheSize?: number;"));
+        assertThat(endpointParameters, containsString("endpointCache: EndpointCache;"));
+        assertThat(endpointParameters, containsString(
+                "const endpointCache = new EndpointCache(options.endpointCacheSize ?? 50, "
+                + "[\"Region\", \"Stage\", \"Endpoint\"]);"));
+        assertThat(endpointParameters, containsString(
+                "    endpointCache,\n"
+                + "    ...(options.endpointProvider && "
+                + "{ endpointProvider: endpointCache.wrap(options.endpointProvider) }),\n"));
+    }
+
     private MockManifest testEndpoints(String filename) {
+        MockManifest manifest = generateEndpoints(filename, Node.objectNode());
+
+        String contents = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/endpoint/ruleset.ts").get();
+
+        assertThat(contents, containsString("export const ruleSet: RuleSetObject"));
+
+        return manifest;
+    }
+
+    private MockManifest generateEndpoints(String filename, ObjectNode settings) {
         MockManifest manifest = new MockManifest();
         PluginContext context = PluginContext.builder()
                 .pluginClassLoader(getClass().getClassLoader())
@@ -72,7 +150,8 @@ public class EndpointsV2GeneratorTest {
                         .withMember("service", Node.from("smithy.example#Example"))
                         .withMember("package", Node.from("example"))
                         .withMember("packageVersion", Node.from("1.0.0"))
-                        .build())
+                        .build()
+                        .merge(settings))
                 .build();
 
         new TypeScriptCodegenPlugin().execute(context);
@@ -82,10 +161,6 @@ public class EndpointsV2GeneratorTest {
         assertThat(manifest.hasFile(CodegenUtils.SOURCE_FOLDER + "/endpoint/endpointResolver.ts"),
                 is(true));
 
-        String contents = manifest.getFileString(CodegenUtils.SOURCE_FOLDER + "/endpoint/ruleset.ts").get();
-
-        assertThat(contents, containsString("export const ruleSet: RuleSetObject"));
-
         return manifest;
     }
 }
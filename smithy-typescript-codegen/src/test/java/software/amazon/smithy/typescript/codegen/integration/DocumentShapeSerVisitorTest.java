@@ -0,0 +1,110 @@
+package software.amazon.smithy.typescript.codegen.integration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.CollectionShape;
+import software.amazon.smithy.model.shapes.DocumentShape;
+import software.amazon.smithy.model.shapes.MapShape;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.shapes.UnionShape;
+import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+public class DocumentShapeSerVisitorTest {
+
+    @Test
+    public void writesSpecializedStructureSerializers() {
+        String output = serializeStructure("smithy.example#Foo", true);
+
+        assertThat(output, containsString("  return {\n"
+                + "    \"name\": input.name ?? undefined,\n"
+                + "    \"created\": input.created != null ? Math.round(input.created.getTime() / 1000) : undefined,\n"
+                + "    \"bar\": input.bar != null ? serializeJsonBar(input.bar, context) : undefined,\n"
+                + "    \"token\": (input.token ?? generateIdempotencyToken()),\n"
+                + "  };"));
+        assertThat(output, not(containsString("serializeStructure")));
+    }
+
+    @Test
+    public void delegatesStructuresWithoutMembers() {
+        assertThat(serializeStructure("smithy.example#Empty", true), containsString("serializeStructure"));
+    }
+
+    @Test
+    public void delegatesStructuresByDefault() {
+        String output = serializeStructure("smithy.example#Foo", false);
+
+        assertThat(output, containsString("serializeStructure"));
+        assertThat(output, not(containsString("return {")));
+    }
+
+    private String serializeStructure(String shapeId, boolean specializedSerializers) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("specialized-serializers.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("specializedSerializers", Node.from(specializedSerializers))
+                .build(), TypeScriptSettings.ArtifactType.CLIENT);
+        GenerationContext context = new GenerationContext();
+        context.setProtocolName("json");
+        context.setModel(model);
+        context.setSettings(settings);
+        context.setSymbolProvider(settings.getArtifactType().createSymbolProvider(model, settings));
+        context.setWriter(new TypeScriptWriter("foo"));
+
+        model.expectShape(ShapeId.from(shapeId), StructureShape.class).accept(new TestSerVisitor(context));
+        return context.getWriter().toString();
+    }
+
+    private static final class TestSerVisitor extends DocumentShapeSerVisitor {
+        TestSerVisitor(GenerationContext context) {
+            super(context);
+        }
+
+        @Override
+        protected Optional<DocumentMemberSerVisitor> getSpecializedMemberVisitor(
+                MemberShape member,
+                String dataSource
+        ) {
+            return Optional.of(new DocumentMemberSerVisitor(getContext(), dataSource, Format.EPOCH_SECONDS));
+        }
+
+        @Override
+        protected void serializeCollection(GenerationContext context, CollectionShape shape) {
+            context.getWriter().write("serializeCollection");
+        }
+
+        @Override
+        protected void serializeDocument(GenerationContext context, DocumentShape shape) {
+            context.getWriter().write("serializeDocument");
+        }
+
+        @Override
+        protected void serializeMap(GenerationContext context, MapShape shape) {
+            context.getWriter().write("serializeMap");
+        }
+
+        @Override
+        protected void serializeStructure(GenerationContext context, StructureShape shape) {
+            context.getWriter().write("serializeStructure");
+        }
+
+        @Override
+        protected void serializeUnion(GenerationContext context, UnionShape shape) {
+            context.getWriter().write("serializeUnion");
+        }
+    }
+}
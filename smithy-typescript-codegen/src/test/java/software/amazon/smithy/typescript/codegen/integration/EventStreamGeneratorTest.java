@@ -0,0 +1,142 @@
+package software.amazon.smithy.typescript.codegen.integration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.traits.HttpBearerAuthTrait;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+public class EventStreamGeneratorTest {
+    @Test
+    public void writesEventHeaderTemplates() {
+        String output = generateEventStreamSerializers(false);
+
+        assertThat(output, containsString(
+                "const serializeJsonReading_eventHeaders: __MessageHeaders = {\n"
+                + "  \":event-type\": { type: \"string\", value: \"Reading\" },\n"
+                + "  \":message-type\": { type: \"string\", value: \"event\" },\n"
+                + "  \":content-type\": { type: \"string\", value: \"application/json\" },\n"
+                + "};\n"));
+        assertThat(output, containsString("  const headers = serializeJsonReading_eventHeaders;\n"
+                + "  let body: any = serializeJsonReading(input, context);\n"
+                + "  body = context.utf8Decoder(JSON.stringify(body));\n"
+                + "  return { headers, body };\n"));
+        assertThat(output, containsString(
+                "  const headers: __MessageHeaders = { ...serializeJsonAudio_eventHeaders };\n"));
+        assertThat(output, containsString("  return { headers, body: body ?? new Uint8Array() };\n"));
+        assertThat(output, containsString(
+                "  return context.eventStreamMarshaller.serialize(input, eventMarshallingVisitor);\n"));
+        assertThat(output, not(containsString("batchEventMessages")));
+    }
+
+    @Test
+    public void batchesEventMessages() {
+        String output = generateEventStreamSerializers(true);
+
+        assertThat(output, containsString("const batchEventMessages = ("));
+        assertThat(output, containsString(
+                "  return batchEventMessages(context.eventStreamMarshaller.serialize(input, "
+                + "eventMarshallingVisitor));\n"));
+    }
+
+    @Test
+    public void doesNotBatchSignedEventMessages() {
+        GenerationContext context = createContext(Node.objectNode()
+                .withMember("batchedEventStreams", Node.from(true)));
+        ServiceShape service = context.getService().toBuilder().addTrait(new HttpBearerAuthTrait()).build();
+        context.setModel(context.getModel().toBuilder().addShape(service).build());
+        context.setService(service);
+        String output = generateEventStreamSerializers(context);
+
+        assertThat(output, containsString(
+                "  return context.eventStreamMarshaller.serialize(input, eventMarshallingVisitor);\n"));
+        assertThat(output, not(containsString("batchEventMessages")));
+    }
+
+    @Test
+    public void dispatchesEventsByType() {
+        GenerationContext context = createContext(Node.objectNode().withMember("eventTypeDispatch", Node.from(true)));
+        String output = generateEventStreamDeserializers(context);
+
+        assertThat(output, containsString(
+                "    async event => {\n"
+                + "      const eventType = Object.keys(event)[0];\n"
+                + "      switch (eventType) {\n"
+                + "        case \"reading\":\n"
+                + "          return { reading: await deserializeJsonReading_event(event[\"reading\"], context) };\n"
+                + "        case \"status\":\n"
+                + "          return { status: await deserializeJsonStatus_event(event[\"status\"], context) };\n"
+                + "        default:\n"
+                + "          return { $unknown: [eventType, event[eventType]] };\n"
+                + "      }\n"
+                + "    }\n"));
+        assertThat(output, containsString(
+                "  const contents: Status = {} as any;\n"
+                + "  if (output.headers[\"state\"] !== undefined) {\n"
+                + "    contents.state = output.headers[\"state\"].value;\n"
+                + "  }\n"
+                + "  return contents;\n"));
+        assertThat(output, containsString("Object.assign(contents, deserializeJsonReading(data, context));"));
+    }
+
+    @Test
+    public void parsesEventBodiesByDefault() {
+        String output = generateEventStreamDeserializers(createContext(Node.objectNode()));
+
+        assertThat(output, containsString("if (event[\"status\"] != null) {"));
+        assertThat(output, containsString("Object.assign(contents, deserializeJsonStatus(data, context));"));
+        assertThat(output, not(containsString("switch (eventType)")));
+    }
+
+    private String generateEventStreamDeserializers(GenerationContext context) {
+        new EventStreamGenerator().generateEventStreamDeserializers(
+                context, context.getService(), new TreeSet<>(), new TreeSet<>(), false);
+        return context.getWriter().toString();
+    }
+
+    private String generateEventStreamSerializers(boolean batchedEventStreams) {
+        return generateEventStreamSerializers(createContext(Node.objectNode()
+                .withMember("batchedEventStreams", Node.from(batchedEventStreams))));
+    }
+
+    private String generateEventStreamSerializers(GenerationContext context) {
+        Set<Shape> documentShapes = new TreeSet<>();
+        new EventStreamGenerator().generateEventStreamSerializers(
+                context, context.getService(), "application/json",
+                () -> context.getWriter().write("body = context.utf8Decoder(JSON.stringify(body));"),
+                documentShapes);
+        return context.getWriter().toString();
+    }
+
+    private GenerationContext createContext(ObjectNode settingsNode) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("event-stream.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("service", Node.from("smithy.example#Example"))
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .build()
+                .merge(settingsNode), TypeScriptSettings.ArtifactType.CLIENT);
+        GenerationContext context = new GenerationContext();
+        context.setProtocolName("json");
+        context.setModel(model);
+        context.setSettings(settings);
+        context.setService(settings.getService(model));
+        context.setSymbolProvider(settings.getArtifactType().createSymbolProvider(model, settings));
+        context.setWriter(new TypeScriptWriter("foo"));
+        return context;
+    }
+}
@@ -0,0 +1,112 @@
+package software.amazon.smithy.typescript.codegen.integration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+public class HttpBindingProtocolGeneratorTest {
+    @Test
+    public void parsesPaginatedItemsWhileReadingTheBody() {
+        String contents = generateResponseDeserializers("streamingListOutput");
+
+        assertThat(contents, containsString("const data: Record<string, any> = __expectNonNull("
+                + "(__expectObject(await parseBodyWithItems(output.body, context, \"items\", (item: any) => "));
+        assertThat(contents, containsString("Item(item, context)))), \"body\");"));
+        assertThat(contents, containsString("if (data[\"items\"] != null) {\n"
+                + "    contents.items = data[\"items\"];\n"));
+        assertThat(contents, containsString("class JsonItemsParser {"));
+        // The parser is written as it is, without being interpreted as a format string.
+        assertThat(contents, containsString("throw new SyntaxError(`Unexpected token ${c} in JSON`);"));
+        assertThat(contents, containsString("const member = JSON.parse(`{${text}}`);"));
+    }
+
+    @Test
+    public void parsesWholeBodyByDefault() {
+        String contents = generateResponseDeserializers(null);
+
+        assertThat(contents, containsString(
+                "= __expectNonNull((__expectObject(await parseBody(output.body, context))), \"body\");"));
+        assertThat(contents, not(containsString("parseBodyWithItems")));
+        assertThat(contents, not(containsString("defineLazyMember")));
+    }
+
+    @Test
+    public void definesLazyDocumentMembers() {
+        String contents = generateResponseDeserializers("lazyOutput");
+
+        assertThat(contents, containsString("defineLazyMember(contents, \"metadata\", () => {\n"
+                + "    const contents: any = {};\n"
+                + "    contents.metadata = data.metadata;\n"
+                + "    return contents[\"metadata\"];\n"
+                + "  });"));
+        assertThat(contents, containsString("defineLazyMember(contents, \"owner\", () => {"));
+        assertThat(contents, containsString("const defineLazyMember = "
+                + "(contents: any, name: string, deserialize: () => any): void => {"));
+    }
+
+    @Test
+    public void wrapsBufferedStreamingPayloadsOfServerRequests() {
+        GenerationContext context = createContext("http-binding-streaming.smithy", ArtifactType.SSDK, null);
+        new MockHttpBindingProtocolGenerator().generateRequestDeserializers(context);
+        String contents = context.getWriter().toString();
+
+        assertThat(contents, containsString("as __Readable"));
+        assertThat(contents, containsString(
+                "const data: any = output.body instanceof Uint8Array ? __Readable.from([output.body]) : output.body;"));
+    }
+
+    @Test
+    public void passesStreamingPayloadsOfClientResponsesAsTheyAre() {
+        GenerationContext context = createContext("http-binding-streaming.smithy", ArtifactType.CLIENT, null);
+        new MockHttpBindingProtocolGenerator().generateResponseDeserializers(context);
+        String contents = context.getWriter().toString();
+
+        assertThat(contents, containsString("const data: any = output.body;\n"
+                + "  context.sdkStreamMixin(data);\n"));
+        assertThat(contents, not(containsString("__Readable")));
+    }
+
+    private String generateResponseDeserializers(String option) {
+        GenerationContext context = createContext("http-binding-outputs.smithy", ArtifactType.CLIENT, option);
+        ProtocolGenerator generator = new MockHttpBindingProtocolGenerator();
+        generator.generateResponseDeserializers(context);
+        generator.generateSharedComponents(context);
+
+        return context.getWriter().toString();
+    }
+
+    private GenerationContext createContext(String modelFile, ArtifactType artifactType, String option) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource(modelFile))
+                .discoverModels()
+                .assemble()
+                .unwrap();
+        ObjectNode.Builder config = Node.objectNodeBuilder()
+                .withMember("service", Node.from("smithy.example#Example"))
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"));
+        if (option != null) {
+            config.withMember(option, Node.from(true));
+        }
+        TypeScriptSettings settings = TypeScriptSettings.from(model, config.build(), artifactType);
+        GenerationContext context = new GenerationContext();
+        context.setSettings(settings);
+        context.setModel(model);
+        context.setService(model.expectShape(ShapeId.from("smithy.example#Example"), ServiceShape.class));
+        context.setSymbolProvider(artifactType.createSymbolProvider(model, settings));
+        context.setWriter(new TypeScriptWriter(""));
+        context.setProtocolName("mockJson");
+        return context;
+    }
+}
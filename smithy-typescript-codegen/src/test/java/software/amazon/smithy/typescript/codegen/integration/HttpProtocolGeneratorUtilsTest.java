@@ -3,18 +3,25 @@ package software.amazon.smithy.typescript.codegen.integration;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.knowledge.HttpBinding.Location;
+import software.amazon.smithy.model.node.Node;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.shapes.StructureShape;
 import software.amazon.smithy.model.shapes.TimestampShape;
 import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
+import software.amazon.smithy.typescript.codegen.ApplicationProtocol;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
 import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
 import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
 
@@ -78,6 +85,112 @@ public class HttpProtocolGeneratorUtilsTest {
                 "throw new Error(\"ValidationError: prefixed hostname must be hostname compatible."));
     }
 
+    @Test
+    public void writesDefineLazyMember() {
+        GenerationContext mockContext = new GenerationContext();
+        TypeScriptWriter writer = new TypeScriptWriter("foo");
+        mockContext.setWriter(writer);
+
+        HttpProtocolGeneratorUtils.generateDefineLazyMember(mockContext);
+        assertThat(writer.toString(), containsString(
+                "const defineLazyMember = (contents: any, name: string, deserialize: () => any): void => {"));
+        assertThat(writer.toString(), containsString(
+                "    if (value === undefined) {\n"
+                + "      delete contents[name];\n"
+                + "    } else {\n"
+                + "      Object.defineProperty(contents, name, "
+                + "{ value, writable: true, enumerable: true, configurable: true });\n"
+                + "    }\n"));
+        assertThat(writer.toString(), containsString(
+                "    get: () => {\n"
+                + "      const value = deserialize();\n"
+                + "      setValue(value);\n"
+                + "      return value;\n"
+                + "    },\n"
+                + "    set: setValue,\n"));
+    }
+
+    @Test
+    public void writesParseBodyWithItems() {
+        GenerationContext mockContext = new GenerationContext();
+        TypeScriptWriter writer = new TypeScriptWriter("foo");
+        mockContext.setWriter(writer);
+
+        HttpProtocolGeneratorUtils.generateParseBodyWithItems(mockContext);
+        assertThat(writer.toString(), containsString("const parseBodyWithItems = async ("));
+        assertThat(writer.toString(), containsString("parser.write(await collectBodyString(streamBody, context));"));
+        assertThat(writer.toString(), containsString("class JsonItemsParser {"));
+    }
+
+    @Test
+    public void writesErrorDispatchTable() {
+        String output = generateErrorDispatcher(true);
+
+        assertThat(output, containsString(
+                "let deserializeJsonGetFooCommandErrorDeserializers: "
+                + "Map<string, (output: any, context: __SerdeContext) => Promise<any>> | undefined;"));
+        assertThat(output, containsString(
+                "  deserializeJsonGetFooCommandErrorDeserializers ??= "
+                + "new Map<string, (output: any, context: __SerdeContext) => Promise<any>>([\n"
+                + "    [\"NotFound\", deserializeJsonNotFoundResponse],\n"
+                + "    [\"smithy.example#NotFound\", deserializeJsonNotFoundResponse],\n"
+                + "    [\"Throttled\", deserializeJsonThrottledResponse],\n"
+                + "    [\"smithy.example#Throttled\", deserializeJsonThrottledResponse],\n"
+                + "  ]);\n"
+                + "  const deserializeError = "
+                + "deserializeJsonGetFooCommandErrorDeserializers.get(errorCode as string);\n"
+                + "  if (deserializeError !== undefined) {\n"
+                + "    throw await deserializeError(parsedOutput, context);\n"
+                + "  }\n"
+                + "  const parsedBody = parsedOutput.body;\n"));
+        assertThat(output, not(containsString("switch (errorCode)")));
+    }
+
+    @Test
+    public void writesErrorDispatchSwitchByDefault() {
+        String output = generateErrorDispatcher(false);
+
+        assertThat(output, containsString(
+                "  switch (errorCode) {\n"
+                + "    case \"NotFound\":\n"
+                + "    case \"smithy.example#NotFound\":\n"
+                + "      throw await deserializeJsonNotFoundResponse(parsedOutput, context);\n"));
+        assertThat(output, not(containsString("ErrorDeserializers")));
+    }
+
+    private String generateErrorDispatcher(boolean errorDispatchTables) {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("error-dispatch.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("service", Node.from("smithy.example#Example"))
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("errorDispatchTables", Node.from(errorDispatchTables))
+                .build(), TypeScriptSettings.ArtifactType.CLIENT);
+        GenerationContext context = new GenerationContext();
+        context.setProtocolName("json");
+        context.setModel(model);
+        context.setSettings(settings);
+        context.setService(settings.getService(model));
+        context.setSymbolProvider(settings.getArtifactType().createSymbolProvider(model, settings));
+        context.setWriter(new TypeScriptWriter("foo"));
+
+        OperationShape operation = model.expectShape(ShapeId.from("smithy.example#GetFoo"), OperationShape.class);
+        Set<StructureShape> errors = HttpProtocolGeneratorUtils.generateErrorDispatcher(
+                context, operation, ApplicationProtocol.createDefaultHttpApplicationProtocol().getResponseType(),
+                c -> c.getWriter().write("const errorCode = loadErrorCode(parsedOutput);"), true,
+                (c, body) -> body, (c, o) -> {
+                    Map<String, ShapeId> names = new TreeMap<>();
+                    o.getErrors().forEach(id -> names.put(id.getName(), id));
+                    return names;
+                });
+
+        assertThat(errors.size(), equalTo(2));
+        return context.getWriter().toString();
+    }
+
     private static final class MockProvider implements SymbolProvider {
         private final String id = "com.smithy.example#Foo";
         private Symbol mock = Symbol.builder()
@@ -0,0 +1,123 @@
+package software.amazon.smithy.typescript.codegen.integration;
+
+import java.util.List;
+import java.util.Set;
+import software.amazon.smithy.model.knowledge.HttpBinding;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.TimestampFormatTrait.Format;
+
+/**
+ * A JSON protocol that copies document members as they are, so tests can render
+ * the code written by {@link HttpBindingProtocolGenerator} for real operations.
+ */
+final class MockHttpBindingProtocolGenerator extends HttpBindingProtocolGenerator {
+
+    MockHttpBindingProtocolGenerator() {
+        super(true);
+    }
+
+    @Override
+    public ShapeId getProtocol() {
+        return ShapeId.from("smithy.example#mockJson");
+    }
+
+    @Override
+    public void generateProtocolTests(GenerationContext context) {
+    }
+
+    @Override
+    protected Format getDocumentTimestampFormat() {
+        return Format.EPOCH_SECONDS;
+    }
+
+    @Override
+    protected String getDocumentContentType() {
+        return "application/json";
+    }
+
+    @Override
+    protected void generateDocumentBodyShapeSerializers(GenerationContext context, Set<Shape> shapes) {
+    }
+
+    @Override
+    protected void generateDocumentBodyShapeDeserializers(GenerationContext context, Set<Shape> shapes) {
+    }
+
+    @Override
+    protected void serializeInputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void serializeInputEventDocumentPayload(GenerationContext context) {
+        context.getWriter().write("body = context.utf8Decoder(JSON.stringify(input));");
+    }
+
+    @Override
+    protected void serializeOutputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void serializeErrorDocumentBody(
+            GenerationContext context,
+            StructureShape error,
+            List<HttpBinding> documentBindings
+    ) {
+        context.getWriter().write("body = JSON.stringify(input);");
+    }
+
+    @Override
+    protected void writeErrorCodeParser(GenerationContext context) {
+        context.getWriter().write("const errorCode = parsedOutput.body.code;");
+    }
+
+    @Override
+    protected void deserializeInputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        copyDocumentMembers(context, documentBindings);
+    }
+
+    @Override
+    protected void deserializeOutputDocumentBody(
+            GenerationContext context,
+            OperationShape operation,
+            List<HttpBinding> documentBindings
+    ) {
+        copyDocumentMembers(context, documentBindings);
+    }
+
+    @Override
+    protected void deserializeErrorDocumentBody(
+            GenerationContext context,
+            StructureShape error,
+            List<HttpBinding> documentBindings
+    ) {
+        copyDocumentMembers(context, documentBindings);
+    }
+
+    @Override
+    protected boolean requiresNumericEpochSecondsInPayload() {
+        return true;
+    }
+
+    private void copyDocumentMembers(GenerationContext context, List<HttpBinding> documentBindings) {
+        for (HttpBinding binding : documentBindings) {
+            context.getWriter().write("contents.$1L = data.$1L;", binding.getMemberName());
+        }
+    }
+}
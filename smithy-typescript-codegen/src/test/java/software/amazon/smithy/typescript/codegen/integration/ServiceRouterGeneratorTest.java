@@ -0,0 +1,71 @@
+package software.amazon.smithy.typescript.codegen.integration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings;
+import software.amazon.smithy.typescript.codegen.TypeScriptSettings.ArtifactType;
+import software.amazon.smithy.typescript.codegen.TypeScriptWriter;
+import software.amazon.smithy.typescript.codegen.integration.ProtocolGenerator.GenerationContext;
+
+public class ServiceRouterGeneratorTest {
+    @Test
+    public void generatesSwitchBasedRouter() {
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("service-router.smithy"))
+                .assemble()
+                .unwrap();
+        TypeScriptSettings settings = TypeScriptSettings.from(model, Node.objectNodeBuilder()
+                .withMember("service", Node.from("smithy.example#Example"))
+                .withMember("package", Node.from("example"))
+                .withMember("packageVersion", Node.from("1.0.0"))
+                .withMember("generateServiceRouter", Node.from(true))
+                .build(), ArtifactType.SSDK);
+        TypeScriptWriter writer = new TypeScriptWriter("");
+        GenerationContext context = new GenerationContext();
+        context.setSettings(settings);
+        context.setModel(model);
+        context.setService(model.expectShape(ShapeId.from("smithy.example#Example"), ServiceShape.class));
+        context.setSymbolProvider(ArtifactType.SSDK.createSymbolProvider(model, settings));
+        context.setWriter(writer);
+
+        new ServiceRouterGenerator(context).run();
+
+        String contents = writer.toString();
+        assertThat(contents, containsString("const mux: __Mux<\"Example\", keyof ExampleService<Context>> = {"));
+        assertThat(contents, containsString(
+                "    switch (req.method) {\n"
+                + "      case \"DELETE\": {\n"
+                + "        switch (segments[0]) {\n"
+                + "          case \"items\": {\n"
+                + "            switch (segments.length) {\n"
+                + "              case 1: {\n"
+                + "                if (httpbinding.hasQueryParameter(req, \"ids\")) {\n"
+                + "                  return { service: \"Example\", operation: \"DeleteItems\" };\n"
+                + "                }\n"
+                + "                break;\n"));
+        // Operations of higher rank are tried first, and operations of equal rank in service order.
+        assertThat(contents, containsString(
+                "              case 1: {\n"
+                + "                if (httpbinding.matchesQueryLiteral(req, \"versions\")) {\n"
+                + "                  return { service: \"Example\", operation: \"ListItemVersions\" };\n"
+                + "                }\n"
+                + "                return { service: \"Example\", operation: \"ListItems\" };\n"
+                + "              }\n"
+                + "              case 2: {\n"
+                + "                return { service: \"Example\", operation: \"GetItem\" };\n"
+                + "              }\n"));
+        assertThat(contents, containsString(
+                "          case \"files\": {\n"
+                + "            if (segments.length >= 3 && segments[segments.length - 1] === \"content\") {\n"
+                + "              return { service: \"Example\", operation: \"GetFile\" };\n"
+                + "            }\n"
+                + "            break;\n"));
+        assertThat(contents, containsString("    return undefined;\n"));
+    }
+}
@@ -0,0 +1,62 @@
+import { APIGatewayProxyEvent, APIGatewayProxyEventV2 } from "aws-lambda";
+
+import { convertEvent } from "./lambda";
+
+const v1Event = (body: string | null, isBase64Encoded: boolean): APIGatewayProxyEvent =>
+  ({
+    httpMethod: "POST",
+    path: "/items",
+    multiValueHeaders: { "content-type": ["application/octet-stream"] },
+    multiValueQueryStringParameters: null,
+    body,
+    isBase64Encoded,
+  } as any);
+
+const v2Event = (body: string | undefined, isBase64Encoded: boolean): APIGatewayProxyEventV2 =>
+  ({
+    version: "2.0",
+    rawPath: "/items",
+    headers: { "content-type": "application/octet-stream" },
+    requestContext: { http: { method: "POST" } },
+    body,
+    isBase64Encoded,
+  } as any);
+
+describe("convertEvent", () => {
+  const bytes = Uint8Array.of(0x00, 0xff, 0x7b, 0x80, 0x0a);
+
+  it.each([
+    ["version 1", v1Event],
+    ["version 2", v2Event],
+  ])("passes string bodies of %s events as utf-8 bytes", (_, event) => {
+    const request = convertEvent(event('{"name":"café"}', false) as any);
+
+    expect(request.body).toBeInstanceOf(Uint8Array);
+    expect(Buffer.from(request.body).toString("utf8")).toEqual('{"name":"café"}');
+  });
+
+  it.each([
+    ["version 1", v1Event],
+    ["version 2", v2Event],
+  ])("decodes base64 bodies of %s events", (_, event) => {
+    const request = convertEvent(event(Buffer.from("hello").toString("base64"), true) as any);
+
+    expect(request.body).toBeInstanceOf(Uint8Array);
+    expect(Buffer.from(request.body).toString("utf8")).toEqual("hello");
+  });
+
+  it.each([
+    ["version 1", v1Event],
+    ["version 2", v2Event],
+  ])("passes binary bodies of %s events as the same bytes", (_, event) => {
+    const request = convertEvent(event(Buffer.from(bytes).toString("base64"), true) as any);
+
+    expect(request.body).toBeInstanceOf(Uint8Array);
+    expect(Uint8Array.from(request.body)).toEqual(bytes);
+  });
+
+  it("omits missing bodies", () => {
+    expect(convertEvent(v1Event(null, false)).body).toBeUndefined();
+    expect(convertEvent(v2Event(undefined, false)).body).toBeUndefined();
+  });
+});
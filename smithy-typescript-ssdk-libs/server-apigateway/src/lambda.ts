@@ -25,7 +25,6 @@ import {
   APIGatewayProxyResult,
   APIGatewayProxyResultV2,
 } from "aws-lambda";
-import { Readable } from "stream";
 
 export function convertEvent(event: APIGatewayProxyEvent): HttpRequest;
 export function convertEvent(event: APIGatewayProxyEventV2): HttpRequest;
@@ -44,7 +43,7 @@ function convertV1Event(event: APIGatewayProxyEvent): HttpRequest {
     headers: convertMultiValueHeaders(event.multiValueHeaders),
     query: convertMultiValueQueryStringParameters(event.multiValueQueryStringParameters),
     path: event.path,
-    ...(event.body ? { body: Readable.from(Buffer.from(event.body, event.isBase64Encoded ? "base64" : "utf8")) } : {}),
+    ...(event.body ? { body: convertBody(event.body, event.isBase64Encoded) } : {}),
   });
 }
 
@@ -54,10 +53,16 @@ function convertV2Event(event: APIGatewayProxyEventV2): HttpRequest {
     headers: convertHeaders(event.headers),
     query: convertQuery(event.queryStringParameters),
     path: event.rawPath,
-    ...(event.body ? { body: Readable.from(Buffer.from(event.body, event.isBase64Encoded ? "base64" : "utf8")) } : {}),
+    ...(event.body ? { body: convertBody(event.body, event.isBase64Encoded) } : {}),
   });
 }
 
+// API Gateway delivers the whole body with the event, so it is handed to the deserializers as a
+// Uint8Array, which they use as is instead of collecting it from a stream.
+function convertBody(body: string, isBase64Encoded: boolean): Uint8Array {
+  return Buffer.from(body, isBase64Encoded ? "base64" : "utf8");
+}
+
 export const convertVersion2Response = convertResponse;
 export function convertResponse(response: HttpResponse): APIGatewayProxyResultV2 {
   return {
@@ -135,3 +135,53 @@ describe("simple matching", () => {
     });
   }
 });
+
+describe("ranked matching", () => {
+  const router = new HttpBindingMux<"Test", "List" | "ListVersions" | "Get" | "GetLatest" | "Search">([
+    new UriSpec("GET", [{ type: "path_literal", value: "items" }], [], { service: "Test", operation: "List" }),
+    new UriSpec(
+      "GET",
+      [{ type: "path_literal", value: "items" }],
+      [{ type: "query_literal", key: "versions" }],
+      { service: "Test", operation: "ListVersions" }
+    ),
+    new UriSpec("GET", [{ type: "path_literal", value: "items" }, { type: "path" }], [], {
+      service: "Test",
+      operation: "Get",
+    }),
+    new UriSpec(
+      "GET",
+      [{ type: "path_literal", value: "items" }, { type: "path_literal", value: "latest" }],
+      [],
+      { service: "Test", operation: "GetLatest" }
+    ),
+    new UriSpec("GET", [{ type: "greedy" }], [{ type: "query", key: "q" }], { service: "Test", operation: "Search" }),
+  ]);
+
+  const matches: { [idx: string]: HttpRequest[] } = {
+    "Test#List": [new HttpRequest({ method: "GET", path: "/items" })],
+    "Test#ListVersions": [new HttpRequest({ method: "GET", path: "/items", query: { versions: "" } })],
+    // specs of equal rank are matched in the order they are given
+    "Test#Get": [
+      new HttpRequest({ method: "GET", path: "/items/a" }),
+      new HttpRequest({ method: "GET", path: "/items/latest" }),
+    ],
+    "Test#Search": [
+      new HttpRequest({ method: "GET", path: "/items/a/b", query: { q: "c" } }),
+      new HttpRequest({ method: "GET", path: "/items", query: { q: "c" } }),
+    ],
+  };
+
+  for (const key in matches) {
+    for (const req of matches[key]) {
+      it(`should match ${JSON.stringify(req)} to ${key}`, () => {
+        expect(router.match(req)).toEqual({ service: key.split("#")[0], operation: key.split("#")[1] });
+      });
+    }
+  }
+
+  it("should not match paths without a matching spec", () => {
+    expect(router.match(new HttpRequest({ method: "GET", path: "/items/a/b" }))).toBeUndefined();
+    expect(router.match(new HttpRequest({ method: "PUT", path: "/items" }))).toBeUndefined();
+  });
+});
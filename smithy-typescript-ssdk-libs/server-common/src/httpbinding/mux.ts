@@ -41,9 +41,9 @@ export interface QuerySegment {
   key: string;
 }
 export class UriSpec<S extends string, O extends string> {
-  private readonly method: string;
-  private readonly pathSegments: (PathLiteralSegment | PathLabelSegment | GreedySegment)[];
-  private readonly querySegments: (QueryLiteralSegment | QuerySegment)[];
+  readonly method: string;
+  readonly pathSegments: (PathLiteralSegment | PathLabelSegment | GreedySegment)[];
+  readonly querySegments: (QueryLiteralSegment | QuerySegment)[];
   readonly rank: number;
   readonly target: ServiceCoordinate<S, O>;
 
@@ -60,16 +60,6 @@ export class UriSpec<S extends string, O extends string> {
     this.target = target;
   }
 
-  private matchesSegment(
-    requestSegment: string,
-    segment: PathLiteralSegment | PathLabelSegment | GreedySegment
-  ): boolean {
-    if (segment.type === "path_literal" && requestSegment !== segment.value) {
-      return false;
-    }
-    return true;
-  }
-
   match(req: HttpRequest): boolean {
     if (req.method !== this.method) {
       return false;
@@ -108,41 +98,163 @@ export class UriSpec<S extends string, O extends string> {
       return false;
     }
 
-    if (this.querySegments.length === 0) {
-      return true;
-    }
-
-    if (!req.query) {
-      return false;
-    }
+    return this.matchQuery(req);
+  }
 
+  /**
+   * Checks only the query segments of this spec against a request whose method and path already match.
+   */
+  matchQuery(req: HttpRequest): boolean {
     for (const querySegment of this.querySegments) {
-      if (!(querySegment.key in req.query)) {
-        return false;
-      }
       if (querySegment.type === "query_literal") {
-        const input_query_value = req.query[querySegment.key];
-        if (Array.isArray(input_query_value)) {
-          if (querySegment.value && !input_query_value.includes(querySegment.value)) {
-            return false;
-          }
-        } else if (querySegment.value && querySegment.value !== input_query_value) {
+        if (!matchesQueryLiteral(req, querySegment.key, querySegment.value)) {
           return false;
         }
+      } else if (!hasQueryParameter(req, querySegment.key)) {
+        return false;
       }
     }
     return true;
   }
 }
 
+/**
+ * Checks whether a request has a query parameter, whatever its value.
+ */
+export const hasQueryParameter = (req: HttpRequest, key: string): boolean => !!req.query && key in req.query;
+
+/**
+ * Checks whether a request has a query parameter and, if a value is given, whether the
+ * parameter has that value.
+ */
+export const matchesQueryLiteral = (req: HttpRequest, key: string, value?: string): boolean => {
+  const query = req.query;
+  if (!query || !(key in query)) {
+    return false;
+  }
+  if (!value) {
+    return true;
+  }
+  const input_query_value = query[key];
+  if (Array.isArray(input_query_value)) {
+    return input_query_value.includes(value);
+  }
+  return value === input_query_value;
+};
+
+interface RankedSpec<S extends string, O extends string> {
+  // position of the spec when every spec is ordered by descending rank; lower wins
+  priority: number;
+  spec: UriSpec<S, O>;
+}
+
+interface TrieNode<S extends string, O extends string> {
+  literals: Map<string, TrieNode<S, O>>;
+  label?: TrieNode<S, O>;
+  greedy?: TrieNode<S, O>;
+  // specs whose path ends at this node, in priority order
+  specs: RankedSpec<S, O>[];
+  // lowest priority of any spec reachable from this node, used to prune the search
+  minPriority: number;
+}
+
+const newNode = <S extends string, O extends string>(): TrieNode<S, O> => ({
+  literals: new Map(),
+  specs: [],
+  minPriority: Number.MAX_SAFE_INTEGER,
+});
+
+/**
+ * Routes requests with a prefix trie per HTTP method, built once from the specs.
+ *
+ * Each trie level matches one path segment through a literal, label, or greedy edge.
+ * When several specs match a request, the one with the highest rank wins, and specs
+ * of equal rank are tried in the order they were given, as they would be by scanning
+ * the specs in descending rank order.
+ */
 export class HttpBindingMux<S extends string, O extends string> implements Mux<S, O> {
-  private readonly specs: UriSpec<S, O>[];
+  private readonly roots = new Map<string, TrieNode<S, O>>();
 
   constructor(inputSpecs: UriSpec<S, O>[]) {
-    this.specs = inputSpecs.sort((s1, s2) => s2.rank - s1.rank);
+    const specs = inputSpecs.slice().sort((s1, s2) => s2.rank - s1.rank);
+    specs.forEach((spec, priority) => this.insert({ priority, spec }));
+  }
+
+  private insert(ranked: RankedSpec<S, O>): void {
+    let node = this.roots.get(ranked.spec.method);
+    if (node === undefined) {
+      node = newNode();
+      this.roots.set(ranked.spec.method, node);
+    }
+    node.minPriority = Math.min(node.minPriority, ranked.priority);
+    for (const segment of ranked.spec.pathSegments) {
+      let next: TrieNode<S, O> | undefined;
+      if (segment.type === "path_literal") {
+        next = node.literals.get(segment.value);
+        if (next === undefined) {
+          next = newNode();
+          node.literals.set(segment.value, next);
+        }
+      } else if (segment.type === "path") {
+        next = node.label = node.label ?? newNode();
+      } else {
+        next = node.greedy = node.greedy ?? newNode();
+      }
+      next.minPriority = Math.min(next.minPriority, ranked.priority);
+      node = next;
+    }
+    node.specs.push(ranked);
   }
 
   match(req: HttpRequest): ServiceCoordinate<S, O> | undefined {
-    return this.specs.find((s) => s.match(req))?.target;
+    const root = this.roots.get(req.method);
+    if (root === undefined) {
+      return undefined;
+    }
+    const segments = req.path.split("/").filter((s) => s.length > 0);
+    return this.search(root, segments, 0, req, undefined)?.spec.target;
+  }
+
+  /**
+   * Returns the highest priority spec below the node matching the request segments from the
+   * given index, or the best spec found so far if no better one matches.
+   */
+  private search(
+    node: TrieNode<S, O>,
+    segments: string[],
+    idx: number,
+    req: HttpRequest,
+    best: RankedSpec<S, O> | undefined
+  ): RankedSpec<S, O> | undefined {
+    if (best !== undefined && best.priority <= node.minPriority) {
+      return best;
+    }
+
+    if (idx === segments.length) {
+      for (const candidate of node.specs) {
+        if (best !== undefined && best.priority <= candidate.priority) {
+          break;
+        }
+        if (candidate.spec.matchQuery(req)) {
+          return candidate;
+        }
+      }
+      return best;
+    }
+
+    const literal = node.literals.get(segments[idx]);
+    if (literal !== undefined) {
+      best = this.search(literal, segments, idx + 1, req, best);
+    }
+    if (node.label !== undefined) {
+      best = this.search(node.label, segments, idx + 1, req, best);
+    }
+    if (node.greedy !== undefined) {
+      // greedy labels must consume at least one segment
+      for (let next = idx + 1; next <= segments.length; next++) {
+        best = this.search(node.greedy, segments, next, req, best);
+      }
+    }
+    return best;
   }
 }
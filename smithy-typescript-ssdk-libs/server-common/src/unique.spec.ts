@@ -15,7 +15,7 @@
 
 import * as util from "util";
 
-import { findDuplicates, Input } from "./unique";
+import { findDuplicateBlobs, findDuplicatePrimitives, findDuplicates, Input } from "./unique";
 
 describe("findDuplicates", () => {
   describe("finds duplicates in", () => {
@@ -103,6 +103,14 @@ describe("findDuplicates", () => {
     });
   });
 
+  it("does not consider 0 and -0 duplicates", () => {
+    expect(findDuplicates([0, -0])).toEqual([]);
+  });
+
+  it("does not depend on the order of map keys", () => {
+    expect(findDuplicates([{ a: 1, b: [2] }, { b: [2], a: 1 }, { a: [2], b: 1 }])).toEqual([{ a: 1, b: [2] }]);
+  });
+
   // This is relatively slow and may be flaky if the input size is tuned to let it run reasonably fast
   it.skip("is faster than the naive implementation", () => {
     const input: Input[] = [true, false, 1, 2, 3, 4, 5, 6];
@@ -139,3 +147,27 @@ describe("findDuplicates", () => {
     return [];
   }
 });
+
+describe("findDuplicatePrimitives", () => {
+  it("finds duplicates", () => {
+    expect(findDuplicatePrimitives(["a", "b", "c", "a", "b", "a"])).toEqual(["a", "b"]);
+    expect(findDuplicatePrimitives([1, 2, 3, 4, 1, 2])).toEqual([1, 2]);
+    expect(findDuplicatePrimitives([true, false, true])).toEqual([true]);
+  });
+  it("correctly does not find duplicates", () => {
+    expect(findDuplicatePrimitives(["a", "b", "c"])).toEqual([]);
+    expect(findDuplicatePrimitives([1, 2, "1", "2"])).toEqual([]);
+    expect(findDuplicatePrimitives([0, -0])).toEqual([]);
+  });
+});
+
+describe("findDuplicateBlobs", () => {
+  it("finds duplicates", () => {
+    expect(findDuplicateBlobs([Uint8Array.of(1, 2, 3), Uint8Array.of(4, 5, 6), Uint8Array.of(4, 5, 6)])).toEqual([
+      Uint8Array.of(4, 5, 6),
+    ]);
+  });
+  it("correctly does not find duplicates", () => {
+    expect(findDuplicateBlobs([Uint8Array.of(1, 2, 3), Uint8Array.of(1, 2), Uint8Array.of(1, 2, 4)])).toEqual([]);
+  });
+});
@@ -13,7 +13,6 @@
  *  permissions and limitations under the License.
  */
 
-import { createHash } from "crypto";
 import * as util from "util";
 
 /**
@@ -26,23 +25,25 @@ export type Input = { [key: string]: Input } | Array<Input> | Date | Uint8Array
  * Returns an array of duplicated values in the input. This is equivalent to using
  * {@link util#isDeepStrictEqual} to compare every member of the input to all the
  * other members, but with an optimization to make the runtime complexity O(n)
- * instead of O(n^2).
+ * instead of O(n^2): members are grouped by a structural hash, and only members
+ * with the same hash are compared.
  *
  * @param input an array of {@link Input}
  * @return an array containing one instance of every duplicated member of the input,
  *         or an empty array if there are no duplicates
  */
 export const findDuplicates = (input: Array<Input>): Array<Input> => {
-  const potentialCollisions: { [hash: string]: { value: Input; alreadyFound: boolean }[] } = {};
+  const potentialCollisions = new Map<number, { value: Input; alreadyFound: boolean }[]>();
   const collisions: Array<Input> = [];
 
   for (const value of input) {
-    const valueHash = hash(value);
-    if (!potentialCollisions.hasOwnProperty(valueHash)) {
-      potentialCollisions[valueHash] = [{ value: value, alreadyFound: false }];
+    const valueHash = hash(value, FNV_OFFSET);
+    const candidates = potentialCollisions.get(valueHash);
+    if (candidates === undefined) {
+      potentialCollisions.set(valueHash, [{ value: value, alreadyFound: false }]);
     } else {
       let duplicateFound = false;
-      for (const potentialCollision of potentialCollisions[valueHash]) {
+      for (const potentialCollision of candidates) {
         if (util.isDeepStrictEqual(value, potentialCollision.value)) {
           duplicateFound = true;
           if (!potentialCollision.alreadyFound) {
@@ -52,50 +53,171 @@ export const findDuplicates = (input: Array<Input>): Array<Input> => {
         }
       }
       if (!duplicateFound) {
-        potentialCollisions[valueHash].push({ value: value, alreadyFound: false });
+        candidates.push({ value: value, alreadyFound: false });
       }
     }
   }
   return collisions;
 };
 
-const hash = (input: Input): string => {
-  return createHash("sha256").update(canonicalize(input)).digest("base64");
+/**
+ * Returns an array of duplicated values in an array of strings, numbers, or booleans.
+ * This returns the same values as {@link findDuplicates}, but compares the members
+ * directly instead of hashing them.
+ *
+ * @param input an array of primitives
+ * @return an array containing one instance of every duplicated member of the input,
+ *         or an empty array if there are no duplicates
+ */
+export const findDuplicatePrimitives = <T extends string | number | boolean>(input: Array<T>): Array<T> => {
+  const seen = new Set<T | typeof NEGATIVE_ZERO>();
+  const found = new Set<T | typeof NEGATIVE_ZERO>();
+  const collisions: Array<T> = [];
+
+  for (const value of input) {
+    // Sets consider 0 and -0 equal, but isDeepStrictEqual does not.
+    const key = Object.is(value, -0) ? NEGATIVE_ZERO : value;
+    if (!seen.has(key)) {
+      seen.add(key);
+    } else if (!found.has(key)) {
+      found.add(key);
+      collisions.push(value);
+    }
+  }
+  return collisions;
 };
 
 /**
- * Since node's hash functions operate on strings or buffers, we need a canonical format for
- * our objects in order to hash them correctly. This function turns them into string representations
- * where the types are encoded in order to avoid ambiguity, for instance, between the string "1" and
- * the number 1. This method sorts object keys lexicographically in order to maintain consistency.
+ * Returns an array of duplicated values in an array of blobs. This returns the same
+ * values as {@link findDuplicates}, but only compares the contents of blobs of the
+ * same length and content hash.
  *
- * This doesn't just call JSON.stringify because we want to have firm control over the ordering of map
- * keys and the handling of blobs and dates
+ * @param input an array of blobs
+ * @return an array containing one instance of every duplicated member of the input,
+ *         or an empty array if there are no duplicates
+ */
+export const findDuplicateBlobs = (input: Array<Uint8Array>): Array<Uint8Array> => {
+  const potentialCollisions = new Map<string, { value: Uint8Array; alreadyFound: boolean }[]>();
+  const collisions: Array<Uint8Array> = [];
+
+  for (const value of input) {
+    const key = value.length + ":" + hashBytes(value, FNV_OFFSET);
+    const candidates = potentialCollisions.get(key);
+    if (candidates === undefined) {
+      potentialCollisions.set(key, [{ value: value, alreadyFound: false }]);
+      continue;
+    }
+    const potentialCollision = candidates.find((candidate) => bytesEqual(value, candidate.value));
+    if (potentialCollision === undefined) {
+      candidates.push({ value: value, alreadyFound: false });
+    } else if (!potentialCollision.alreadyFound) {
+      collisions.push(value);
+      potentialCollision.alreadyFound = true;
+    }
+  }
+  return collisions;
+};
+
+const NEGATIVE_ZERO = Symbol("-0");
+
+const FNV_OFFSET = 0x811c9dc5;
+const FNV_PRIME = 0x01000193;
+
+const TYPE_NULL = 1;
+const TYPE_STRING = 2;
+const TYPE_NUMBER = 3;
+const TYPE_BOOLEAN = 4;
+const TYPE_ARRAY = 5;
+const TYPE_DATE = 6;
+const TYPE_BLOB = 7;
+const TYPE_MAP = 8;
+
+const float64 = new Float64Array(1);
+const float64Words = new Uint32Array(float64.buffer);
+
+/**
+ * Computes a 32-bit FNV-1a hash of the structure of the input without building an
+ * intermediate representation of it. Types are mixed into the hash in order to avoid
+ * trivial collisions, for instance, between the string "1" and the number 1. Map
+ * entries are combined with addition, so that the hash does not depend on the order
+ * of their keys.
+ *
+ * Values that are equal according to {@link util#isDeepStrictEqual} have the same
+ * hash; values with the same hash still need to be compared.
  *
  * @param input a JSON-like object
- * @return a canonical string representation
+ * @param seed the hash to continue from
+ * @return the hash of the input
  */
-const canonicalize = (input: Input): string => {
+const hash = (input: Input, seed: number): number => {
   if (input === null) {
-    return "null()";
+    return mix(seed, TYPE_NULL);
+  }
+  if (typeof input === "string") {
+    return hashString(input, mix(seed, TYPE_STRING));
+  }
+  if (typeof input === "number") {
+    return hashNumber(input, mix(seed, TYPE_NUMBER));
   }
-  if (typeof input === "string" || typeof input === "number" || typeof input === "boolean") {
-    return `${typeof input}(${input.toString()})`;
+  if (typeof input === "boolean") {
+    return mix(mix(seed, TYPE_BOOLEAN), input ? 1 : 0);
   }
   if (Array.isArray(input)) {
-    return "array(" + input.map((i) => canonicalize(i)).join(",") + ")";
+    let h = mix(mix(seed, TYPE_ARRAY), input.length);
+    for (const member of input) {
+      h = hash(member, h);
+    }
+    return h;
   }
   if (input instanceof Date) {
-    return "date(" + input.getTime() + ")";
+    return hashNumber(input.getTime(), mix(seed, TYPE_DATE));
   }
   if (input instanceof Uint8Array) {
-    // hashing the blob just to avoid allocating another base64 copy of its data
-    return "blob(" + createHash("sha256").update(input).digest("base64") + ")";
+    return hashBytes(input, mix(mix(seed, TYPE_BLOB), input.length));
+  }
+
+  const keys = Object.keys(input);
+  let entries = 0;
+  for (const key of keys) {
+    entries = (entries + hash(input[key], hashString(key, FNV_OFFSET))) >>> 0;
+  }
+  return mix(mix(mix(seed, TYPE_MAP), keys.length), entries);
+};
+
+const mix = (h: number, value: number): number => Math.imul(h ^ value, FNV_PRIME) >>> 0;
+
+const hashString = (input: string, seed: number): number => {
+  let h = seed;
+  for (let i = 0; i < input.length; i++) {
+    h = mix(h, input.charCodeAt(i));
+  }
+  return mix(h, input.length);
+};
+
+const hashNumber = (input: number, seed: number): number => {
+  if (Number.isNaN(input)) {
+    return mix(seed, 0x7ff80000);
   }
+  float64[0] = input;
+  return mix(mix(seed, float64Words[0]), float64Words[1]);
+};
 
-  const contents: Array<string> = [];
-  for (const key of Object.keys(input).slice().sort()) {
-    contents.push("key(" + key + ")->value(" + canonicalize(input[key]) + ")");
+const hashBytes = (input: Uint8Array, seed: number): number => {
+  let h = seed;
+  for (let i = 0; i < input.length; i++) {
+    h = mix(h, input[i]);
+  }
+  return h;
+};
+
+const bytesEqual = (a: Uint8Array, b: Uint8Array): boolean => {
+  if (a.length !== b.length) {
+    return false;
+  }
+  for (let i = 0; i < a.length; i++) {
+    if (a[i] !== b[i]) {
+      return false;
+    }
   }
-  return "map(" + contents.join(",") + ")";
+  return true;
 };
@@ -13,11 +13,13 @@
  *  permissions and limitations under the License.
  */
 
+import { findDuplicateBlobs, findDuplicatePrimitives } from "../unique";
 import {
   CompositeValidator,
   EnumValidator,
   IntegerEnumValidator,
   LengthValidator,
+  lengthOf,
   PatternValidator,
   RangeValidator,
   SensitiveConstraintValidator,
@@ -139,6 +141,12 @@ describe("length validation", () => {
   it("properly assesses string length", () => {
     expect(new LengthValidator(3, 3).validate("👍👍👍", "threeEmojis")).toBeNull();
   });
+
+  it("counts code points like the string iterator", () => {
+    for (const value of ["", "abc", "👍👍👍", "a👍b", "\ud83d", "\udc4d\ud83d", "\ud83d\ud83d\udc4d"]) {
+      expect(lengthOf(value)).toEqual([...value].length);
+    }
+  });
 });
 
 describe("pattern validation", () => {
@@ -260,4 +268,31 @@ describe("uniqueItems", () => {
       path: "aField",
     });
   });
+  it("supports objects with keys in a different order", () => {
+    expect(validator.validate([{ a: 1, b: 2 }, { a: 2, b: 1 }], "aField")).toBeNull();
+    expect(validator.validate([{ a: 1, b: 2 }, { b: 2, a: 1 }], "aField")).toEqual({
+      constraintType: "uniqueItems",
+      failureValue: [{ a: 1, b: 2 }],
+      path: "aField",
+    });
+  });
+  it("supports duplicate finders for one type of member", () => {
+    const primitiveValidator = new UniqueItemsValidator(findDuplicatePrimitives);
+    expect(primitiveValidator.validate(["a", "b", "c"], "aField")).toBeNull();
+    expect(primitiveValidator.validate(["a", "a", "c", "a", "b", "b"], "aField")).toEqual({
+      constraintType: "uniqueItems",
+      failureValue: ["a", "b"],
+      path: "aField",
+    });
+  });
+  it("supports duplicate finders for blobs", () => {
+    const blobValidator = new UniqueItemsValidator(findDuplicateBlobs);
+    const blob = Uint8Array.of(1, 2, 3);
+    expect(blobValidator.validate([blob, Uint8Array.of(1, 2, 4), Uint8Array.of(1, 2)], "aField")).toBeNull();
+    expect(blobValidator.validate([blob, Uint8Array.of(3, 2, 1), Uint8Array.of(1, 2, 3)], "aField")).toEqual({
+      constraintType: "uniqueItems",
+      failureValue: [blob],
+      path: "aField",
+    });
+  });
 });
@@ -152,10 +152,10 @@ export interface SingleConstraintValidator<T, F> {
 }
 
 export class EnumValidator implements SingleConstraintValidator<string, EnumValidationFailure> {
-  private readonly allowedValues: string[];
+  private readonly allowedValues: Set<string>;
 
   constructor(allowedValues: readonly string[]) {
-    this.allowedValues = allowedValues.slice();
+    this.allowedValues = new Set(allowedValues);
   }
 
   validate(input: string | undefined | null, path: string): EnumValidationFailure | null {
@@ -163,10 +163,14 @@ export class EnumValidator implements SingleConstraintValidator<string, EnumVali
       return null;
     }
 
-    if (this.allowedValues.indexOf(input) < 0) {
+    if (!this.allowedValues.has(input)) {
+      const allowedValues = this.allowedValues;
       return {
         constraintType: "enum",
-        constraintValues: this.allowedValues.slice(),
+        // The list of allowed values is only built if the failure is rendered.
+        get constraintValues() {
+          return Array.from(allowedValues);
+        },
         path: path,
         failureValue: input,
       };
@@ -177,10 +181,10 @@ export class EnumValidator implements SingleConstraintValidator<string, EnumVali
 }
 
 export class IntegerEnumValidator implements SingleConstraintValidator<number, IntegerEnumValidationFailure> {
-  private readonly allowedValues: number[];
+  private readonly allowedValues: Set<number>;
 
   constructor(allowedValues: readonly number[]) {
-    this.allowedValues = allowedValues.slice();
+    this.allowedValues = new Set(allowedValues);
   }
 
   validate(input: number | undefined | null, path: string): IntegerEnumValidationFailure | null {
@@ -188,10 +192,14 @@ export class IntegerEnumValidator implements SingleConstraintValidator<number, I
       return null;
     }
 
-    if (this.allowedValues.indexOf(input) < 0) {
+    if (!this.allowedValues.has(input)) {
+      const allowedValues = this.allowedValues;
       return {
         constraintType: "integerEnum",
-        constraintValues: this.allowedValues.slice(),
+        // The list of allowed values is only built if the failure is rendered.
+        get constraintValues() {
+          return Array.from(allowedValues);
+        },
         path: path,
         failureValue: input,
       };
@@ -220,14 +228,7 @@ export class LengthValidator implements SingleConstraintValidator<LengthCheckabl
       return null;
     }
 
-    let length: number;
-    if (typeof input === "string") {
-      length = [...input].length; // string length is defined by the number of code points
-    } else if (LengthValidator.hasLength(input)) {
-      length = input.length;
-    } else {
-      length = Object.keys(input).length;
-    }
+    const length = lengthOf(input);
 
     if ((this.min !== undefined && length < this.min) || (this.max !== undefined && length > this.max)) {
       return {
@@ -245,11 +246,34 @@ export class LengthValidator implements SingleConstraintValidator<LengthCheckabl
 
     return null;
   }
+}
 
-  private static hasLength(obj: any): obj is { length: number } {
-    return obj.hasOwnProperty("length");
+/**
+ * Returns the length of a value as the length trait defines it: the number of code points
+ * in a string, the length of an array, or the number of entries in any other object.
+ */
+export const lengthOf = (input: LengthCheckable): number => {
+  if (typeof input === "string") {
+    // count code points without allocating, counting lone surrogates as one code point like [...input] does
+    let length = 0;
+    for (let i = 0; i < input.length; i++) {
+      const code = input.charCodeAt(i);
+      if (code >= 0xd800 && code <= 0xdbff && i + 1 < input.length) {
+        const next = input.charCodeAt(i + 1);
+        if (next >= 0xdc00 && next <= 0xdfff) {
+          i++;
+        }
+      }
+      length++;
+    }
+    return length;
+  } else if (hasLength(input)) {
+    return input.length;
   }
-}
+  return Object.keys(input).length;
+};
+
+const hasLength = (obj: any): obj is { length: number } => obj.hasOwnProperty("length");
 
 export class RangeValidator implements SingleConstraintValidator<number, RangeValidationFailure> {
   private readonly min?: number;
@@ -295,6 +319,13 @@ export class PatternValidator implements SingleConstraintValidator<string, Patte
     this.pattern = new RE2(pattern, "u");
   }
 
+  /**
+   * Checks whether a string matches the pattern, without building a failure.
+   */
+  test(input: string): boolean {
+    return this.pattern.test(input);
+  }
+
   validate(input: string | undefined | null, path: string): PatternValidationFailure | null {
     if (input === null || input === undefined) {
       return null;
@@ -322,12 +353,22 @@ export class RequiredValidator implements SingleConstraintValidator<any, Require
 }
 
 export class UniqueItemsValidator implements SingleConstraintValidator<Array<any>, UniqueItemsValidationFailure> {
+  private readonly findDuplicates: (input: Array<any>) => Array<any>;
+
+  /**
+   * @param duplicateFinder a function that finds the duplicates of lists whose members are
+   *                        known to be of one type, such as {@link findDuplicatePrimitives}
+   */
+  constructor(duplicateFinder: (input: Array<any>) => Array<any> = findDuplicates) {
+    this.findDuplicates = duplicateFinder;
+  }
+
   validate(input: Array<any> | undefined | null, path: string): UniqueItemsValidationFailure | null {
     if (input === null || input === undefined) {
       return null;
     }
 
-    const repeats = findDuplicates(input);
+    const repeats = this.findDuplicates(input);
 
     if (repeats.length > 0) {
       return {